@@ -0,0 +1,53 @@
+package seedu.address.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import seedu.address.model.FieldValidationBenchmark;
+import seedu.address.storage.FsyncPolicyBenchmark;
+import seedu.address.storage.JsonPersonCodecBenchmark;
+
+/**
+ * Runs the benchmarks one after another and prints their results, or only the benchmark named by the first argument.
+ * Benchmarks are not run by the tests; run them with {@code gradlew benchmark}, on the kind of machine the app runs on.
+ */
+public class BenchmarkRunner {
+
+    private static final Map<String, Benchmark> BENCHMARKS = new LinkedHashMap<>();
+
+    static {
+        BENCHMARKS.put(FieldValidationBenchmark.class.getSimpleName(), FieldValidationBenchmark::main);
+        BENCHMARKS.put(JsonPersonCodecBenchmark.class.getSimpleName(), JsonPersonCodecBenchmark::main);
+        BENCHMARKS.put(FsyncPolicyBenchmark.class.getSimpleName(), FsyncPolicyBenchmark::main);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            for (Map.Entry<String, Benchmark> benchmark : BENCHMARKS.entrySet()) {
+                run(benchmark.getKey(), benchmark.getValue());
+            }
+            return;
+        }
+
+        Benchmark benchmark = BENCHMARKS.get(args[0]);
+        if (benchmark == null) {
+            throw new IllegalArgumentException("Unknown benchmark " + args[0] + ", expected one of "
+                    + BENCHMARKS.keySet());
+        }
+        run(args[0], benchmark);
+    }
+
+    private static void run(String name, Benchmark benchmark) throws Exception {
+        System.out.println("== " + name);
+        benchmark.run(new String[0]);
+    }
+
+    /**
+     * The {@code main} method of a benchmark.
+     */
+    @FunctionalInterface
+    private interface Benchmark {
+        void run(String[] args) throws Exception;
+    }
+
+}
@@ -0,0 +1,48 @@
+package seedu.address.benchmark;
+
+import seedu.address.model.AddressBook;
+import seedu.address.testutil.PersonBuilder;
+
+/**
+ * Helper methods shared by the benchmarks.
+ */
+public class BenchmarkUtil {
+
+    /**
+     * Returns an address book of {@code personCount} distinct persons, half of them with one tag and half with two.
+     */
+    public static AddressBook createAddressBook(int personCount) {
+        AddressBook addressBook = new AddressBook();
+        for (int i = 0; i < personCount; i++) {
+            addressBook.addPerson(new PersonBuilder().withName("Person " + i).withPhone(String.valueOf(90000000 + i))
+                    .withEmail("person" + i + "@example.com").withAddress(i + ", Clementi Ave 2, #02-25")
+                    .withTags(i % 2 == 0 ? new String[] {"friends"} : new String[] {"colleagues", "owesMoney"})
+                    .build());
+        }
+        return addressBook;
+    }
+
+    /**
+     * Returns the average time in milliseconds taken by one of {@code measuredRounds} runs of {@code task}, after
+     * {@code warmupRounds} runs that are not measured.
+     */
+    public static double measureMillis(Task task, int warmupRounds, int measuredRounds) throws Exception {
+        for (int round = 0; round < warmupRounds; round++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < measuredRounds; round++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / measuredRounds;
+    }
+
+    /**
+     * A piece of work whose time is measured.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+}
@@ -0,0 +1,80 @@
+package seedu.address.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import seedu.address.model.person.Address;
+import seedu.address.model.person.Email;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.Phone;
+import seedu.address.model.tag.Tag;
+import seedu.address.testutil.TypicalPersons;
+
+/**
+ * Compares the time taken by the field validators with that of matching the fields against their validation regexes.
+ * Run it with {@code gradlew benchmark -Pbenchmark=FieldValidationBenchmark}, or its {@code main} method from the IDE.
+ */
+public class FieldValidationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    public static void main(String[] args) {
+        List<Person> persons = new ArrayList<>(TypicalPersons.getTypicalPersons());
+        persons.add(TypicalPersons.AMY);
+        persons.add(TypicalPersons.BOB);
+
+        List<String> names = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        List<String> addresses = new ArrayList<>();
+        List<String> tagNames = new ArrayList<>();
+        for (Person person : persons) {
+            names.add(person.getName().fullName);
+            phones.add(person.getPhone().value);
+            emails.add(person.getEmail().value);
+            addresses.add(person.getAddress().value);
+            person.getTags().forEach(tag -> tagNames.add(tag.tagName));
+        }
+
+        compare("Name", names, Name::isValidName, Name.VALIDATION_REGEX);
+        compare("Phone", phones, Phone::isValidPhone, Phone.VALIDATION_REGEX);
+        compare("Email", emails, Email::isValidEmail, Email.VALIDATION_REGEX);
+        compare("Address", addresses, Address::isValidAddress, Address.VALIDATION_REGEX);
+        compare("Tag", tagNames, Tag::isValidTagName, Tag.VALIDATION_REGEX);
+    }
+
+    private static void compare(String field, List<String> values, Predicate<String> validator, String regex) {
+        Predicate<String> regexValidator = value -> value.matches(regex);
+        measure(values, regexValidator, WARMUP_ROUNDS);
+        measure(values, validator, WARMUP_ROUNDS);
+
+        double regexNanos = measure(values, regexValidator, MEASURED_ROUNDS);
+        double validatorNanos = measure(values, validator, MEASURED_ROUNDS);
+        System.out.printf("%-8s regex: %8.1f ns/op   validator: %6.1f ns/op   speedup: %5.1fx%n",
+                field, regexNanos, validatorNanos, regexNanos / validatorNanos);
+    }
+
+    /**
+     * Returns the average time in nanoseconds taken by {@code validator} to validate one of {@code values}.
+     */
+    private static double measure(List<String> values, Predicate<String> validator, int rounds) {
+        int validCount = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String value : values) {
+                if (validator.test(value)) {
+                    validCount++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (validCount != rounds * values.size()) {
+            throw new AssertionError("Benchmark values should all be valid");
+        }
+        return (double) elapsed / (rounds * values.size());
+    }
+
+}
@@ -0,0 +1,63 @@
+package seedu.address.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import seedu.address.benchmark.BenchmarkUtil;
+import seedu.address.commons.core.Compression;
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+/**
+ * Measures the latency of saving an address book under each {@link FsyncPolicy}: a full save of the JSON data file,
+ * as after every command by default, and a save that only appends a change to a journal, as between checkpoints.
+ * The numbers depend heavily on the storage device and file system, so run it on the kind of machine the app runs on.
+ * Run it with {@code gradlew benchmark -Pbenchmark=FsyncPolicyBenchmark}, or its {@code main} method from the IDE.
+ */
+public class FsyncPolicyBenchmark {
+
+    private static final int PERSON_COUNT = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        AddressBook addressBook = BenchmarkUtil.createAddressBook(PERSON_COUNT);
+
+        Path folder = Files.createTempDirectory("FsyncPolicyBenchmark");
+        try {
+            for (FsyncPolicy fsyncPolicy : FsyncPolicy.values()) {
+                Path filePath = folder.resolve(fsyncPolicy + ".json");
+
+                JsonAddressBookStorage fullStorage = new JsonAddressBookStorage(filePath, true, Compression.NONE, false,
+                        fsyncPolicy);
+                double fullSaveMillis = BenchmarkUtil.measureMillis(() -> fullStorage.saveAddressBook(addressBook),
+                        WARMUP_ROUNDS, MEASURED_ROUNDS);
+
+                // a checkpoint interval longer than the rounds, so that every save but the first only appends
+                JournalAddressBookStorage journalStorage = new JournalAddressBookStorage(fullStorage,
+                        2 * (WARMUP_ROUNDS + MEASURED_ROUNDS), fsyncPolicy);
+                journalStorage.saveAddressBook(addressBook);
+                Person[] editedPerson = {addressBook.getPersonList().get(0)};
+                double appendSaveMillis = BenchmarkUtil.measureMillis(() -> {
+                    Person nextPerson = new PersonBuilder(editedPerson[0])
+                            .withPhone(String.valueOf(Long.parseLong(editedPerson[0].getPhone().value) + 1)).build();
+                    addressBook.setPerson(editedPerson[0], nextPerson);
+                    editedPerson[0] = nextPerson;
+                    journalStorage.saveAddressBook(addressBook);
+                }, WARMUP_ROUNDS, MEASURED_ROUNDS);
+
+                System.out.printf("%-13s %d persons   full save: %7.2f ms   journal append: %7.2f ms%n",
+                        fsyncPolicy, PERSON_COUNT, fullSaveMillis, appendSaveMillis);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(folder)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+}
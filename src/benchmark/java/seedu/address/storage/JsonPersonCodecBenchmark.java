@@ -0,0 +1,67 @@
+package seedu.address.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import seedu.address.benchmark.BenchmarkUtil;
+import seedu.address.benchmark.BenchmarkUtil.Task;
+import seedu.address.commons.util.JsonUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+
+/**
+ * Compares the time taken to save and read an address book with {@link JsonPersonCodec} with that of going through
+ * {@link JsonAdaptedPerson} and data binding, which is how persons were converted before.
+ * Run it with {@code gradlew benchmark -Pbenchmark=JsonPersonCodecBenchmark}, or its {@code main} method from the IDE.
+ */
+public class JsonPersonCodecBenchmark {
+
+    private static final int PERSON_COUNT = 100_000;
+    private static final int BATCH_SIZE = 16 * 1024;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        AddressBook addressBook = BenchmarkUtil.createAddressBook(PERSON_COUNT);
+        List<Person> persons = addressBook.getPersonList();
+
+        Path filePath = Files.createTempFile("JsonPersonCodecBenchmark", ".json");
+        try {
+            JsonAddressBookStorage storage = new JsonAddressBookStorage(filePath);
+            compare("Save", () -> saveAdapted(filePath, persons), () -> storage.saveAddressBook(addressBook));
+            compare("Read", () -> readAdapted(filePath), () -> storage.readAddressBook());
+        } finally {
+            Files.delete(filePath);
+        }
+    }
+
+    private static void saveAdapted(Path filePath, List<Person> persons) throws Exception {
+        JsonUtil.saveJsonArrayFile(filePath, JsonSerializableAddressBook.PERSONS_FIELD, persons,
+                (generator, person) -> generator.writeObject(new JsonAdaptedPerson(person)), true);
+    }
+
+    private static void readAdapted(Path filePath) throws Exception {
+        List<Person> persons = new ArrayList<>();
+        List<JsonAdaptedPerson> batch = new ArrayList<>();
+        JsonUtil.readJsonArrayFile(filePath, JsonSerializableAddressBook.PERSONS_FIELD, JsonAdaptedPerson.class,
+                jsonAdaptedPerson -> {
+                    batch.add(jsonAdaptedPerson);
+                    if (batch.size() == BATCH_SIZE) {
+                        persons.addAll(JsonSerializableAddressBook.toModelPersons(batch, persons.size() + 1));
+                        batch.clear();
+                    }
+                });
+        persons.addAll(JsonSerializableAddressBook.toModelPersons(batch, persons.size() + 1));
+        new AddressBook().setPersons(persons);
+    }
+
+    private static void compare(String operation, Task adapted, Task codec) throws Exception {
+        double adaptedMillis = BenchmarkUtil.measureMillis(adapted, WARMUP_ROUNDS, MEASURED_ROUNDS);
+        double codecMillis = BenchmarkUtil.measureMillis(codec, WARMUP_ROUNDS, MEASURED_ROUNDS);
+        System.out.printf("%-5s %d persons   adapted: %7.1f ms   codec: %7.1f ms   speedup: %4.1fx%n",
+                operation, PERSON_COUNT, adaptedMillis, codecMillis, adaptedMillis / codecMillis);
+    }
+
+}
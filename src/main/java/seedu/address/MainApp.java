@@ -6,8 +6,10 @@ import java.util.Optional;
 import java.util.logging.Logger;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import seedu.address.commons.core.Config;
+import seedu.address.commons.core.FsyncPolicy;
 import seedu.address.commons.core.LogsCenter;
 import seedu.address.commons.core.Version;
 import seedu.address.commons.exceptions.DataLoadingException;
@@ -23,8 +25,10 @@ import seedu.address.model.ReadOnlyUserPrefs;
 import seedu.address.model.UserPrefs;
 import seedu.address.model.util.SampleDataUtil;
 import seedu.address.storage.AddressBookStorage;
-import seedu.address.storage.JsonAddressBookStorage;
+import seedu.address.storage.AddressBookStorageFactory;
 import seedu.address.storage.JsonUserPrefsStorage;
+import seedu.address.storage.ReloadingAddressBookStorage;
+import seedu.address.storage.SnapshotAddressBookStorage;
 import seedu.address.storage.Storage;
 import seedu.address.storage.StorageManager;
 import seedu.address.storage.UserPrefsStorage;
@@ -46,6 +50,12 @@ public class MainApp extends Application {
     protected Model model;
     protected Config config;
 
+    /** The storage watching the data file for external changes, or null if they are not reloaded. */
+    private ReloadingAddressBookStorage reloadingAddressBookStorage;
+
+    /** The storage keeping a binary snapshot of the data file, or null if there is none. */
+    private SnapshotAddressBookStorage snapshotAddressBookStorage;
+
     @Override
     public void init() throws Exception {
         logger.info("=============================[ Initializing AddressBook ]===========================");
@@ -54,19 +64,62 @@ public class MainApp extends Application {
         AppParameters appParameters = AppParameters.parse(getParameters());
         config = initConfig(appParameters.getConfigPath());
         initLogging(config);
+        logger.info("Using fsync policy " + config.getFsyncPolicy() + " for saved files");
 
         UserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(config.getUserPrefsFilePath());
         UserPrefs userPrefs = initPrefs(userPrefsStorage);
-        AddressBookStorage addressBookStorage = new JsonAddressBookStorage(userPrefs.getAddressBookFilePath());
-        storage = new StorageManager(addressBookStorage, userPrefsStorage);
+        AddressBookStorage addressBookStorage = initAddressBookStorage(userPrefs, config.getFsyncPolicy());
+        storage = initStorageManager(addressBookStorage, userPrefsStorage, userPrefs);
 
         model = initModelManager(storage, userPrefs);
+        startReloadingAddressBook();
 
         logic = new LogicManager(model, storage);
 
         ui = new UiManager(logic);
     }
 
+    /**
+     * Returns the {@code AddressBookStorage} for the data file and storage options given in {@code userPrefs}, which
+     * forces the files it saves to the storage device as {@code fsyncPolicy} says.
+     */
+    private AddressBookStorage initAddressBookStorage(ReadOnlyUserPrefs userPrefs, FsyncPolicy fsyncPolicy) {
+        AddressBookStorageFactory factory = new AddressBookStorageFactory(userPrefs, fsyncPolicy);
+        AddressBookStorage addressBookStorage = factory.createAddressBookStorage();
+        reloadingAddressBookStorage = factory.getReloadingAddressBookStorage().orElse(null);
+        snapshotAddressBookStorage = factory.getSnapshotAddressBookStorage().orElse(null);
+        return addressBookStorage;
+    }
+
+    /**
+     * Starts applying the changes made to the data file outside the app to the model, if they are to be reloaded.
+     */
+    private void startReloadingAddressBook() {
+        if (reloadingAddressBookStorage == null) {
+            return;
+        }
+        try {
+            reloadingAddressBookStorage.startWatching((removedPersons, addedPersons) ->
+                    Platform.runLater(() -> model.applyExternalChanges(removedPersons, addedPersons)));
+        } catch (IOException e) {
+            logger.warning("Failed to watch data file for external changes " + StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * Returns a {@code StorageManager} that saves the address book as configured in {@code userPrefs}.
+     */
+    private StorageManager initStorageManager(AddressBookStorage addressBookStorage,
+            UserPrefsStorage userPrefsStorage, ReadOnlyUserPrefs userPrefs) {
+        if (!userPrefs.isAddressBookWriteBehindEnabled()) {
+            return new StorageManager(addressBookStorage, userPrefsStorage);
+        }
+        logger.info("Saving data file in the background, at most "
+                + userPrefs.getAddressBookWriteBehindDelayMillis() + " ms after each change");
+        return new StorageManager(addressBookStorage, userPrefsStorage,
+                userPrefs.getAddressBookWriteBehindDelayMillis());
+    }
+
     /**
      * Returns a {@code ModelManager} with the data from {@code storage}'s address book and {@code userPrefs}. <br>
      * The data from the sample address book will be used instead if {@code storage}'s address book is not found,
@@ -90,6 +143,10 @@ public class MainApp extends Application {
             initialData = new AddressBook();
         }
 
+        // Freshly loaded or created data is not shared with anything else, so the model can take it over as is.
+        if (initialData instanceof AddressBook) {
+            return ModelManager.adopt((AddressBook) initialData, userPrefs);
+        }
         return new ModelManager(initialData, userPrefs);
     }
 
@@ -177,10 +234,21 @@ public class MainApp extends Application {
     @Override
     public void stop() {
         logger.info("============================ [ Stopping AddressBook ] =============================");
+        if (reloadingAddressBookStorage != null) {
+            reloadingAddressBookStorage.stopWatching();
+        }
         try {
             storage.saveUserPrefs(model.getUserPrefs());
         } catch (IOException e) {
             logger.severe("Failed to save preferences " + StringUtil.getDetails(e));
         }
+        try {
+            storage.close();
+        } catch (IOException e) {
+            logger.severe("Failed to save address book " + StringUtil.getDetails(e));
+        }
+        if (snapshotAddressBookStorage != null) {
+            snapshotAddressBookStorage.refreshSnapshot();
+        }
     }
 }
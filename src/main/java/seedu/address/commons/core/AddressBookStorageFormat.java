@@ -0,0 +1,17 @@
+package seedu.address.commons.core;
+
+/**
+ * The file formats in which the address book can be stored.
+ */
+public enum AddressBookStorageFormat {
+    /** A human-readable JSON document. */
+    JSON,
+    /** A compact, versioned binary file. */
+    BINARY,
+    /** One JSON object per line, to which each save only appends what changed. */
+    JSON_LINES,
+    /** A log-structured merge tree of immutable segments, for large address books that change often. */
+    LSM,
+    /** An SQLite database file, which other programs can query directly. */
+    SQLITE
+}
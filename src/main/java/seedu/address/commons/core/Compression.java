@@ -0,0 +1,13 @@
+package seedu.address.commons.core;
+
+/**
+ * The ways in which a data file can be compressed.
+ */
+public enum Compression {
+    /** The data is stored as is. */
+    NONE,
+    /** The data is stored in the gzip format. */
+    GZIP,
+    /** The data is stored in the zlib format, i.e. deflated with a small header and checksum. */
+    DEFLATE
+}
@@ -17,6 +17,11 @@ public class Config {
     // Config values customizable through config file
     private Level logLevel = Level.INFO;
     private Path userPrefsFilePath = Paths.get("preferences.json");
+    /**
+     * When saved files are forced to the storage device. With the default data file format, which rewrites the whole
+     * file on every save, {@link FsyncPolicy#ON_CHECKPOINT} forces every save just as {@link FsyncPolicy#ALWAYS} does.
+     */
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.ON_CHECKPOINT;
 
     public Level getLogLevel() {
         return logLevel;
@@ -34,6 +39,14 @@ public class Config {
         this.userPrefsFilePath = userPrefsFilePath;
     }
 
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -47,12 +60,13 @@ public class Config {
 
         Config otherConfig = (Config) other;
         return Objects.equals(logLevel, otherConfig.logLevel)
-                && Objects.equals(userPrefsFilePath, otherConfig.userPrefsFilePath);
+                && Objects.equals(userPrefsFilePath, otherConfig.userPrefsFilePath)
+                && fsyncPolicy == otherConfig.fsyncPolicy;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(logLevel, userPrefsFilePath);
+        return Objects.hash(logLevel, userPrefsFilePath, fsyncPolicy);
     }
 
     @Override
@@ -60,6 +74,7 @@ public class Config {
         return new ToStringBuilder(this)
                 .add("logLevel", logLevel)
                 .add("userPrefsFilePath", userPrefsFilePath)
+                .add("fsyncPolicy", fsyncPolicy)
                 .toString();
     }
 
@@ -0,0 +1,22 @@
+package seedu.address.commons.core;
+
+/**
+ * When files that are saved are forced to the storage device, so that they survive a crash of the operating system
+ * or a power failure, and not only a crash of the app.
+ * Files that are rewritten as a whole are always replaced atomically, whatever the policy, so that a crash never
+ * leaves them partly written. SQLite data files are forced by SQLite itself, whatever the policy.
+ */
+public enum FsyncPolicy {
+    /** Files are never forced, and are written out whenever the operating system gets round to it. */
+    NEVER,
+    /**
+     * Files that are rewritten as a whole, such as the data file and the checkpoints of a journal, are forced before
+     * they replace the old files. Changes appended to a journal or log are not forced.
+     * Data files in the JSON and binary formats are rewritten as a whole by every save, so unless they are journaled,
+     * every save is forced, as with {@link #ALWAYS}. This policy only forces fewer writes for the storages that
+     * append changes: journaled data files, and the JSON Lines and log-structured formats.
+     */
+    ON_CHECKPOINT,
+    /** Files that are rewritten as a whole, and every change appended to a journal or log, are forced. */
+    ALWAYS
+}
@@ -0,0 +1,119 @@
+package seedu.address.commons.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import seedu.address.commons.core.Compression;
+
+/**
+ * Compresses and decompresses the streams of data files.
+ */
+public class CompressionUtil {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The first two bytes of every gzip stream. */
+    private static final int GZIP_MAGIC = 0x1f8b;
+    /** The low bits of the first byte of a zlib stream that mean it was deflated. */
+    private static final int ZLIB_DEFLATE_METHOD = 8;
+    /** The largest deflate window size that a zlib stream can declare, as a power of two minus 8. */
+    private static final int ZLIB_MAX_WINDOW_BITS = 7;
+
+    /**
+     * Returns a stream that compresses the data written to it with {@code compression} before writing it to
+     * {@code outputStream}. Closing the returned stream finishes the compressed data and closes {@code outputStream}.
+     */
+    public static OutputStream compress(OutputStream outputStream, Compression compression) throws IOException {
+        requireNonNull(outputStream);
+        requireNonNull(compression);
+
+        switch (compression) {
+        case GZIP:
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        case DEFLATE:
+            Deflater deflater = new Deflater();
+            return new DeflaterOutputStream(outputStream, deflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deflater.end();
+                    }
+                }
+            };
+        default:
+            return outputStream;
+        }
+    }
+
+    /**
+     * Returns a stream of the decompressed data of {@code inputStream}, whose compression is told from its first
+     * bytes. Data that is not compressed in any of the {@link Compression} formats is returned as is.
+     * Closing the returned stream closes {@code inputStream}.
+     */
+    public static InputStream decompress(InputStream inputStream) throws IOException {
+        requireNonNull(inputStream);
+
+        BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        bufferedStream.mark(2);
+        int firstByte = bufferedStream.read();
+        int secondByte = bufferedStream.read();
+        bufferedStream.reset();
+
+        switch (detect(firstByte, secondByte)) {
+        case GZIP:
+            try {
+                return new GZIPInputStream(bufferedStream, BUFFER_SIZE);
+            } catch (IOException ioe) {
+                bufferedStream.close();
+                throw ioe;
+            }
+        case DEFLATE:
+            Inflater inflater = new Inflater();
+            return new InflaterInputStream(bufferedStream, inflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        default:
+            return bufferedStream;
+        }
+    }
+
+    /**
+     * Returns the compression of a stream that starts with {@code firstByte} and {@code secondByte}, either of which
+     * is -1 if the stream ended before it.
+     */
+    static Compression detect(int firstByte, int secondByte) {
+        if (firstByte < 0 || secondByte < 0) {
+            return Compression.NONE;
+        }
+        int header = (firstByte << 8) | secondByte;
+        if (header == GZIP_MAGIC) {
+            return Compression.GZIP;
+        }
+        // A zlib header names the deflate method and a window size, and is a multiple of 31 as a big-endian number.
+        if ((firstByte & 0x0f) == ZLIB_DEFLATE_METHOD && (firstByte >> 4) <= ZLIB_MAX_WINDOW_BITS
+                && header % 31 == 0) {
+            return Compression.DEFLATE;
+        }
+        return Compression.NONE;
+    }
+
+}
@@ -1,16 +1,31 @@
 package seedu.address.commons.util;
 
+import static java.util.Objects.requireNonNull;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
 
 /**
  * Writes and reads files
  */
 public class FileUtil {
 
+    /** The suffix of the file that a file is written to before it replaces the file. */
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final Logger logger = LogsCenter.getLogger(FileUtil.class);
+
     private static final String CHARSET = "UTF-8";
 
     public static boolean isFileExists(Path file) {
@@ -75,9 +90,133 @@ public class FileUtil {
     /**
      * Writes given string to a file.
      * Will create the file if it does not exist yet.
+     * The file is replaced atomically and forced to the storage device, as by
+     * {@link #writeToFile(Path, String, FsyncPolicy)} with {@link FsyncPolicy#ON_CHECKPOINT}.
      */
     public static void writeToFile(Path file, String content) throws IOException {
-        Files.write(file, content.getBytes(CHARSET));
+        writeToFile(file, content, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Writes given string to a file, which is replaced atomically as by
+     * {@link #writeAtomically(Path, FsyncPolicy, FileContentWriter)}.
+     */
+    public static void writeToFile(Path file, String content, FsyncPolicy fsyncPolicy) throws IOException {
+        byte[] bytes = content.getBytes(CHARSET);
+        writeAtomically(file, fsyncPolicy, tempFile -> Files.write(tempFile, bytes));
+    }
+
+    /**
+     * Replaces {@code file} with the content that {@code contentWriter} writes, creating the file and its missing
+     * parent directories if they do not exist yet.
+     * The content is written to a temporary file next to {@code file} first, which is then moved over {@code file}
+     * in one atomic step, so that a crash leaves either the old or the new content, but never a mix of both. Unless
+     * {@code fsyncPolicy} is {@link FsyncPolicy#NEVER}, the temporary file is forced to the storage device before the
+     * move, and the directory after it.
+     */
+    public static void writeAtomically(Path file, FsyncPolicy fsyncPolicy, FileContentWriter contentWriter)
+            throws IOException {
+        requireNonNull(file);
+        requireNonNull(fsyncPolicy);
+        requireNonNull(contentWriter);
+
+        createParentDirsOfFile(file);
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            contentWriter.write(tempFile);
+            syncWholeFile(tempFile, fsyncPolicy);
+            moveAtomically(tempFile, file, fsyncPolicy);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves {@code source}, which has been forced to the storage device, over {@code target} in one atomic step.
+     * Unless {@code fsyncPolicy} is {@link FsyncPolicy#NEVER}, the directory is forced after the move.
+     */
+    public static void moveAtomically(Path source, Path target, FsyncPolicy fsyncPolicy) throws IOException {
+        requireNonNull(source);
+        requireNonNull(target);
+        requireNonNull(fsyncPolicy);
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            forceDirectoryOf(target);
+        }
+    }
+
+    /**
+     * Forces {@code file}, which has just been written as a whole, to the storage device, unless {@code fsyncPolicy}
+     * is {@link FsyncPolicy#NEVER}.
+     */
+    public static void syncWholeFile(Path file, FsyncPolicy fsyncPolicy) throws IOException {
+        requireNonNull(fsyncPolicy);
+        if (fsyncPolicy == FsyncPolicy.NEVER) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Appends {@code content} to {@code file}, creating the file if it does not exist yet.
+     * The file is only forced to the storage device if {@code fsyncPolicy} is {@link FsyncPolicy#ALWAYS}.
+     */
+    public static void appendToFile(Path file, byte[] content, FsyncPolicy fsyncPolicy) throws IOException {
+        requireNonNull(content);
+        requireNonNull(fsyncPolicy);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Returns true if {@code file}, which must exist, is empty or ends with a line separator, so that a line appended
+     * to it starts a line of its own.
+     */
+    public static boolean isEmptyOrEndsWithNewline(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, size - 1);
+            return lastByte.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Forces the directory of {@code file} to the storage device, so that a file moved into it stays there.
+     * Not all platforms allow directories to be forced, so a failure is only logged.
+     */
+    private static void forceDirectoryOf(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ioe) {
+            logger.fine("Could not force directory " + directory + ": " + ioe);
+        }
+    }
+
+    /**
+     * Writes the whole content of a file.
+     */
+    @FunctionalInterface
+    public interface FileContentWriter {
+        /**
+         * Writes the content to {@code file}, creating or overwriting it.
+         */
+        void write(Path file) throws IOException;
     }
 
 }
@@ -2,26 +2,54 @@ package seedu.address.commons.util;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
+import seedu.address.commons.core.Compression;
+import seedu.address.commons.core.FsyncPolicy;
 import seedu.address.commons.core.LogsCenter;
 import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
 
 /**
  * Converts a Java object instance to JSON and vice versa
@@ -30,6 +58,11 @@ public class JsonUtil {
 
     private static final Logger logger = LogsCenter.getLogger(JsonUtil.class);
 
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    /** The number of elements in each chunk of an array that is written in parallel. */
+    static final int PARALLEL_WRITE_CHUNK_SIZE = 1024;
+
     private static ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
@@ -39,6 +72,12 @@ public class JsonUtil {
                     .addSerializer(Level.class, new ToStringSerializer())
                     .addDeserializer(Level.class, new LevelDeserializer(Level.class)));
 
+    private static final ObjectWriter prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter compactWriter = objectMapper.writer();
+
+    /** Readers are immutable and thread-safe, so one is created per class and reused by every read. */
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
     static <T> void serializeObjectToJsonFile(Path jsonFile, T objectToSerialize) throws IOException {
         FileUtil.writeToFile(jsonFile, toJsonString(objectToSerialize));
     }
@@ -77,6 +116,369 @@ public class JsonUtil {
         return Optional.of(jsonFile);
     }
 
+    /**
+     * Reads the elements of the JSON array stored under {@code arrayFieldName} in the top-level object of the given
+     * file one at a time, in file order, and passes each of them to {@code elementHandler}.
+     * The file is parsed as a stream, so neither the file nor the whole array is ever held in memory.
+     * Other fields of the top-level object are skipped. A file compressed in any of the {@link Compression} formats is
+     * decompressed as it is read.
+     * Returns false if the file is not found.
+     *
+     * @param filePath cannot be null.
+     * @param elementClass each array element has to correspond to the structure in the class given here.
+     * @throws DataLoadingException if loading of the JSON file failed, or {@code elementHandler} rejected an element.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String arrayFieldName, Class<T> elementClass,
+            JsonArrayElementHandler<T> elementHandler) throws DataLoadingException {
+        ObjectReader elementReader = readerFor(elementClass);
+        return readJsonArrayFile(filePath, arrayFieldName, elementReader::readValue, elementHandler);
+    }
+
+    /**
+     * Similar to {@link #readJsonArrayFile(Path, String, Class, JsonArrayElementHandler)}, but reads each element
+     * straight from the parser with {@code elementReader} instead of by data binding.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String arrayFieldName,
+            JsonElementReader<T> elementReader, JsonArrayElementHandler<T> elementHandler)
+            throws DataLoadingException {
+        return readJsonArrayFile(filePath, arrayFieldName, elementReader, elementHandler,
+                (parser, fieldName) -> parser.skipChildren());
+    }
+
+    /**
+     * Similar to {@link #readJsonArrayFile(Path, String, JsonElementReader, JsonArrayElementHandler)}, but the values
+     * of the other fields of the top-level object are passed to {@code otherFieldReader} instead of being skipped,
+     * in file order.
+     */
+    public static <T> boolean readJsonArrayFile(Path filePath, String arrayFieldName,
+            JsonElementReader<T> elementReader, JsonArrayElementHandler<T> elementHandler,
+            JsonFieldReader otherFieldReader) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return false;
+        }
+        logger.info("JSON file " + filePath + " found.");
+
+        try (InputStream inputStream = CompressionUtil.decompress(Files.newInputStream(filePath))) {
+            readJsonArray(inputStream, arrayFieldName, elementReader, elementHandler, otherFieldReader);
+        } catch (IOException e) {
+            logger.warning("Error reading from jsonFile file " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+        return true;
+    }
+
+    /**
+     * Streams the elements of the JSON array stored under {@code arrayFieldName} in the top-level object read from
+     * {@code inputStream} to {@code elementHandler}, and the values of the other fields to {@code otherFieldReader}.
+     *
+     * @see #readJsonArrayFile(Path, String, JsonElementReader, JsonArrayElementHandler, JsonFieldReader)
+     */
+    static <T> void readJsonArray(InputStream inputStream, String arrayFieldName, JsonElementReader<T> elementReader,
+            JsonArrayElementHandler<T> elementHandler, JsonFieldReader otherFieldReader)
+            throws IOException, IllegalValueException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!fieldName.equals(arrayFieldName)) {
+                    otherFieldReader.read(parser, fieldName);
+                    continue;
+                }
+                if (valueToken == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (valueToken != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected a JSON array for field " + arrayFieldName);
+                }
+
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    T element = elementReader.read(parser);
+                    if (element == null) {
+                        throw new JsonParseException(parser, "Unexpected null element in " + arrayFieldName);
+                    }
+                    elementHandler.handle(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves {@code elements} to the specified file as a JSON array stored under {@code arrayFieldName} in the
+     * top-level object. Each element is written out by {@code elementWriter} right away, so the JSON text is never
+     * held in memory as a whole.
+     * Overwrites existing file if it exists, creates a new file if it doesn't. The file is replaced atomically, as by
+     * {@link FileUtil#writeAtomically(Path, FileUtil.FileContentWriter)}.
+     *
+     * @param filePath cannot be null.
+     * @param isPrettyPrinted whether the JSON is indented and split over multiple lines, as by
+     *     {@link #saveJsonFile(Object, Path)}.
+     * @throws IOException if there was an error during writing to the file
+     */
+    public static <T> void saveJsonArrayFile(Path filePath, String arrayFieldName, Iterable<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted) throws IOException {
+        saveJsonArrayFile(filePath, arrayFieldName, elements, elementWriter, isPrettyPrinted, Compression.NONE);
+    }
+
+    /**
+     * Similar to {@link #saveJsonArrayFile(Path, String, Iterable, JsonElementWriter, boolean)}, but compresses the
+     * JSON with {@code compression} as it is written.
+     */
+    public static <T> void saveJsonArrayFile(Path filePath, String arrayFieldName, Iterable<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, Compression compression)
+            throws IOException {
+        saveJsonArrayFile(filePath, arrayFieldName, elements, elementWriter, isPrettyPrinted, compression,
+                generator -> { });
+    }
+
+    /**
+     * Similar to {@link #saveJsonArrayFile(Path, String, Iterable, JsonElementWriter, boolean, Compression)}, but
+     * {@code leadingFieldsWriter} first writes other fields of the top-level object, which are then read before the
+     * array.
+     */
+    public static <T> void saveJsonArrayFile(Path filePath, String arrayFieldName, Iterable<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, Compression compression,
+            JsonFieldsWriter leadingFieldsWriter) throws IOException {
+        saveJsonArrayFile(filePath, arrayFieldName, elements, elementWriter, isPrettyPrinted, compression,
+                leadingFieldsWriter, null, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    private static <T> void saveJsonArrayFile(Path filePath, String arrayFieldName, Iterable<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, Compression compression,
+            JsonFieldsWriter leadingFieldsWriter, Checksum checksum, FsyncPolicy fsyncPolicy) throws IOException {
+        requireNonNull(filePath);
+        requireNonNull(elements);
+        requireNonNull(compression);
+
+        FileUtil.writeAtomically(filePath, fsyncPolicy, tempFilePath -> {
+            try (OutputStream outputStream = CompressionUtil.compress(new BufferedOutputStream(
+                    checked(Files.newOutputStream(tempFilePath), checksum), OUTPUT_BUFFER_SIZE), compression)) {
+                writeJsonArray(outputStream, arrayFieldName, elements, elementWriter, isPrettyPrinted,
+                        leadingFieldsWriter);
+            }
+        });
+    }
+
+    /**
+     * Similar to {@link #saveJsonArrayFile(Path, String, Iterable, JsonElementWriter, boolean, Compression,
+     * JsonFieldsWriter)}, but lists of more than {@link #PARALLEL_WRITE_CHUNK_SIZE} elements are split into chunks
+     * that are written to separate buffers in parallel on the common fork-join pool. The buffers are then written to
+     * the file in order, a few chunks at a time, so that the file is the same byte for byte as if the elements were
+     * written one after another. {@code elementWriter} has to be safe to call from several threads at once.
+     */
+    public static <T> void saveJsonArrayFileInParallel(Path filePath, String arrayFieldName, List<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, Compression compression,
+            JsonFieldsWriter leadingFieldsWriter) throws IOException {
+        saveJsonArrayFileInParallel(filePath, arrayFieldName, elements, elementWriter, isPrettyPrinted, compression,
+                leadingFieldsWriter, null, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Similar to {@link #saveJsonArrayFileInParallel(Path, String, List, JsonElementWriter, boolean, Compression,
+     * JsonFieldsWriter)}, but also computes the {@code checksum} of the bytes of the file, if it is not null, as they
+     * are written, so that the file does not have to be read back for it. The file is forced to the storage device
+     * as {@code fsyncPolicy} says.
+     */
+    public static <T> void saveJsonArrayFileInParallel(Path filePath, String arrayFieldName, List<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, Compression compression,
+            JsonFieldsWriter leadingFieldsWriter, Checksum checksum, FsyncPolicy fsyncPolicy) throws IOException {
+        requireNonNull(filePath);
+        requireNonNull(elements);
+        requireNonNull(compression);
+        requireNonNull(fsyncPolicy);
+
+        if (elements.size() <= PARALLEL_WRITE_CHUNK_SIZE) {
+            saveJsonArrayFile(filePath, arrayFieldName, elements, elementWriter, isPrettyPrinted, compression,
+                    leadingFieldsWriter, checksum, fsyncPolicy);
+            return;
+        }
+
+        FileUtil.writeAtomically(filePath, fsyncPolicy, tempFilePath -> {
+            if (compression == Compression.NONE) {
+                try (FileChannel channel = FileChannel.open(tempFilePath, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    WritableByteChannel checkedChannel = checksum == null ? channel
+                            : new CheckedChannel(channel, checksum);
+                    writeJsonArrayInParallel(checkedChannel, arrayFieldName, elements, elementWriter, isPrettyPrinted,
+                            leadingFieldsWriter);
+                }
+                return;
+            }
+            try (OutputStream outputStream = CompressionUtil.compress(new BufferedOutputStream(
+                    checked(Files.newOutputStream(tempFilePath), checksum), OUTPUT_BUFFER_SIZE), compression)) {
+                writeJsonArrayInParallel(Channels.newChannel(outputStream), arrayFieldName, elements, elementWriter,
+                        isPrettyPrinted, leadingFieldsWriter);
+            }
+        });
+    }
+
+    /**
+     * Writes {@code elements} to {@code channel} as by {@link #writeJsonArray}, but in chunks that are written to
+     * buffers in parallel. Only as many chunks as can be written at once are held in memory.
+     */
+    static <T> void writeJsonArrayInParallel(WritableByteChannel channel, String arrayFieldName, List<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, JsonFieldsWriter leadingFieldsWriter)
+            throws IOException {
+        int chunkCount = (elements.size() + PARALLEL_WRITE_CHUNK_SIZE - 1) / PARALLEL_WRITE_CHUNK_SIZE;
+        int chunksPerWrite = 2 * ForkJoinPool.getCommonPoolParallelism();
+        for (int firstChunk = 0; firstChunk < chunkCount; firstChunk += chunksPerWrite) {
+            ByteBuffer[] buffers;
+            try {
+                buffers = IntStream.range(firstChunk, Math.min(firstChunk + chunksPerWrite, chunkCount)).parallel()
+                        .mapToObj(chunk -> writeChunk(chunk, chunkCount, arrayFieldName, elements, elementWriter,
+                                isPrettyPrinted, leadingFieldsWriter))
+                        .toArray(ByteBuffer[]::new);
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            writeFully(channel, buffers);
+        }
+    }
+
+    /**
+     * Returns the bytes of the given {@code chunk} of the elements, as they are in the whole JSON text.
+     * The first chunk also holds everything before the elements, and the last chunk everything after them.
+     *
+     * @throws UncheckedIOException if a chunk cannot be written.
+     */
+    private static <T> ByteBuffer writeChunk(int chunk, int chunkCount, String arrayFieldName, List<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, JsonFieldsWriter leadingFieldsWriter) {
+        ChunkOutputStream outputStream = new ChunkOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            // the array of a later chunk is left open, rather than closed when the generator is
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            if (isPrettyPrinted) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            if (chunk == 0) {
+                leadingFieldsWriter.write(generator);
+            }
+            generator.writeFieldName(arrayFieldName);
+            generator.writeStartArray();
+            int chunkStart = 0;
+            if (chunk > 0) {
+                // stands in for the elements of the earlier chunks, so that the first element of this chunk is
+                // written after a separator and indented as it is in the whole text
+                generator.writeNull();
+                generator.flush();
+                chunkStart = outputStream.size();
+            }
+
+            int end = Math.min((chunk + 1) * PARALLEL_WRITE_CHUNK_SIZE, elements.size());
+            for (int i = chunk * PARALLEL_WRITE_CHUNK_SIZE; i < end; i++) {
+                elementWriter.write(generator, elements.get(i));
+            }
+            if (chunk == chunkCount - 1) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.flush();
+            return outputStream.toByteBuffer(chunkStart);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Writes all of {@code buffers} to {@code channel}, with gathering writes if the channel supports them.
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer[] buffers) throws IOException {
+        if (channel instanceof GatheringByteChannel) {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= ((GatheringByteChannel) channel).write(buffers);
+            }
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code outputStream}, or a stream that updates {@code checksum} with the bytes written to
+     * {@code outputStream} if {@code checksum} is not null. The checksum is reset first.
+     */
+    private static OutputStream checked(OutputStream outputStream, Checksum checksum) {
+        if (checksum == null) {
+            return outputStream;
+        }
+        checksum.reset();
+        return new CheckedOutputStream(outputStream, checksum);
+    }
+
+    /**
+     * A channel that updates a checksum with the bytes written to another channel.
+     */
+    private static class CheckedChannel implements WritableByteChannel {
+        private final WritableByteChannel channel;
+        private final Checksum checksum;
+
+        CheckedChannel(WritableByteChannel channel, Checksum checksum) {
+            this.channel = channel;
+            this.checksum = checksum;
+            checksum.reset();
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            ByteBuffer written = source.duplicate();
+            int writtenCount = channel.write(source);
+            written.limit(written.position() + writtenCount);
+            checksum.update(written);
+            return writtenCount;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes {@code elements} to {@code outputStream} as a JSON array stored under {@code arrayFieldName} in the
+     * top-level object, after the fields written by {@code leadingFieldsWriter}.
+     *
+     * @see #saveJsonArrayFile(Path, String, Iterable, JsonElementWriter, boolean, Compression, JsonFieldsWriter)
+     */
+    static <T> void writeJsonArray(OutputStream outputStream, String arrayFieldName, Iterable<T> elements,
+            JsonElementWriter<? super T> elementWriter, boolean isPrettyPrinted, JsonFieldsWriter leadingFieldsWriter)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            if (isPrettyPrinted) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            leadingFieldsWriter.write(generator);
+            generator.writeFieldName(arrayFieldName);
+            generator.writeStartArray();
+            for (T element : elements) {
+                elementWriter.write(generator, element);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
     /**
      * Saves the Json object to the specified file.
      * Overwrites existing file if it exists, creates a new file if it doesn't.
@@ -98,7 +500,7 @@ public class JsonUtil {
      * @return The instance of T with the specified values in the JSON string
      */
     public static <T> T fromJsonString(String json, Class<T> instanceClass) throws IOException {
-        return objectMapper.readValue(json, instanceClass);
+        return readerFor(instanceClass).readValue(json);
     }
 
     /**
@@ -108,7 +510,100 @@ public class JsonUtil {
      * @return JSON data representation of the given class instance, in string
      */
     public static <T> String toJsonString(T instance) throws JsonProcessingException {
-        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(instance);
+        return prettyWriter.writeValueAsString(instance);
+    }
+
+    /**
+     * Converts a given instance of a class into its JSON data string representation, without any whitespace
+     * or line breaks.
+     * @param instance The T object to be converted into the JSON string
+     * @param <T> The generic type to create an instance of
+     * @return JSON data representation of the given class instance, in a single line
+     */
+    public static <T> String toCompactJsonString(T instance) throws JsonProcessingException {
+        return compactWriter.writeValueAsString(instance);
+    }
+
+    private static ObjectReader readerFor(Class<?> instanceClass) {
+        return readers.computeIfAbsent(instanceClass, objectMapper::readerFor);
+    }
+
+    /**
+     * Handles the elements of a JSON array as they are read.
+     */
+    @FunctionalInterface
+    public interface JsonArrayElementHandler<T> {
+        /**
+         * Handles the next {@code element} of the array.
+         *
+         * @throws IllegalValueException if {@code element} violates any data constraints.
+         */
+        void handle(T element) throws IllegalValueException;
+    }
+
+    /**
+     * Reads a value straight from a JSON parser.
+     */
+    @FunctionalInterface
+    public interface JsonElementReader<T> {
+        /**
+         * Reads the value that starts at the current token of {@code parser}, leaving the parser at its last token.
+         *
+         * @throws IllegalValueException if the value violates any data constraints.
+         */
+        T read(JsonParser parser) throws IOException, IllegalValueException;
+    }
+
+    /**
+     * Writes a value straight to a JSON generator.
+     */
+    @FunctionalInterface
+    public interface JsonElementWriter<T> {
+        /**
+         * Writes {@code value} to {@code generator} as a single JSON value.
+         */
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+
+    /**
+     * Reads the value of a field of a JSON object straight from a JSON parser.
+     */
+    @FunctionalInterface
+    public interface JsonFieldReader {
+        /**
+         * Reads the value of the field named {@code fieldName}, which starts at the current token of {@code parser},
+         * leaving the parser at its last token. A value that is not needed has to be skipped.
+         *
+         * @throws IllegalValueException if the value violates any data constraints.
+         */
+        void read(JsonParser parser, String fieldName) throws IOException, IllegalValueException;
+    }
+
+    /**
+     * Writes fields of a JSON object straight to a JSON generator.
+     */
+    @FunctionalInterface
+    public interface JsonFieldsWriter {
+        /**
+         * Writes the fields, names and values, to {@code generator}, which is inside the object.
+         */
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * A {@code ByteArrayOutputStream} whose content can be wrapped in a buffer without being copied.
+     */
+    private static class ChunkOutputStream extends ByteArrayOutputStream {
+        ChunkOutputStream() {
+            super(OUTPUT_BUFFER_SIZE);
+        }
+
+        /**
+         * Returns the bytes written from {@code start} on, backed by the array of this stream.
+         */
+        ByteBuffer toByteBuffer(int start) {
+            return ByteBuffer.wrap(buf, start, count - start);
+        }
     }
 
     /**
@@ -1,6 +1,7 @@
 package seedu.address.logic;
 
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 import javafx.collections.ObservableList;
 import seedu.address.commons.core.GuiSettings;
@@ -23,6 +24,12 @@ public interface Logic {
      */
     CommandResult execute(String commandText) throws CommandException, ParseException;
 
+    /**
+     * Sets the listener given the error message of each failed save of the address book made in the background.
+     * The listener is called on the background thread, not the JavaFX application thread.
+     */
+    void setSaveFailureListener(Consumer<String> listener);
+
     /**
      * Returns the AddressBook.
      *
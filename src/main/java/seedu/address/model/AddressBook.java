@@ -1,11 +1,15 @@
 package seedu.address.model;
 
 import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.CollectionUtil.requireAllNonNull;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javafx.collections.ObservableList;
 import seedu.address.commons.util.ToStringBuilder;
+import seedu.address.model.person.Name;
 import seedu.address.model.person.Person;
 import seedu.address.model.person.UniquePersonList;
 
@@ -17,6 +21,9 @@ public class AddressBook implements ReadOnlyAddressBook {
 
     private final UniquePersonList persons;
 
+    /** Incremented on every change to the data, so that callers can tell whether it was modified. */
+    private long version;
+
     /*
      * The 'unusual' code block below is a non-static initialization block, sometimes used to avoid duplication
      * between constructors. See https://docs.oracle.com/javase/tutorial/java/javaOO/initial.html
@@ -46,14 +53,22 @@ public class AddressBook implements ReadOnlyAddressBook {
      */
     public void setPersons(List<Person> persons) {
         this.persons.setPersons(persons);
+        version++;
     }
 
     /**
      * Resets the existing data of this {@code AddressBook} with {@code newData}.
+     * If {@code newData} is another {@code AddressBook}, its persons are already known to be unique and are
+     * copied over without being checked again.
      */
     public void resetData(ReadOnlyAddressBook newData) {
         requireNonNull(newData);
 
+        if (newData instanceof AddressBook) {
+            persons.setPersons(((AddressBook) newData).persons);
+            version++;
+            return;
+        }
         setPersons(newData.getPersonList());
     }
 
@@ -73,6 +88,7 @@ public class AddressBook implements ReadOnlyAddressBook {
      */
     public void addPerson(Person p) {
         persons.add(p);
+        version++;
     }
 
     /**
@@ -84,6 +100,7 @@ public class AddressBook implements ReadOnlyAddressBook {
         requireNonNull(editedPerson);
 
         persons.setPerson(target, editedPerson);
+        version++;
     }
 
     /**
@@ -92,10 +109,47 @@ public class AddressBook implements ReadOnlyAddressBook {
      */
     public void removePerson(Person key) {
         persons.remove(key);
+        version++;
+    }
+
+    /**
+     * Applies a change made elsewhere to a copy of this {@code AddressBook}: {@code removedPersons} are removed and
+     * {@code addedPersons} are added, with an added person replacing a removed person of the same identity in place.
+     * Parts of the change that no longer fit the data of this {@code AddressBook}, such as the removal of a person
+     * that was edited here in the meantime, are skipped.
+     */
+    public void applyChanges(List<Person> removedPersons, List<Person> addedPersons) {
+        requireAllNonNull(removedPersons, addedPersons);
+
+        Map<Name, Person> removedPersonsByName = new LinkedHashMap<>();
+        removedPersons.forEach(person -> removedPersonsByName.put(person.getName(), person));
+        for (Person addedPerson : addedPersons) {
+            Person removedPerson = removedPersonsByName.remove(addedPerson.getName());
+            if (removedPerson != null) {
+                if (persons.containsEqual(removedPerson)) {
+                    persons.setPerson(removedPerson, addedPerson);
+                }
+            } else if (!persons.contains(addedPerson)) {
+                persons.add(addedPerson);
+            }
+        }
+        for (Person removedPerson : removedPersonsByName.values()) {
+            if (persons.containsEqual(removedPerson)) {
+                persons.remove(removedPerson);
+            }
+        }
+        version++;
     }
 
     //// util methods
 
+    /**
+     * Returns a number that changes whenever the data of this {@code AddressBook} is modified.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -1,6 +1,7 @@
 package seedu.address.model;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Predicate;
 
 import javafx.collections.ObservableList;
@@ -52,6 +53,12 @@ public interface Model {
     /** Returns the AddressBook */
     ReadOnlyAddressBook getAddressBook();
 
+    /**
+     * Returns a number that changes whenever the address book is modified.
+     * Equal versions mean that the address book has not changed in between.
+     */
+    long getAddressBookVersion();
+
     /**
      * Returns true if a person with the same identity as {@code person} exists in the address book.
      */
@@ -76,6 +83,13 @@ public interface Model {
      */
     void setPerson(Person target, Person editedPerson);
 
+    /**
+     * Applies a change made to the address book data outside the app, without replacing the whole address book.
+     * {@code removedPersons} are removed and {@code addedPersons} are added, skipping the parts of the change that
+     * conflict with the current data.
+     */
+    void applyExternalChanges(List<Person> removedPersons, List<Person> addedPersons);
+
     /** Returns an unmodifiable view of the filtered person list */
     ObservableList<Person> getFilteredPersonList();
 
@@ -4,6 +4,7 @@ import static java.util.Objects.requireNonNull;
 import static seedu.address.commons.util.CollectionUtil.requireAllNonNull;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 
@@ -24,20 +25,37 @@ public class ModelManager implements Model {
     private final FilteredList<Person> filteredPersons;
 
     /**
-     * Initializes a ModelManager with the given addressBook and userPrefs.
+     * Initializes a ModelManager with copies of the given addressBook and userPrefs.
      */
     public ModelManager(ReadOnlyAddressBook addressBook, ReadOnlyUserPrefs userPrefs) {
-        requireAllNonNull(addressBook, userPrefs);
+        this(new AddressBook(requireNonNull(addressBook)), new UserPrefs(requireNonNull(userPrefs)));
+    }
 
-        logger.fine("Initializing with address book: " + addressBook + " and user prefs " + userPrefs);
+    public ModelManager() {
+        this(new AddressBook(), new UserPrefs());
+    }
 
-        this.addressBook = new AddressBook(addressBook);
-        this.userPrefs = new UserPrefs(userPrefs);
+    /**
+     * Initializes a ModelManager that owns the given addressBook and userPrefs, without copying them.
+     */
+    private ModelManager(AddressBook ownedAddressBook, UserPrefs ownedUserPrefs) {
+        requireAllNonNull(ownedAddressBook, ownedUserPrefs);
+
+        logger.fine(() -> "Initializing with address book: " + ownedAddressBook + " and user prefs " + ownedUserPrefs);
+
+        this.addressBook = ownedAddressBook;
+        this.userPrefs = ownedUserPrefs;
         filteredPersons = new FilteredList<>(this.addressBook.getPersonList());
     }
 
-    public ModelManager() {
-        this(new AddressBook(), new UserPrefs());
+    /**
+     * Returns a ModelManager that takes ownership of {@code addressBook} instead of copying it, so that a freshly
+     * loaded address book is neither materialized nor validated a second time.
+     * The caller must not keep any other reference to {@code addressBook} afterwards.
+     */
+    public static ModelManager adopt(AddressBook addressBook, ReadOnlyUserPrefs userPrefs) {
+        requireAllNonNull(addressBook, userPrefs);
+        return new ModelManager(addressBook, new UserPrefs(userPrefs));
     }
 
     //=========== UserPrefs ==================================================================================
@@ -87,6 +105,11 @@ public class ModelManager implements Model {
         return addressBook;
     }
 
+    @Override
+    public long getAddressBookVersion() {
+        return addressBook.getVersion();
+    }
+
     @Override
     public boolean hasPerson(Person person) {
         requireNonNull(person);
@@ -111,6 +134,15 @@ public class ModelManager implements Model {
         addressBook.setPerson(target, editedPerson);
     }
 
+    @Override
+    public void applyExternalChanges(List<Person> removedPersons, List<Person> addedPersons) {
+        requireAllNonNull(removedPersons, addedPersons);
+
+        logger.info("Applying external changes: " + removedPersons.size() + " persons removed, "
+                + addedPersons.size() + " persons added");
+        addressBook.applyChanges(removedPersons, addedPersons);
+    }
+
     //=========== Filtered Person List Accessors =============================================================
 
     /**
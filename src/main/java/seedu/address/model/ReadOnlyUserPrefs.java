@@ -2,6 +2,8 @@ package seedu.address.model;
 
 import java.nio.file.Path;
 
+import seedu.address.commons.core.AddressBookStorageFormat;
+import seedu.address.commons.core.Compression;
 import seedu.address.commons.core.GuiSettings;
 
 /**
@@ -13,4 +15,30 @@ public interface ReadOnlyUserPrefs {
 
     Path getAddressBookFilePath();
 
+    AddressBookStorageFormat getAddressBookStorageFormat();
+
+    boolean isAddressBookPrettyPrinted();
+
+    Compression getAddressBookCompression();
+
+    boolean isAddressBookIndexEnabled();
+
+    boolean isAddressBookSegmentationEnabled();
+
+    int getAddressBookSegmentCount();
+
+    boolean isAddressBookJournalEnabled();
+
+    int getAddressBookJournalCheckpointInterval();
+
+    boolean isAddressBookWriteBehindEnabled();
+
+    long getAddressBookWriteBehindDelayMillis();
+
+    boolean isAddressBookReloadEnabled();
+
+    boolean isAddressBookSnapshotEnabled();
+
+    boolean isAddressBookTagDictionaryEnabled();
+
 }
@@ -1,11 +1,14 @@
 package seedu.address.model;
 
 import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
 
+import seedu.address.commons.core.AddressBookStorageFormat;
+import seedu.address.commons.core.Compression;
 import seedu.address.commons.core.GuiSettings;
 
 /**
@@ -15,6 +18,19 @@ public class UserPrefs implements ReadOnlyUserPrefs {
 
     private GuiSettings guiSettings = new GuiSettings();
     private Path addressBookFilePath = Paths.get("data" , "addressbook.json");
+    private AddressBookStorageFormat addressBookStorageFormat = AddressBookStorageFormat.JSON;
+    private boolean isAddressBookPrettyPrinted = true;
+    private Compression addressBookCompression = Compression.NONE;
+    private boolean isAddressBookIndexEnabled = false;
+    private boolean isAddressBookSegmentationEnabled = false;
+    private int addressBookSegmentCount = 16;
+    private boolean isAddressBookJournalEnabled = false;
+    private int addressBookJournalCheckpointInterval = 100;
+    private boolean isAddressBookWriteBehindEnabled = false;
+    private long addressBookWriteBehindDelayMillis = 1000;
+    private boolean isAddressBookReloadEnabled = false;
+    private boolean isAddressBookSnapshotEnabled = true;
+    private boolean isAddressBookTagDictionaryEnabled = false;
 
     /**
      * Creates a {@code UserPrefs} with default values.
@@ -36,6 +52,19 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         requireNonNull(newUserPrefs);
         setGuiSettings(newUserPrefs.getGuiSettings());
         setAddressBookFilePath(newUserPrefs.getAddressBookFilePath());
+        setAddressBookStorageFormat(newUserPrefs.getAddressBookStorageFormat());
+        setAddressBookPrettyPrinted(newUserPrefs.isAddressBookPrettyPrinted());
+        setAddressBookCompression(newUserPrefs.getAddressBookCompression());
+        setAddressBookIndexEnabled(newUserPrefs.isAddressBookIndexEnabled());
+        setAddressBookSegmentationEnabled(newUserPrefs.isAddressBookSegmentationEnabled());
+        setAddressBookSegmentCount(newUserPrefs.getAddressBookSegmentCount());
+        setAddressBookJournalEnabled(newUserPrefs.isAddressBookJournalEnabled());
+        setAddressBookJournalCheckpointInterval(newUserPrefs.getAddressBookJournalCheckpointInterval());
+        setAddressBookWriteBehindEnabled(newUserPrefs.isAddressBookWriteBehindEnabled());
+        setAddressBookWriteBehindDelayMillis(newUserPrefs.getAddressBookWriteBehindDelayMillis());
+        setAddressBookReloadEnabled(newUserPrefs.isAddressBookReloadEnabled());
+        setAddressBookSnapshotEnabled(newUserPrefs.isAddressBookSnapshotEnabled());
+        setAddressBookTagDictionaryEnabled(newUserPrefs.isAddressBookTagDictionaryEnabled());
     }
 
     public GuiSettings getGuiSettings() {
@@ -56,6 +85,127 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         this.addressBookFilePath = addressBookFilePath;
     }
 
+    public AddressBookStorageFormat getAddressBookStorageFormat() {
+        return addressBookStorageFormat;
+    }
+
+    public void setAddressBookStorageFormat(AddressBookStorageFormat addressBookStorageFormat) {
+        requireNonNull(addressBookStorageFormat);
+        this.addressBookStorageFormat = addressBookStorageFormat;
+    }
+
+    public boolean isAddressBookPrettyPrinted() {
+        return isAddressBookPrettyPrinted;
+    }
+
+    public void setAddressBookPrettyPrinted(boolean isAddressBookPrettyPrinted) {
+        this.isAddressBookPrettyPrinted = isAddressBookPrettyPrinted;
+    }
+
+    public Compression getAddressBookCompression() {
+        return addressBookCompression;
+    }
+
+    public void setAddressBookCompression(Compression addressBookCompression) {
+        requireNonNull(addressBookCompression);
+        this.addressBookCompression = addressBookCompression;
+    }
+
+    public boolean isAddressBookIndexEnabled() {
+        return isAddressBookIndexEnabled;
+    }
+
+    public void setAddressBookIndexEnabled(boolean isAddressBookIndexEnabled) {
+        this.isAddressBookIndexEnabled = isAddressBookIndexEnabled;
+    }
+
+    public boolean isAddressBookSegmentationEnabled() {
+        return isAddressBookSegmentationEnabled;
+    }
+
+    public void setAddressBookSegmentationEnabled(boolean isAddressBookSegmentationEnabled) {
+        this.isAddressBookSegmentationEnabled = isAddressBookSegmentationEnabled;
+    }
+
+    public int getAddressBookSegmentCount() {
+        return addressBookSegmentCount;
+    }
+
+    /**
+     * Sets the number of segment files the address book is split into when segmentation is enabled.
+     * {@code addressBookSegmentCount} must be positive.
+     */
+    public void setAddressBookSegmentCount(int addressBookSegmentCount) {
+        checkArgument(addressBookSegmentCount > 0, "Segment count must be positive");
+        this.addressBookSegmentCount = addressBookSegmentCount;
+    }
+
+    public boolean isAddressBookJournalEnabled() {
+        return isAddressBookJournalEnabled;
+    }
+
+    public void setAddressBookJournalEnabled(boolean isAddressBookJournalEnabled) {
+        this.isAddressBookJournalEnabled = isAddressBookJournalEnabled;
+    }
+
+    public int getAddressBookJournalCheckpointInterval() {
+        return addressBookJournalCheckpointInterval;
+    }
+
+    /**
+     * Sets the number of journal entries after which the address book journal is checkpointed.
+     * {@code addressBookJournalCheckpointInterval} must be positive.
+     */
+    public void setAddressBookJournalCheckpointInterval(int addressBookJournalCheckpointInterval) {
+        checkArgument(addressBookJournalCheckpointInterval > 0, "Journal checkpoint interval must be positive");
+        this.addressBookJournalCheckpointInterval = addressBookJournalCheckpointInterval;
+    }
+
+    public boolean isAddressBookWriteBehindEnabled() {
+        return isAddressBookWriteBehindEnabled;
+    }
+
+    public void setAddressBookWriteBehindEnabled(boolean isAddressBookWriteBehindEnabled) {
+        this.isAddressBookWriteBehindEnabled = isAddressBookWriteBehindEnabled;
+    }
+
+    public long getAddressBookWriteBehindDelayMillis() {
+        return addressBookWriteBehindDelayMillis;
+    }
+
+    /**
+     * Sets the longest time, in milliseconds, that a change to the address book may wait before being written in
+     * write-behind mode. {@code addressBookWriteBehindDelayMillis} must not be negative.
+     */
+    public void setAddressBookWriteBehindDelayMillis(long addressBookWriteBehindDelayMillis) {
+        checkArgument(addressBookWriteBehindDelayMillis >= 0, "Write-behind delay must not be negative");
+        this.addressBookWriteBehindDelayMillis = addressBookWriteBehindDelayMillis;
+    }
+
+    public boolean isAddressBookReloadEnabled() {
+        return isAddressBookReloadEnabled;
+    }
+
+    public void setAddressBookReloadEnabled(boolean isAddressBookReloadEnabled) {
+        this.isAddressBookReloadEnabled = isAddressBookReloadEnabled;
+    }
+
+    public boolean isAddressBookSnapshotEnabled() {
+        return isAddressBookSnapshotEnabled;
+    }
+
+    public void setAddressBookSnapshotEnabled(boolean isAddressBookSnapshotEnabled) {
+        this.isAddressBookSnapshotEnabled = isAddressBookSnapshotEnabled;
+    }
+
+    public boolean isAddressBookTagDictionaryEnabled() {
+        return isAddressBookTagDictionaryEnabled;
+    }
+
+    public void setAddressBookTagDictionaryEnabled(boolean isAddressBookTagDictionaryEnabled) {
+        this.isAddressBookTagDictionaryEnabled = isAddressBookTagDictionaryEnabled;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -69,12 +219,29 @@ public class UserPrefs implements ReadOnlyUserPrefs {
 
         UserPrefs otherUserPrefs = (UserPrefs) other;
         return guiSettings.equals(otherUserPrefs.guiSettings)
-                && addressBookFilePath.equals(otherUserPrefs.addressBookFilePath);
+                && addressBookFilePath.equals(otherUserPrefs.addressBookFilePath)
+                && addressBookStorageFormat == otherUserPrefs.addressBookStorageFormat
+                && isAddressBookPrettyPrinted == otherUserPrefs.isAddressBookPrettyPrinted
+                && addressBookCompression == otherUserPrefs.addressBookCompression
+                && isAddressBookIndexEnabled == otherUserPrefs.isAddressBookIndexEnabled
+                && isAddressBookSegmentationEnabled == otherUserPrefs.isAddressBookSegmentationEnabled
+                && addressBookSegmentCount == otherUserPrefs.addressBookSegmentCount
+                && isAddressBookJournalEnabled == otherUserPrefs.isAddressBookJournalEnabled
+                && addressBookJournalCheckpointInterval == otherUserPrefs.addressBookJournalCheckpointInterval
+                && isAddressBookWriteBehindEnabled == otherUserPrefs.isAddressBookWriteBehindEnabled
+                && addressBookWriteBehindDelayMillis == otherUserPrefs.addressBookWriteBehindDelayMillis
+                && isAddressBookReloadEnabled == otherUserPrefs.isAddressBookReloadEnabled
+                && isAddressBookSnapshotEnabled == otherUserPrefs.isAddressBookSnapshotEnabled
+                && isAddressBookTagDictionaryEnabled == otherUserPrefs.isAddressBookTagDictionaryEnabled;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(guiSettings, addressBookFilePath);
+        return Objects.hash(guiSettings, addressBookFilePath, addressBookStorageFormat, isAddressBookPrettyPrinted,
+                addressBookCompression, isAddressBookIndexEnabled, isAddressBookSegmentationEnabled,
+                addressBookSegmentCount, isAddressBookJournalEnabled, addressBookJournalCheckpointInterval,
+                isAddressBookWriteBehindEnabled, addressBookWriteBehindDelayMillis, isAddressBookReloadEnabled,
+                isAddressBookSnapshotEnabled, isAddressBookTagDictionaryEnabled);
     }
 
     @Override
@@ -82,6 +249,19 @@ public class UserPrefs implements ReadOnlyUserPrefs {
         StringBuilder sb = new StringBuilder();
         sb.append("Gui Settings : " + guiSettings);
         sb.append("\nLocal data file location : " + addressBookFilePath);
+        sb.append("\nData file format : " + addressBookStorageFormat);
+        sb.append("\nPretty-printed data file : " + isAddressBookPrettyPrinted);
+        sb.append("\nData file compression : " + addressBookCompression);
+        sb.append("\nIndex enabled : " + isAddressBookIndexEnabled);
+        sb.append("\nSegmentation enabled : " + isAddressBookSegmentationEnabled);
+        sb.append("\nSegment count : " + addressBookSegmentCount);
+        sb.append("\nJournal enabled : " + isAddressBookJournalEnabled);
+        sb.append("\nJournal checkpoint interval : " + addressBookJournalCheckpointInterval);
+        sb.append("\nWrite-behind enabled : " + isAddressBookWriteBehindEnabled);
+        sb.append("\nWrite-behind delay (ms) : " + addressBookWriteBehindDelayMillis);
+        sb.append("\nReload external changes : " + isAddressBookReloadEnabled);
+        sb.append("\nBinary snapshot enabled : " + isAddressBookSnapshotEnabled);
+        sb.append("\nTag dictionary enabled : " + isAddressBookTagDictionaryEnabled);
         return sb.toString();
     }
 
@@ -16,6 +16,10 @@ public class Address {
      * otherwise " " (a blank string) becomes a valid input.
      */
     public static final String VALIDATION_REGEX = "[^\\s].*";
+    /** The characters matched by {@code \s} in a regex. */
+    private static final String WHITESPACE_CHARACTERS = " \t\n\u000B\f\r";
+    /** The characters not matched by {@code .} in a regex. */
+    private static final String LINE_TERMINATOR_CHARACTERS = "\n\r\u0085\u2028\u2029";
 
     public final String value;
 
@@ -31,10 +35,19 @@ public class Address {
     }
 
     /**
-     * Returns true if a given string is a valid email.
+     * Returns true if a given string is a valid address, i.e. matches {@link #VALIDATION_REGEX}.
      */
     public static boolean isValidAddress(String test) {
-        return test.matches(VALIDATION_REGEX);
+        requireNonNull(test);
+        if (test.isEmpty() || WHITESPACE_CHARACTERS.indexOf(test.charAt(0)) >= 0) {
+            return false;
+        }
+        for (int i = 1; i < test.length(); i++) {
+            if (LINE_TERMINATOR_CHARACTERS.indexOf(test.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -2,6 +2,7 @@ package seedu.address.model.person;
 
 import static java.util.Objects.requireNonNull;
 import static seedu.address.commons.util.AppUtil.checkArgument;
+import static seedu.address.commons.util.StringUtil.isAsciiAlphanumeric;
 
 /**
  * Represents a Person's email in the address book.
@@ -45,10 +46,70 @@ public class Email {
     }
 
     /**
-     * Returns if a given string is a valid email.
+     * Returns if a given string is a valid email, i.e. matches {@link #VALIDATION_REGEX}.
      */
     public static boolean isValidEmail(String test) {
-        return test.matches(VALIDATION_REGEX);
+        requireNonNull(test);
+        int atIndex = test.indexOf('@');
+        return atIndex >= 0 && isValidLocalPart(test, atIndex) && isValidDomain(test, atIndex + 1);
+    }
+
+    /**
+     * Returns true if the first {@code end} characters of {@code test} are a valid local-part, i.e. runs of
+     * alphanumeric characters separated by single special characters.
+     */
+    private static boolean isValidLocalPart(String test, int end) {
+        boolean isAfterAlphanumeric = false;
+        for (int i = 0; i < end; i++) {
+            char c = test.charAt(i);
+            if (isAsciiAlphanumeric(c)) {
+                isAfterAlphanumeric = true;
+            } else if (isAfterAlphanumeric && SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                isAfterAlphanumeric = false;
+            } else {
+                return false;
+            }
+        }
+        return isAfterAlphanumeric;
+    }
+
+    /**
+     * Returns true if {@code test} from index {@code start} onwards is a valid domain, i.e. domain labels separated
+     * by periods.
+     */
+    private static boolean isValidDomain(String test, int start) {
+        int labelStart = start;
+        int labelEnd = test.indexOf('.', labelStart);
+        while (labelEnd >= 0) {
+            if (!isValidDomainLabel(test, labelStart, labelEnd, false)) {
+                return false;
+            }
+            labelStart = labelEnd + 1;
+            labelEnd = test.indexOf('.', labelStart);
+        }
+        return isValidDomainLabel(test, labelStart, test.length(), true);
+    }
+
+    /**
+     * Returns true if the characters of {@code test} from {@code start} to {@code end} are a valid domain label, i.e.
+     * runs of alphanumeric characters separated by single hyphens. The last label must also be at least 2 characters
+     * long, which the regex expresses as two labels in a row, and which requires two adjacent alphanumeric characters.
+     */
+    private static boolean isValidDomainLabel(String test, int start, int end, boolean isLastLabel) {
+        boolean isAfterAlphanumeric = false;
+        boolean hasAdjacentAlphanumerics = false;
+        for (int i = start; i < end; i++) {
+            char c = test.charAt(i);
+            if (isAsciiAlphanumeric(c)) {
+                hasAdjacentAlphanumerics |= isAfterAlphanumeric;
+                isAfterAlphanumeric = true;
+            } else if (isAfterAlphanumeric && c == '-') {
+                isAfterAlphanumeric = false;
+            } else {
+                return false;
+            }
+        }
+        return isAfterAlphanumeric && (!isLastLabel || hasAdjacentAlphanumerics);
     }
 
     @Override
@@ -0,0 +1,218 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.AddressBookStorageFormat;
+import seedu.address.commons.core.Compression;
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.model.ReadOnlyUserPrefs;
+
+/**
+ * Creates the {@code AddressBookStorage} for the data file format and storage options given in the user prefs.
+ * Which options each format supports, and which options cannot be used together, is kept in two tables, so that
+ * options that do not apply are reported the same way for every format. An option that does not apply is not used.
+ * Every storage created forces the files it saves to the storage device as the fsync policy given says.
+ */
+public class AddressBookStorageFactory {
+
+    private static final Logger logger = LogsCenter.getLogger(AddressBookStorageFactory.class);
+
+    /**
+     * The storage options that only some formats support.
+     * Options that are on by default are reported at a lower level when they do not apply.
+     */
+    enum Option {
+        TAG_DICTIONARY("Tag dictionaries", Level.WARNING),
+        COMPRESSION("Compression", Level.WARNING),
+        SEGMENTATION("Segmentation", Level.WARNING),
+        JOURNAL("Journaling", Level.WARNING),
+        INDEX("Indexing", Level.WARNING),
+        RELOAD("Reloading external changes", Level.WARNING),
+        SNAPSHOT("Binary snapshots", Level.FINE);
+
+        private final String description;
+        private final Level unusedLogLevel;
+
+        Option(String description, Level unusedLogLevel) {
+            this.description = description;
+            this.unusedLogLevel = unusedLogLevel;
+        }
+    }
+
+    /** The name of each format in messages. */
+    private static final Map<AddressBookStorageFormat, String> FORMAT_NAMES =
+            new EnumMap<>(AddressBookStorageFormat.class);
+    /** The options that each format supports. */
+    private static final Map<AddressBookStorageFormat, Set<Option>> SUPPORTED_OPTIONS =
+            new EnumMap<>(AddressBookStorageFormat.class);
+    /**
+     * The options that an option rules out when both are used. An option is only ruled out by an option declared
+     * before it in {@link Option}, and only if that option is used itself.
+     */
+    private static final Map<Option, Set<Option>> EXCLUDED_OPTIONS = new EnumMap<>(Option.class);
+
+    static {
+        // binary data files always have a tag dictionary
+        addFormat(AddressBookStorageFormat.JSON, "JSON", EnumSet.of(Option.TAG_DICTIONARY, Option.COMPRESSION,
+                Option.SEGMENTATION, Option.JOURNAL, Option.RELOAD, Option.SNAPSHOT));
+        addFormat(AddressBookStorageFormat.BINARY, "binary", EnumSet.of(Option.TAG_DICTIONARY, Option.SEGMENTATION,
+                Option.JOURNAL, Option.INDEX, Option.RELOAD));
+        // the following formats already only write what changed, so they are not segmented or journaled
+        addFormat(AddressBookStorageFormat.JSON_LINES, "JSON Lines", EnumSet.of(Option.RELOAD));
+        addFormat(AddressBookStorageFormat.LSM, "log-structured", EnumSet.noneOf(Option.class));
+        addFormat(AddressBookStorageFormat.SQLITE, "SQLite", EnumSet.noneOf(Option.class));
+
+        EXCLUDED_OPTIONS.put(Option.SEGMENTATION, EnumSet.of(Option.JOURNAL, Option.RELOAD, Option.SNAPSHOT));
+        EXCLUDED_OPTIONS.put(Option.JOURNAL, EnumSet.of(Option.INDEX, Option.RELOAD));
+    }
+
+    private final ReadOnlyUserPrefs userPrefs;
+    private final FsyncPolicy fsyncPolicy;
+
+    private ReloadingAddressBookStorage reloadingAddressBookStorage;
+    private SnapshotAddressBookStorage snapshotAddressBookStorage;
+
+    /**
+     * Creates an {@code AddressBookStorageFactory} for the options in {@code userPrefs} and {@code fsyncPolicy}.
+     */
+    public AddressBookStorageFactory(ReadOnlyUserPrefs userPrefs, FsyncPolicy fsyncPolicy) {
+        requireNonNull(userPrefs);
+        requireNonNull(fsyncPolicy);
+        this.userPrefs = userPrefs;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    private static void addFormat(AddressBookStorageFormat format, String name, Set<Option> supportedOptions) {
+        FORMAT_NAMES.put(format, name);
+        SUPPORTED_OPTIONS.put(format, supportedOptions);
+    }
+
+    /**
+     * Returns the options that are enabled in {@code userPrefs}.
+     */
+    private static Set<Option> getEnabledOptions(ReadOnlyUserPrefs userPrefs) {
+        Set<Option> options = EnumSet.noneOf(Option.class);
+        addIf(options, Option.TAG_DICTIONARY, userPrefs.isAddressBookTagDictionaryEnabled());
+        addIf(options, Option.COMPRESSION, userPrefs.getAddressBookCompression() != Compression.NONE);
+        addIf(options, Option.SEGMENTATION, userPrefs.isAddressBookSegmentationEnabled());
+        addIf(options, Option.JOURNAL, userPrefs.isAddressBookJournalEnabled());
+        addIf(options, Option.INDEX, userPrefs.isAddressBookIndexEnabled());
+        addIf(options, Option.RELOAD, userPrefs.isAddressBookReloadEnabled());
+        addIf(options, Option.SNAPSHOT, userPrefs.isAddressBookSnapshotEnabled());
+        return options;
+    }
+
+    private static void addIf(Set<Option> options, Option option, boolean isEnabled) {
+        if (isEnabled) {
+            options.add(option);
+        }
+    }
+
+    /**
+     * Returns the options of {@code enabledOptions} that apply to {@code format}, and reports the others.
+     */
+    static Set<Option> getUsedOptions(AddressBookStorageFormat format, Set<Option> enabledOptions) {
+        Set<Option> usedOptions = EnumSet.noneOf(Option.class);
+        for (Option option : enabledOptions) {
+            if (SUPPORTED_OPTIONS.get(format).contains(option)) {
+                usedOptions.add(option);
+            } else {
+                logger.log(option.unusedLogLevel, option.description + " is not supported for "
+                        + FORMAT_NAMES.get(format) + " data files and will not be used");
+            }
+        }
+        for (Option option : Option.values()) {
+            if (!usedOptions.contains(option)) {
+                continue;
+            }
+            for (Option excludedOption : EXCLUDED_OPTIONS.getOrDefault(option, EnumSet.noneOf(Option.class))) {
+                if (usedOptions.remove(excludedOption)) {
+                    logger.log(excludedOption.unusedLogLevel, excludedOption.description
+                            + " is not supported together with " + option.description.toLowerCase(Locale.ROOT)
+                            + " and will not be used");
+                }
+            }
+        }
+        return usedOptions;
+    }
+
+    /**
+     * Returns the {@code AddressBookStorage} for the data file, with the options that apply to its format.
+     */
+    public AddressBookStorage createAddressBookStorage() {
+        AddressBookStorageFormat format = userPrefs.getAddressBookStorageFormat();
+        logger.info("Using " + FORMAT_NAMES.get(format) + " data file format");
+        Set<Option> options = getUsedOptions(format, getEnabledOptions(userPrefs));
+
+        AddressBookStorage addressBookStorage = createFormatStorage(format, options);
+        if (options.contains(Option.SEGMENTATION)) {
+            logger.info("Splitting data file into " + userPrefs.getAddressBookSegmentCount() + " segments");
+            addressBookStorage = new SegmentedAddressBookStorage(addressBookStorage,
+                    userPrefs.getAddressBookSegmentCount(), fsyncPolicy);
+        }
+        if (options.contains(Option.JOURNAL)) {
+            logger.info("Journaling changes to data file, checkpointing every "
+                    + userPrefs.getAddressBookJournalCheckpointInterval() + " changes");
+            addressBookStorage = new JournalAddressBookStorage(addressBookStorage,
+                    userPrefs.getAddressBookJournalCheckpointInterval(), fsyncPolicy);
+        }
+        if (options.contains(Option.RELOAD)) {
+            reloadingAddressBookStorage = new ReloadingAddressBookStorage(addressBookStorage);
+            addressBookStorage = reloadingAddressBookStorage;
+        }
+        return addressBookStorage;
+    }
+
+    /**
+     * Returns the storage of {@code format} itself, with the options of {@code options} that are passed to it.
+     */
+    private AddressBookStorage createFormatStorage(AddressBookStorageFormat format, Set<Option> options) {
+        Path filePath = userPrefs.getAddressBookFilePath();
+        switch (format) {
+        case BINARY:
+            return new BinaryAddressBookStorage(filePath, options.contains(Option.INDEX), fsyncPolicy);
+        case JSON_LINES:
+            return new JsonLinesAddressBookStorage(filePath, fsyncPolicy);
+        case LSM:
+            return new LsmAddressBookStorage(filePath, fsyncPolicy);
+        case SQLITE:
+            return new SqliteAddressBookStorage(filePath);
+        default:
+            JsonAddressBookStorage jsonAddressBookStorage = new JsonAddressBookStorage(filePath,
+                    userPrefs.isAddressBookPrettyPrinted(), userPrefs.getAddressBookCompression(),
+                    options.contains(Option.TAG_DICTIONARY), fsyncPolicy);
+            if (!options.contains(Option.SNAPSHOT)) {
+                return jsonAddressBookStorage;
+            }
+            logger.info("Reading data file from its binary snapshot when it is up to date");
+            snapshotAddressBookStorage = new SnapshotAddressBookStorage(jsonAddressBookStorage);
+            return snapshotAddressBookStorage;
+        }
+    }
+
+    /**
+     * Returns the storage that watches the data file for external changes, if the last created storage reloads them.
+     */
+    public Optional<ReloadingAddressBookStorage> getReloadingAddressBookStorage() {
+        return Optional.ofNullable(reloadingAddressBookStorage);
+    }
+
+    /**
+     * Returns the storage that keeps a binary snapshot of the data file, if the last created storage has one.
+     */
+    public Optional<SnapshotAddressBookStorage> getSnapshotAddressBookStorage() {
+        return Optional.ofNullable(snapshotAddressBookStorage);
+    }
+
+}
@@ -0,0 +1,667 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Address;
+import seedu.address.model.person.Email;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.Phone;
+import seedu.address.model.person.exceptions.DuplicatePersonException;
+import seedu.address.model.tag.Tag;
+
+/**
+ * A class to access AddressBook data stored in a compact binary file on the hard disk.
+ *
+ * The file starts with the {@link #MAGIC} number and a format version, followed by a dictionary of all distinct tag
+ * names and then the persons. Every string is stored as its length in bytes followed by its UTF-8 encoding, and every
+ * person stores its tags as indices into the tag dictionary. Each distinct tag is therefore written and validated
+ * only once, and all persons with the same tag share one {@code Tag} instance after loading.
+ *
+ * Since {@link #FORMAT_VERSION} 2, the tag dictionary and every person are stored as separate records, each with the
+ * CRC32C checksum of its content, and the file ends with a footer that indexes the offsets of the person records.
+ * The footer also holds the CRC32C checksum of the checksums of all records before it, so that the checksum of the
+ * footer changes with the content of every record.
+ * Persons whose records are corrupt are skipped when loading, and a copy of the damaged file is kept next to it
+ * so that the skipped persons are not lost for good when the address book is saved again.
+ *
+ * Large files are memory-mapped and parsed straight from the mapped buffer, so loading them only needs heap space for
+ * the resulting persons. The mapping is released explicitly as soon as the persons are read, and the mappings held by
+ * a {@link PersonIndex} when it is closed, so that the file can be replaced on platforms that do not allow a mapped
+ * file to be replaced.
+ */
+public class BinaryAddressBookStorage implements AddressBookStorage {
+
+    /** The bytes "ABKB" that identify an address book binary file. */
+    public static final int MAGIC = 0x41424B42;
+    /** The format version of files that store their persons one after another, without checksums. */
+    public static final int FORMAT_VERSION_UNCHECKSUMMED = 1;
+    public static final int FORMAT_VERSION = 2;
+    /** The bytes "ABKF" that end the footer of a binary file. */
+    public static final int FOOTER_MAGIC = 0x41424B46;
+    public static final String CORRUPT_FILE_SUFFIX = ".corrupt";
+
+    public static final String MESSAGE_NOT_BINARY_ADDRESS_BOOK = "File is not a binary address book.";
+    public static final String MESSAGE_UNSUPPORTED_VERSION = "Binary address book version %d is not supported.";
+    public static final String MESSAGE_CORRUPT_DATA = "Binary address book is corrupt.";
+    public static final String MESSAGE_CORRUPT_TAG_DICTIONARY = "Tag dictionary of binary address book is corrupt.";
+    public static final String MESSAGE_FILE_TOO_LARGE = "Binary address book of %d bytes is too large to be read.";
+
+    /** Files of at least this many bytes are memory-mapped while reading instead of being copied onto the heap. */
+    public static final long DEFAULT_MEMORY_MAP_THRESHOLD = 16 * 1024 * 1024;
+
+    private static final Logger logger = LogsCenter.getLogger(BinaryAddressBookStorage.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The smallest encoding of a tag is an empty string, and of a person four empty strings and no tags. */
+    private static final int MIN_TAG_BYTES = Integer.BYTES;
+    private static final int MIN_PERSON_BYTES = 5 * Integer.BYTES;
+    /** A record is the length of its content, the CRC32C checksum of its content, and then the content itself. */
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    /** The footer record is followed by its offset and {@link #FOOTER_MAGIC}. */
+    private static final int FOOTER_TRAILER_BYTES = 2 * Integer.BYTES;
+
+    private Path filePath;
+    private final boolean isIndexed;
+    private final FsyncPolicy fsyncPolicy;
+    private final long memoryMapThreshold;
+
+    public BinaryAddressBookStorage(Path filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a {@code BinaryAddressBookStorage} for the file at {@code filePath}, which also writes a
+     * {@link PersonIndex} next to every file it saves if {@code isIndexed} is true.
+     */
+    public BinaryAddressBookStorage(Path filePath, boolean isIndexed) {
+        this(filePath, isIndexed, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code BinaryAddressBookStorage} for the file at {@code filePath} that forces the files it saves to
+     * the storage device as {@code fsyncPolicy} says.
+     */
+    public BinaryAddressBookStorage(Path filePath, boolean isIndexed, FsyncPolicy fsyncPolicy) {
+        this(filePath, isIndexed, fsyncPolicy, DEFAULT_MEMORY_MAP_THRESHOLD);
+    }
+
+    /**
+     * Creates a {@code BinaryAddressBookStorage} that memory-maps files of at least {@code memoryMapThreshold} bytes.
+     */
+    BinaryAddressBookStorage(Path filePath, boolean isIndexed, FsyncPolicy fsyncPolicy, long memoryMapThreshold) {
+        requireNonNull(fsyncPolicy);
+        this.filePath = filePath;
+        this.isIndexed = isIndexed;
+        this.fsyncPolicy = fsyncPolicy;
+        this.memoryMapThreshold = memoryMapThreshold;
+    }
+
+    /**
+     * Returns the path at which a copy of the damaged binary file at {@code addressBookFilePath} is kept.
+     */
+    public static Path getCorruptFilePath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + CORRUPT_FILE_SUFFIX);
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * Persons with corrupt records are skipped, after copying the file to {@link #getCorruptFilePath(Path)}.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        List<Person> persons = new ArrayList<>();
+        int corruptRecordCount;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ByteBuffer content = readFully(channel, memoryMapThreshold);
+            try {
+                corruptRecordCount = readPersons(content, persons);
+            } finally {
+                // the persons are decoded into strings of their own, so nothing refers to the mapping any more
+                unmap(content);
+            }
+        } catch (IOException ioe) {
+            logger.warning("Error reading from binary file " + filePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+
+        if (corruptRecordCount > 0) {
+            keepCorruptFile(filePath, corruptRecordCount);
+        }
+
+        AddressBook addressBook = new AddressBook();
+        try {
+            addressBook.setPersons(persons);
+        } catch (DuplicatePersonException dpe) {
+            logger.info("Illegal values found in " + filePath + ": "
+                    + JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON);
+            throw new DataLoadingException(new IllegalValueException(
+                    JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON));
+        }
+        return Optional.of(addressBook);
+    }
+
+    /**
+     * Copies the file at {@code filePath}, from which {@code corruptRecordCount} records could not be read, to
+     * {@link #getCorruptFilePath(Path)}.
+     *
+     * @throws DataLoadingException if the copy could not be made, as the skipped persons would otherwise be lost.
+     */
+    private static void keepCorruptFile(Path filePath, int corruptRecordCount) throws DataLoadingException {
+        Path corruptFilePath = getCorruptFilePath(filePath);
+        logger.warning("Skipped " + corruptRecordCount + " corrupt records in " + filePath
+                + ", keeping a copy of the file at " + corruptFilePath);
+        try {
+            Files.copy(filePath, corruptFilePath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            logger.warning("Error copying corrupt binary file " + filePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+    }
+
+    /**
+     * Returns a buffer, positioned at its start, holding the whole content of {@code channel}.
+     * Files of at least {@code memoryMapThreshold} bytes are memory-mapped rather than copied onto the heap; such a
+     * buffer should be released with {@link #unmap(ByteBuffer)} as soon as it is no longer needed.
+     */
+    static ByteBuffer readFully(FileChannel channel, long memoryMapThreshold) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(String.format(MESSAGE_FILE_TOO_LARGE, size));
+        }
+        if (size >= memoryMapThreshold) {
+            logger.fine("Memory-mapping binary file of " + size + " bytes");
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Releases the memory mapping of {@code buffer}, if it is a buffer mapped by {@link #readFully}, right away rather
+     * than when it is garbage collected: on some platforms, such as Windows, a file cannot be replaced while it is
+     * mapped. {@code buffer}, and any buffer sliced from it, must not be used afterwards. If the mapping cannot be
+     * released on this Java runtime, it is left to the garbage collector.
+     */
+    static void unmap(ByteBuffer buffer) {
+        if (!(buffer instanceof MappedByteBuffer)) {
+            return;
+        }
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafeField.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.fine("Leaving memory mapping to be released by the garbage collector: " + e);
+        }
+    }
+
+    /**
+     * Reads the persons stored in {@code buffer} into {@code persons}.
+     * Returns the number of person records that were skipped because they are corrupt.
+     */
+    private static int readPersons(ByteBuffer buffer, List<Person> persons) throws IllegalValueException {
+        int version = readFormatVersion(buffer);
+        switch (version) {
+        case FORMAT_VERSION_UNCHECKSUMMED:
+            readUnchecksummedPersons(buffer, persons);
+            return 0;
+        case FORMAT_VERSION:
+            return readChecksummedPersons(buffer, persons);
+        default:
+            throw new IllegalValueException(String.format(MESSAGE_UNSUPPORTED_VERSION, version));
+        }
+    }
+
+    /**
+     * Reads the header at the start of {@code buffer} and returns the format version given in it.
+     *
+     * @throws IllegalValueException if {@code buffer} does not hold a binary address book.
+     */
+    static int readFormatVersion(ByteBuffer buffer) throws IllegalValueException {
+        if (readInt(buffer) != MAGIC) {
+            throw new IllegalValueException(MESSAGE_NOT_BINARY_ADDRESS_BOOK);
+        }
+        return readInt(buffer);
+    }
+
+    private static void readUnchecksummedPersons(ByteBuffer buffer, List<Person> persons)
+            throws IllegalValueException {
+        List<Tag> tags = readTags(buffer);
+        int personCount = readCount(buffer, MIN_PERSON_BYTES);
+        for (int i = 0; i < personCount; i++) {
+            persons.add(readPerson(buffer, tags));
+        }
+    }
+
+    /**
+     * Reads the person records of a checksummed file into {@code persons}, skipping corrupt ones.
+     * The records are located through the footer if it is intact, or else by reading them one after another.
+     * Returns the number of person records that were skipped.
+     */
+    private static int readChecksummedPersons(ByteBuffer buffer, List<Person> persons) throws IllegalValueException {
+        int tagDictionaryOffset = buffer.position();
+        List<Tag> tags = readTagDictionary(buffer, tagDictionaryOffset);
+        int recordsOffset = getRecordEnd(buffer, tagDictionaryOffset);
+
+        Optional<int[]> recordOffsets = readFooter(buffer, recordsOffset);
+        if (recordOffsets.isPresent()) {
+            int[] offsets = recordOffsets.get();
+            int recordsEnd = offsets[offsets.length - 1];
+            int corruptRecordCount = 0;
+            for (int i = 0; i < offsets.length - 1; i++) {
+                try {
+                    if (!readPersonRecord(buffer, offsets[i], recordsEnd, tags, persons)) {
+                        corruptRecordCount++;
+                    }
+                } catch (IllegalValueException ive) {
+                    corruptRecordCount++;
+                }
+            }
+            return corruptRecordCount;
+        }
+
+        logger.warning("Footer of binary file is missing or corrupt, reading its records one after another");
+        int corruptRecordCount = 0;
+        int offset = recordsOffset;
+        while (offset < buffer.limit()) {
+            try {
+                if (!readPersonRecord(buffer, offset, buffer.limit(), tags, persons)) {
+                    corruptRecordCount++;
+                }
+            } catch (IllegalValueException ive) {
+                // Without the length of this record, the records after it cannot be found either.
+                return corruptRecordCount + 1;
+            }
+            offset = getRecordEnd(buffer, offset);
+        }
+        return corruptRecordCount;
+    }
+
+    /**
+     * Returns the tags in the tag dictionary record at {@code offset} of a checksummed file.
+     */
+    static List<Tag> readTagDictionary(ByteBuffer buffer, int offset) throws IllegalValueException {
+        Optional<ByteBuffer> tagDictionary = readRecord(buffer, offset, buffer.limit());
+        if (!tagDictionary.isPresent()) {
+            throw new IllegalValueException(MESSAGE_CORRUPT_TAG_DICTIONARY);
+        }
+        return readTags(tagDictionary.get());
+    }
+
+    /**
+     * Returns the person stored in the person record at {@code offset} of a checksummed file, or
+     * {@code Optional.empty()} if the record is corrupt.
+     */
+    static Optional<Person> readPersonRecord(ByteBuffer buffer, int offset, List<Tag> tags) {
+        List<Person> persons = new ArrayList<>(1);
+        try {
+            readPersonRecord(buffer, offset, buffer.limit(), tags, persons);
+        } catch (IllegalValueException ive) {
+            logger.fine("Invalid person record length at offset " + offset);
+        }
+        return persons.stream().findFirst();
+    }
+
+    /**
+     * Returns the checksum of the footer record of the checksummed file in {@code buffer}, which changes with the
+     * content of every record, or {@code Optional.empty()} if there is no footer.
+     */
+    static Optional<Integer> readFooterChecksum(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        if (limit < RECORD_HEADER_BYTES + FOOTER_TRAILER_BYTES
+                || buffer.getInt(limit - Integer.BYTES) != FOOTER_MAGIC) {
+            return Optional.empty();
+        }
+        int footerOffset = buffer.getInt(limit - FOOTER_TRAILER_BYTES);
+        if (footerOffset < 0 || footerOffset > limit - FOOTER_TRAILER_BYTES - RECORD_HEADER_BYTES) {
+            return Optional.empty();
+        }
+        return Optional.of(buffer.getInt(footerOffset + Integer.BYTES));
+    }
+
+    /**
+     * Reads the person record at {@code offset} into {@code persons}.
+     * Returns false if the record is corrupt.
+     *
+     * @throws IllegalValueException if the length of the record does not fit before {@code limit}.
+     */
+    private static boolean readPersonRecord(ByteBuffer buffer, int offset, int limit, List<Tag> tags,
+            List<Person> persons) throws IllegalValueException {
+        Optional<ByteBuffer> content = readRecord(buffer, offset, limit);
+        if (!content.isPresent()) {
+            logger.fine("Checksum mismatch in person record at offset " + offset);
+            return false;
+        }
+
+        try {
+            Person person = readPerson(content.get(), tags);
+            if (content.get().hasRemaining()) {
+                throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+            }
+            persons.add(person);
+            return true;
+        } catch (IllegalValueException ive) {
+            logger.fine("Invalid person record at offset " + offset + ": " + ive.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the offsets of the person records listed in the footer, followed by the offset at which the person
+     * records end, or {@code Optional.empty()} if there is no intact footer.
+     */
+    private static Optional<int[]> readFooter(ByteBuffer buffer, int recordsOffset) {
+        int limit = buffer.limit();
+        if (limit - recordsOffset < RECORD_HEADER_BYTES + FOOTER_TRAILER_BYTES
+                || buffer.getInt(limit - Integer.BYTES) != FOOTER_MAGIC) {
+            return Optional.empty();
+        }
+
+        int footerOffset = buffer.getInt(limit - FOOTER_TRAILER_BYTES);
+        try {
+            if (footerOffset < recordsOffset) {
+                return Optional.empty();
+            }
+            Optional<ByteBuffer> footer = readRecord(buffer, footerOffset, limit - FOOTER_TRAILER_BYTES);
+            if (!footer.isPresent()) {
+                return Optional.empty();
+            }
+
+            ByteBuffer content = footer.get();
+            int recordCount = readCount(content, Integer.BYTES);
+            int[] offsets = new int[recordCount + 1];
+            for (int i = 0; i < recordCount; i++) {
+                offsets[i] = content.getInt();
+            }
+            offsets[recordCount] = footerOffset;
+            return Optional.of(offsets);
+        } catch (IllegalValueException ive) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the content of the record at {@code offset}, or {@code Optional.empty()} if it does not match its
+     * checksum.
+     *
+     * @throws IllegalValueException if the record does not fit before {@code limit}.
+     */
+    private static Optional<ByteBuffer> readRecord(ByteBuffer buffer, int offset, int limit)
+            throws IllegalValueException {
+        if (offset < 0 || offset > limit - RECORD_HEADER_BYTES) {
+            throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+        }
+        int length = buffer.getInt(offset);
+        if (length < 0 || length > limit - offset - RECORD_HEADER_BYTES) {
+            throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+        }
+
+        ByteBuffer content = buffer.slice(offset + RECORD_HEADER_BYTES, length);
+        CRC32C checksum = new CRC32C();
+        checksum.update(content);
+        if ((int) checksum.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+            return Optional.empty();
+        }
+        content.rewind();
+        return Optional.of(content);
+    }
+
+    /**
+     * Returns the offset just after the record at {@code offset}, which must have been read before.
+     */
+    private static int getRecordEnd(ByteBuffer buffer, int offset) {
+        return offset + RECORD_HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    private static List<Tag> readTags(ByteBuffer buffer) throws IllegalValueException {
+        int tagCount = readCount(buffer, MIN_TAG_BYTES);
+        List<Tag> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            String tagName = readString(buffer);
+            try {
+                tags.add(new Tag(tagName));
+            } catch (IllegalArgumentException iae) {
+                throw new IllegalValueException(iae.getMessage());
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Reads a person, whose fields are validated once by the constructors of the model's field classes.
+     */
+    private static Person readPerson(ByteBuffer buffer, List<Tag> tags) throws IllegalValueException {
+        String name = readString(buffer);
+        String phone = readString(buffer);
+        String email = readString(buffer);
+        String address = readString(buffer);
+
+        int tagRefCount = readCount(buffer, Integer.BYTES);
+        Set<Tag> personTags = new HashSet<>();
+        for (int i = 0; i < tagRefCount; i++) {
+            int tagIndex = readInt(buffer);
+            if (tagIndex < 0 || tagIndex >= tags.size()) {
+                throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+            }
+            personTags.add(tags.get(tagIndex));
+        }
+
+        try {
+            return new Person(new Name(name), new Phone(phone), new Email(email), new Address(address), personTags);
+        } catch (IllegalArgumentException iae) {
+            // The message names the constraints of the invalid field.
+            throw new IllegalValueException(iae.getMessage());
+        }
+    }
+
+    private static int readInt(ByteBuffer buffer) throws IllegalValueException {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+        }
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads the number of the items that follow, each of which takes up at least {@code minItemBytes}.
+     * Counts that cannot fit into the rest of the buffer are rejected before anything is allocated for them.
+     */
+    private static int readCount(ByteBuffer buffer, int minItemBytes) throws IllegalValueException {
+        int count = readInt(buffer);
+        if (count < 0 || count > buffer.remaining() / minItemBytes) {
+            throw new IllegalValueException(MESSAGE_CORRUPT_DATA);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IllegalValueException {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        List<Person> persons = addressBook.getPersonList();
+        int[] recordOffsets = new int[persons.size()];
+        int[] footerChecksum = new int[1];
+        // an index is only written after the file it indexes has replaced the old one
+        FileUtil.writeAtomically(filePath, fsyncPolicy, tempFilePath -> {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFilePath), BUFFER_SIZE))) {
+                footerChecksum[0] = writeAddressBook(output, persons, recordOffsets);
+            }
+        });
+
+        if (isIndexed) {
+            PersonIndex.write(PersonIndex.getIndexFilePath(filePath), persons, recordOffsets, footerChecksum[0],
+                    fsyncPolicy);
+        }
+    }
+
+    /**
+     * Writes {@code persons} to {@code output}, storing the offset of the record of each person in
+     * {@code recordOffsets}. Returns the checksum of the footer record.
+     */
+    private static int writeAddressBook(DataOutputStream output, List<Person> persons, int[] recordOffsets)
+            throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+
+        Map<Tag, Integer> tagIndices = new LinkedHashMap<>();
+        for (Person person : persons) {
+            for (Tag tag : person.getTags()) {
+                tagIndices.putIfAbsent(tag, tagIndices.size());
+            }
+        }
+        CRC32C contentChecksum = new CRC32C();
+        DataOutputStream recordChecksums = new DataOutputStream(
+                new CheckedOutputStream(OutputStream.nullOutputStream(), contentChecksum));
+        RecordBuffer record = new RecordBuffer();
+        record.writeInt(tagIndices.size());
+        for (Tag tag : tagIndices.keySet()) {
+            record.writeString(tag.tagName);
+        }
+        recordChecksums.writeInt(record.writeRecordTo(output));
+
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            recordOffsets[i] = output.size();
+            record.writeString(person.getName().fullName);
+            record.writeString(person.getPhone().value);
+            record.writeString(person.getEmail().value);
+            record.writeString(person.getAddress().value);
+            record.writeInt(person.getTags().size());
+            for (Tag tag : person.getTags()) {
+                record.writeInt(tagIndices.get(tag));
+            }
+            recordChecksums.writeInt(record.writeRecordTo(output));
+        }
+
+        // DataOutputStream.size() stops counting at Integer.MAX_VALUE, beyond which offsets cannot be stored.
+        int footerOffset = output.size();
+        if (footerOffset == Integer.MAX_VALUE) {
+            throw new IOException(String.format(MESSAGE_FILE_TOO_LARGE, footerOffset));
+        }
+        record.writeInt(recordOffsets.length);
+        for (int recordOffset : recordOffsets) {
+            record.writeInt(recordOffset);
+        }
+        record.writeInt((int) contentChecksum.getValue());
+        int footerChecksum = record.writeRecordTo(output);
+        output.writeInt(footerOffset);
+        output.writeInt(FOOTER_MAGIC);
+        return footerChecksum;
+    }
+
+    /**
+     * Collects the content of a record so that it can be written after its length and checksum.
+     * Can be reused for any number of records.
+     */
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream content = new DataOutputStream(this);
+        private final CRC32C checksum = new CRC32C();
+
+        void writeInt(int value) throws IOException {
+            content.writeInt(value);
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            content.writeInt(bytes.length);
+            content.write(bytes);
+        }
+
+        /**
+         * Writes the collected content as a record to {@code output} and empties this buffer.
+         * Returns the checksum of the record.
+         */
+        int writeRecordTo(DataOutputStream output) throws IOException {
+            checksum.reset();
+            checksum.update(buf, 0, count);
+            int recordChecksum = (int) checksum.getValue();
+            output.writeInt(count);
+            output.writeInt(recordChecksum);
+            output.write(buf, 0, count);
+            reset();
+            return recordChecksum;
+        }
+    }
+
+}
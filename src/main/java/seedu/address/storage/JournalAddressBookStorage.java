@@ -0,0 +1,303 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.commons.util.JsonUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.exceptions.DuplicatePersonException;
+import seedu.address.model.tag.Tag;
+
+/**
+ * An {@code AddressBookStorage} that keeps a full snapshot of the address book in another {@code AddressBookStorage}
+ * and records later changes in an append-only journal file next to it.
+ * Each save appends a single compact entry describing what changed since the previous save. Once
+ * {@code checkpointInterval} entries have been written, the next save rewrites the snapshot and truncates the journal.
+ * Reading the address book replays the journal on top of the snapshot.
+ *
+ * The first line of the journal holds a fingerprint of the snapshot it applies to, the SHA-256 digest of the fields of
+ * its persons, so that a journal is not replayed onto another snapshot by accident. A journal whose fingerprint does
+ * not match the snapshot (e.g. if the app stopped between rewriting the snapshot and truncating the journal) is
+ * ignored, as all of its changes are then already contained in the snapshot.
+ */
+public class JournalAddressBookStorage implements AddressBookStorage {
+
+    public static final String JOURNAL_FILE_SUFFIX = ".journal";
+    public static final String MESSAGE_MALFORMED_JOURNAL = "Address book journal is malformed at line %d";
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    private static final Logger logger = LogsCenter.getLogger(JournalAddressBookStorage.class);
+
+    private final AddressBookStorage snapshotStorage;
+    private final Path journalFilePath;
+    private final int checkpointInterval;
+    private final FsyncPolicy fsyncPolicy;
+
+    /** Persons as currently persisted by the snapshot and the journal, or null if the journal has to be reset. */
+    private List<Person> persistedPersons;
+    private int journalEntryCount;
+    /** True if the journal ends with an incomplete entry that must not be appended to. */
+    private boolean isJournalTorn;
+
+    /**
+     * Creates a {@code JournalAddressBookStorage} that keeps its snapshots in {@code snapshotStorage}.
+     * {@code checkpointInterval} must be positive.
+     */
+    public JournalAddressBookStorage(AddressBookStorage snapshotStorage, int checkpointInterval) {
+        this(snapshotStorage, checkpointInterval, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code JournalAddressBookStorage} that forces the journal to the storage device as
+     * {@code fsyncPolicy} says. The snapshots are forced as {@code snapshotStorage} forces them.
+     */
+    public JournalAddressBookStorage(AddressBookStorage snapshotStorage, int checkpointInterval,
+            FsyncPolicy fsyncPolicy) {
+        requireNonNull(snapshotStorage);
+        requireNonNull(fsyncPolicy);
+        checkArgument(checkpointInterval > 0, "Journal checkpoint interval must be positive");
+        this.snapshotStorage = snapshotStorage;
+        this.journalFilePath = getJournalFilePath(snapshotStorage.getAddressBookFilePath());
+        this.checkpointInterval = checkpointInterval;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Returns the path of the journal kept for the address book at {@code addressBookFilePath}.
+     */
+    public static Path getJournalFilePath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + JOURNAL_FILE_SUFFIX);
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return snapshotStorage.getAddressBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * The journal is only replayed if {@code filePath} is the file path of this storage.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        Optional<ReadOnlyAddressBook> snapshot = snapshotStorage.readAddressBook(filePath);
+        if (!filePath.equals(getAddressBookFilePath())) {
+            return snapshot;
+        }
+
+        persistedPersons = null;
+        if (!snapshot.isPresent()) {
+            return snapshot;
+        }
+
+        List<Person> persons = new ArrayList<>(snapshot.get().getPersonList());
+        Optional<Integer> replayedEntryCount = replayJournal(persons);
+        if (!replayedEntryCount.isPresent()) {
+            return snapshot;
+        }
+        if (replayedEntryCount.get() == 0 && !isJournalTorn) {
+            persistedPersons = persons;
+            journalEntryCount = 0;
+            return snapshot;
+        }
+
+        AddressBook addressBook = new AddressBook();
+        try {
+            addressBook.setPersons(persons);
+        } catch (DuplicatePersonException dpe) {
+            throw new DataLoadingException(new IllegalValueException(
+                    JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON));
+        }
+        persistedPersons = isJournalTorn ? null : persons;
+        journalEntryCount = replayedEntryCount.get();
+        return Optional.of(addressBook);
+    }
+
+    /**
+     * Applies the entries of the journal to {@code persons}, which must hold the persons of the snapshot.
+     * Returns the number of entries applied, or {@code Optional.empty()} if there is no journal for the snapshot.
+     * An incomplete last entry, as left behind if the app stopped while appending it, is discarded, and the next save
+     * then starts a new journal.
+     */
+    private Optional<Integer> replayJournal(List<Person> persons) throws DataLoadingException {
+        isJournalTorn = false;
+        if (!Files.exists(journalFilePath)) {
+            return Optional.empty();
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(journalFilePath, StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            logger.warning("Error reading from journal file " + journalFilePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+
+        if (lines.isEmpty() || !lines.get(0).equals(fingerprintOf(persons))) {
+            logger.info("Ignoring journal " + journalFilePath + " as it does not belong to the current snapshot.");
+            return Optional.empty();
+        }
+
+        int entryCount = 0;
+        for (int i = 1; i < lines.size(); i++) {
+            JsonAdaptedJournalEntry entry;
+            try {
+                entry = JsonUtil.fromJsonString(lines.get(i), JsonAdaptedJournalEntry.class);
+            } catch (IOException ioe) {
+                if (i == lines.size() - 1) {
+                    logger.warning("Discarding incomplete last entry of journal " + journalFilePath);
+                    isJournalTorn = true;
+                    break;
+                }
+                throw new DataLoadingException(new IllegalValueException(
+                        String.format(MESSAGE_MALFORMED_JOURNAL, i + 1)));
+            }
+
+            try {
+                entry.applyTo(persons);
+            } catch (IllegalValueException ive) {
+                logger.info("Illegal values found in " + journalFilePath + ": " + ive.getMessage());
+                throw new DataLoadingException(ive);
+            }
+            entryCount++;
+        }
+        return Optional.of(entryCount);
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * Only saves to the file path of this storage are journaled; other file paths receive a full snapshot.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        if (!filePath.equals(getAddressBookFilePath())) {
+            snapshotStorage.saveAddressBook(addressBook, filePath);
+            return;
+        }
+
+        List<Person> persons = addressBook.getPersonList();
+        if (persistedPersons == null) {
+            checkpoint(addressBook);
+            return;
+        }
+
+        Optional<JsonAdaptedJournalEntry> entry = JsonAdaptedJournalEntry.between(persistedPersons, persons);
+        if (!entry.isPresent()) {
+            return;
+        }
+        if (journalEntryCount >= checkpointInterval) {
+            checkpoint(addressBook);
+            return;
+        }
+
+        String line = JsonUtil.toCompactJsonString(entry.get()) + System.lineSeparator();
+        try {
+            FileUtil.appendToFile(journalFilePath, line.getBytes(StandardCharsets.UTF_8), fsyncPolicy);
+        } catch (IOException ioe) {
+            // The journal may now end with a partial entry, so the next save has to start a new one.
+            persistedPersons = null;
+            throw ioe;
+        }
+        persistedPersons = new ArrayList<>(persons);
+        journalEntryCount++;
+    }
+
+    /**
+     * Writes a full snapshot of {@code addressBook} and starts a new, empty journal for it.
+     */
+    private void checkpoint(ReadOnlyAddressBook addressBook) throws IOException {
+        persistedPersons = null;
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+
+        snapshotStorage.saveAddressBook(addressBook, getAddressBookFilePath());
+        String header = fingerprintOf(persons) + System.lineSeparator();
+        FileUtil.writeToFile(journalFilePath, header, fsyncPolicy);
+
+        persistedPersons = persons;
+        journalEntryCount = 0;
+        logger.fine("Checkpointed address book journal " + journalFilePath);
+    }
+
+    /**
+     * Returns a fingerprint of the content of {@code persons}, in order: the hex digits of the SHA-256 digest of the
+     * fields of every person, each prefixed with its length.
+     */
+    private static String fingerprintOf(List<Person> persons) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new AssertionError(e);
+        }
+        for (Person person : persons) {
+            updateDigest(digest, person.getName().fullName);
+            updateDigest(digest, person.getPhone().value);
+            updateDigest(digest, person.getEmail().value);
+            updateDigest(digest, person.getAddress().value);
+            List<String> tagNames = new ArrayList<>();
+            for (Tag tag : person.getTags()) {
+                tagNames.add(tag.tagName);
+            }
+            Collections.sort(tagNames);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(tagNames.size()).array());
+            for (String tagName : tagNames) {
+                updateDigest(digest, tagName);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void updateDigest(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+}
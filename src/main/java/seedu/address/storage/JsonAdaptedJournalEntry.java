@@ -0,0 +1,87 @@
+package seedu.address.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.model.person.Person;
+
+/**
+ * Jackson-friendly record of a single change to the person list, as stored in an address book journal.
+ * A change replaces the {@code removed} persons starting at index {@code from} with the {@code added} persons.
+ */
+class JsonAdaptedJournalEntry {
+
+    public static final String MESSAGE_ENTRY_OUT_OF_RANGE = "Journal entry does not fit the persons list!";
+
+    private final int from;
+    private final int removed;
+    private final List<JsonAdaptedPerson> added = new ArrayList<>();
+
+    /**
+     * Constructs a {@code JsonAdaptedJournalEntry} with the given change details.
+     */
+    @JsonCreator
+    public JsonAdaptedJournalEntry(@JsonProperty("from") int from, @JsonProperty("removed") int removed,
+            @JsonProperty("added") List<JsonAdaptedPerson> added) {
+        this.from = from;
+        this.removed = removed;
+        if (added != null) {
+            this.added.addAll(added);
+        }
+    }
+
+    /**
+     * Returns the entry that turns {@code oldPersons} into {@code newPersons}, or {@code Optional.empty()} if the
+     * two lists hold the same persons in the same order.
+     * Persons are immutable, so the lists are compared by reference to find the changed range cheaply.
+     */
+    public static Optional<JsonAdaptedJournalEntry> between(List<Person> oldPersons, List<Person> newPersons) {
+        int oldSize = oldPersons.size();
+        int newSize = newPersons.size();
+        int shorterSize = Math.min(oldSize, newSize);
+
+        int prefix = 0;
+        while (prefix < shorterSize && oldPersons.get(prefix) == newPersons.get(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorterSize - prefix
+                && oldPersons.get(oldSize - 1 - suffix) == newPersons.get(newSize - 1 - suffix)) {
+            suffix++;
+        }
+
+        int removedCount = oldSize - prefix - suffix;
+        List<Person> addedPersons = newPersons.subList(prefix, newSize - suffix);
+        if (removedCount == 0 && addedPersons.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new JsonAdaptedJournalEntry(prefix, removedCount,
+                addedPersons.stream().map(JsonAdaptedPerson::new).collect(Collectors.toList())));
+    }
+
+    /**
+     * Applies this change to {@code persons}.
+     *
+     * @throws IllegalValueException if this change does not fit {@code persons}, or if there were any data
+     *     constraints violated in the added persons.
+     */
+    public void applyTo(List<Person> persons) throws IllegalValueException {
+        if (from < 0 || removed < 0 || from + removed > persons.size()) {
+            throw new IllegalValueException(MESSAGE_ENTRY_OUT_OF_RANGE);
+        }
+
+        List<Person> addedPersons = new ArrayList<>(added.size());
+        for (JsonAdaptedPerson jsonAdaptedPerson : added) {
+            addedPersons.add(jsonAdaptedPerson.toModelType());
+        }
+        persons.subList(from, from + removed).clear();
+        persons.addAll(from, addedPersons);
+    }
+
+}
@@ -4,27 +4,96 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
+import java.util.zip.Checksum;
 
+import com.fasterxml.jackson.core.JsonParser;
+
+import seedu.address.commons.core.Compression;
+import seedu.address.commons.core.FsyncPolicy;
 import seedu.address.commons.core.LogsCenter;
 import seedu.address.commons.exceptions.DataLoadingException;
 import seedu.address.commons.exceptions.IllegalValueException;
-import seedu.address.commons.util.FileUtil;
 import seedu.address.commons.util.JsonUtil;
+import seedu.address.commons.util.JsonUtil.JsonElementWriter;
+import seedu.address.commons.util.JsonUtil.JsonFieldsWriter;
+import seedu.address.model.AddressBook;
 import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.exceptions.DuplicatePersonException;
+import seedu.address.storage.JsonPersonCodec.PersonFields;
 
 /**
  * A class to access AddressBook data stored as a json file on the hard disk.
+ *
+ * With a tag dictionary, the distinct tag names are written once, under {@link #TAG_DICTIONARY_FIELD} before the
+ * persons, and each person refers to its tags by their positions in the dictionary. Files are read whether or not they
+ * have a tag dictionary, and the tags read are always interned, so that there is one {@code Tag} per distinct tag.
  */
 public class JsonAddressBookStorage implements AddressBookStorage {
 
+    public static final String TAG_DICTIONARY_FIELD = "tagDictionary";
+
     private static final Logger logger = LogsCenter.getLogger(JsonAddressBookStorage.class);
 
+    /** The number of persons read before converting them together, which bounds the memory held by read persons. */
+    private static final int CONVERSION_BATCH_SIZE = 16 * 1024;
+
     private Path filePath;
+    private final boolean isPrettyPrinted;
+    private final Compression compression;
+    private final boolean isTagDictionaryEnabled;
+    private final FsyncPolicy fsyncPolicy;
 
     public JsonAddressBookStorage(Path filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Creates a {@code JsonAddressBookStorage} for the file at {@code filePath}, which saves indented JSON
+     * if {@code isPrettyPrinted} is true, or JSON without any whitespace otherwise.
+     */
+    public JsonAddressBookStorage(Path filePath, boolean isPrettyPrinted) {
+        this(filePath, isPrettyPrinted, Compression.NONE);
+    }
+
+    /**
+     * Creates a {@code JsonAddressBookStorage} for the file at {@code filePath} that saves the JSON compressed with
+     * {@code compression}. Files are read whatever their compression, which is told from their first bytes.
+     */
+    public JsonAddressBookStorage(Path filePath, boolean isPrettyPrinted, Compression compression) {
+        this(filePath, isPrettyPrinted, compression, false);
+    }
+
+    /**
+     * Creates a {@code JsonAddressBookStorage} for the file at {@code filePath} that saves the tags of the persons as
+     * references to a tag dictionary if {@code isTagDictionaryEnabled} is true.
+     */
+    public JsonAddressBookStorage(Path filePath, boolean isPrettyPrinted, Compression compression,
+            boolean isTagDictionaryEnabled) {
+        this(filePath, isPrettyPrinted, compression, isTagDictionaryEnabled, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code JsonAddressBookStorage} for the file at {@code filePath} that forces the files it saves to the
+     * storage device as {@code fsyncPolicy} says.
+     */
+    public JsonAddressBookStorage(Path filePath, boolean isPrettyPrinted, Compression compression,
+            boolean isTagDictionaryEnabled, FsyncPolicy fsyncPolicy) {
+        requireNonNull(compression);
+        requireNonNull(fsyncPolicy);
         this.filePath = filePath;
+        this.isPrettyPrinted = isPrettyPrinted;
+        this.compression = compression;
+        this.isTagDictionaryEnabled = isTagDictionaryEnabled;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
     }
 
     public Path getAddressBookFilePath() {
@@ -45,18 +114,69 @@ public class JsonAddressBookStorage implements AddressBookStorage {
     public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableAddressBook> jsonAddressBook = JsonUtil.readJsonFile(
-                filePath, JsonSerializableAddressBook.class);
-        if (!jsonAddressBook.isPresent()) {
+        // The fields of the persons are read straight from the tokens, and validated in parallel in batches as they
+        // are read, so that the file is never held in memory as a whole.
+        List<Person> persons = new ArrayList<>();
+        List<PersonFields> batch = new ArrayList<>(CONVERSION_BATCH_SIZE);
+        TagDictionary dictionary = new TagDictionary();
+        boolean isFileFound = JsonUtil.readJsonArrayFile(filePath, JsonSerializableAddressBook.PERSONS_FIELD,
+                parser -> readPersonFields(parser, dictionary, batch, persons), personFields -> {
+                    batch.add(personFields);
+                    if (batch.size() == CONVERSION_BATCH_SIZE) {
+                        convertBatch(batch, persons);
+                    }
+                }, (parser, fieldName) -> {
+                    if (fieldName.equals(TAG_DICTIONARY_FIELD)) {
+                        JsonPersonCodec.readTagDictionary(parser, dictionary);
+                    } else {
+                        parser.skipChildren();
+                    }
+                });
+        if (!isFileFound) {
             return Optional.empty();
         }
-
         try {
-            return Optional.of(jsonAddressBook.get().toModelType());
+            convertBatch(batch, persons);
         } catch (IllegalValueException ive) {
             logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
             throw new DataLoadingException(ive);
         }
+
+        AddressBook addressBook = new AddressBook();
+        try {
+            addressBook.setPersons(persons);
+        } catch (DuplicatePersonException dpe) {
+            logger.info("Illegal values found in " + filePath + ": "
+                    + JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON);
+            throw new DataLoadingException(new IllegalValueException(
+                    JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON));
+        }
+        return Optional.of(addressBook);
+    }
+
+    /**
+     * Reads the fields of the person at the current token of {@code parser}, with its tags interned in
+     * {@code dictionary}. If its tags are invalid, the persons read before it in {@code batch} are converted into
+     * {@code persons} first, so that the first invalid person in the file is the one reported.
+     */
+    private static PersonFields readPersonFields(JsonParser parser, TagDictionary dictionary,
+            List<PersonFields> batch, List<Person> persons) throws IOException, IllegalValueException {
+        try {
+            return JsonPersonCodec.readPersonFields(parser, dictionary);
+        } catch (IllegalValueException ive) {
+            convertBatch(batch, persons);
+            throw new IllegalValueException(String.format(JsonSerializableAddressBook.MESSAGE_INVALID_PERSON,
+                    persons.size() + 1, ive.getMessage()), ive);
+        }
+    }
+
+    /**
+     * Converts the persons in {@code batch} and appends them to {@code persons}, then empties {@code batch}.
+     */
+    private static void convertBatch(List<PersonFields> batch, List<Person> persons) throws IllegalValueException {
+        persons.addAll(JsonSerializableAddressBook.toModelPersons(batch, PersonFields::toModelType,
+                persons.size() + 1));
+        batch.clear();
     }
 
     @Override
@@ -70,11 +190,31 @@ public class JsonAddressBookStorage implements AddressBookStorage {
      * @param filePath location of the data. Cannot be null.
      */
     public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        saveAddressBook(addressBook, filePath, null);
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook, Path)}, but also computes the {@code checksum} of the
+     * bytes of the data file, if it is not null, as they are written.
+     */
+    void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath, Checksum checksum) throws IOException {
         requireNonNull(addressBook);
         requireNonNull(filePath);
 
-        FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableAddressBook(addressBook), filePath);
+        List<Person> persons = addressBook.getPersonList();
+        JsonElementWriter<Person> personWriter = JsonPersonCodec::writePerson;
+        JsonFieldsWriter leadingFieldsWriter = generator -> { };
+        if (isTagDictionaryEnabled) {
+            TagDictionary dictionary = TagDictionary.of(persons);
+            personWriter = (generator, person) -> JsonPersonCodec.writePerson(generator, person, dictionary);
+            leadingFieldsWriter = generator -> {
+                generator.writeFieldName(TAG_DICTIONARY_FIELD);
+                JsonPersonCodec.writeTagDictionary(generator, dictionary);
+            };
+        }
+        // Large address books are written in chunks in parallel, into the same bytes as one person at a time.
+        JsonUtil.saveJsonArrayFileInParallel(filePath, JsonSerializableAddressBook.PERSONS_FIELD, persons,
+                personWriter, isPrettyPrinted, compression, leadingFieldsWriter, checksum, fsyncPolicy);
     }
 
 }
@@ -0,0 +1,512 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+
+/**
+ * An {@code AddressBookStorage} that keeps the address book as JSON Lines: one compact JSON object per line.
+ * Each line is either a person, in the same JSON as {@link JsonAdaptedPerson} with an {@code "order"} field first, a
+ * tombstone {@code {"deleted":"<name>"}} that removes the person of that name, or a commit {@code {"commit":<count>}}
+ * that ends a batch of that many lines. A person line replaces the person of the same name added by an earlier line.
+ * The persons are read back in the order of their {@code "order"} fields, which are kept as by {@link PersonOrders}.
+ * In a file without orders, as written by hand, a person line instead keeps the position of the person it replaces,
+ * or else adds the person at the end, and the next save rewrites the file with orders.
+ *
+ * Each save only appends a batch of lines for what changed since the previous save: a line for each added or edited
+ * person or person whose order changed, and a tombstone for each removed one, followed by a commit. A batch without
+ * its commit, as left behind if the app stopped while appending it, is discarded as a whole when the file is read, so
+ * that a save is either read back completely or not at all. Once the lines that no longer describe a current person
+ * outnumber the persons, the file is compacted in the background by writing the current persons to a new file that
+ * then replaces it, unless the file was saved to in the meantime.
+ */
+public class JsonLinesAddressBookStorage implements AddressBookStorage {
+
+    public static final String DELETED_FIELD = "deleted";
+    public static final String COMMIT_FIELD = "commit";
+    public static final String ORDER_FIELD = "order";
+    /** The suffix of the file that a compaction writes before it replaces the file. */
+    public static final String COMPACTED_FILE_SUFFIX = ".compacted";
+    public static final String MESSAGE_MALFORMED_LINE = "Address book line %d is malformed";
+    public static final String MESSAGE_INVALID_PERSON = "Person on line %d is invalid: %s";
+    public static final String MESSAGE_UNKNOWN_PERSON = "Line %d deletes a person that is not in the address book";
+
+    /** The least number of garbage lines that makes the file worth compacting. */
+    public static final int DEFAULT_MIN_COMPACTION_GARBAGE = 1000;
+
+    private static final long COMPACTOR_KEEP_ALIVE_SECONDS = 30;
+
+    private static final Logger logger = LogsCenter.getLogger(JsonLinesAddressBookStorage.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Path filePath;
+    private final FsyncPolicy fsyncPolicy;
+    private final int minCompactionGarbage;
+    private final Executor compactor;
+
+    /** Persons as currently persisted in the file, or null if the file has to be rewritten by the next save. */
+    private PersonOrders persisted;
+    /** Number of lines in the file that are tombstones, commits, or persons removed or replaced by a later line. */
+    private int garbageLineCount;
+    private boolean isCompactionScheduled;
+    /** Number of times the file was saved to or read, so that a compaction can tell if its persons are outdated. */
+    private long changeCount;
+
+    public JsonLinesAddressBookStorage(Path filePath) {
+        this(filePath, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code JsonLinesAddressBookStorage} for the file at {@code filePath} that forces the lines it appends,
+     * and the file when it is rewritten or compacted, to the storage device as {@code fsyncPolicy} says.
+     */
+    public JsonLinesAddressBookStorage(Path filePath, FsyncPolicy fsyncPolicy) {
+        this(filePath, fsyncPolicy, DEFAULT_MIN_COMPACTION_GARBAGE, createCompactor());
+    }
+
+    /**
+     * Creates a {@code JsonLinesAddressBookStorage} that compacts its file on {@code compactor} once there are at
+     * least {@code minCompactionGarbage} garbage lines, and more garbage lines than persons.
+     * {@code minCompactionGarbage} must be positive.
+     */
+    JsonLinesAddressBookStorage(Path filePath, FsyncPolicy fsyncPolicy, int minCompactionGarbage,
+            Executor compactor) {
+        requireNonNull(filePath);
+        requireNonNull(fsyncPolicy);
+        requireNonNull(compactor);
+        checkArgument(minCompactionGarbage > 0, "Minimum compaction garbage must be positive");
+        this.filePath = filePath;
+        this.fsyncPolicy = fsyncPolicy;
+        this.minCompactionGarbage = minCompactionGarbage;
+        this.compactor = compactor;
+    }
+
+    /**
+     * Returns an executor that compacts files one at a time on a daemon thread, which stops while it is idle.
+     */
+    private static Executor createCompactor() {
+        return new ThreadPoolExecutor(0, 1, COMPACTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "AddressBook-compactor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * An incomplete last batch, as left behind if the app stopped while appending it, is discarded, and the next save
+     * to the file path of this storage then rewrites the file. So is a file without any commits, as written by hand.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        Map<String, Person> personsByName = new LinkedHashMap<>();
+        Map<String, Long> ordersByName = new HashMap<>();
+        List<Line> batch = new ArrayList<>();
+        int recordLineCount = 0;
+        boolean hasCommit = false;
+        boolean isTorn = false;
+        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            String nextLine = reader.readLine();
+            while (nextLine != null) {
+                String text = nextLine;
+                nextLine = reader.readLine();
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                Line line;
+                try {
+                    line = readLine(text, lineNumber);
+                } catch (JsonParseException jpe) {
+                    if (nextLine == null) {
+                        isTorn = true;
+                        break;
+                    }
+                    throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber));
+                }
+                recordLineCount++;
+                if (line.committedLineCount < 0) {
+                    batch.add(line);
+                    continue;
+                }
+                if (line.committedLineCount != batch.size()) {
+                    throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber));
+                }
+                applyBatch(batch, personsByName, ordersByName);
+                batch.clear();
+                hasCommit = true;
+            }
+
+            if (hasCommit && (isTorn || !batch.isEmpty())) {
+                logger.warning("Discarding incomplete last save of " + filePath);
+                isTorn = true;
+            } else if (!hasCommit) {
+                // lines without any commit were not appended by a save, so they are all read
+                if (isTorn) {
+                    logger.warning("Discarding incomplete last line of " + filePath);
+                }
+                applyBatch(batch, personsByName, ordersByName);
+            }
+        } catch (IOException ioe) {
+            logger.warning("Error reading from JSON Lines file " + filePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+
+        List<Person> persons = new ArrayList<>(personsByName.values());
+        // persons without orders keep the order of the file, which the next save rewrites with orders
+        boolean isOrdered = ordersByName.size() == persons.size();
+        if (isOrdered) {
+            persons.sort(Comparator.comparingLong(person -> ordersByName.get(PersonOrders.nameOf(person))));
+            isOrdered = isStrictlyIncreasing(persons, ordersByName);
+        }
+        AddressBook addressBook = new AddressBook();
+        addressBook.setPersons(persons);
+        if (filePath.equals(this.filePath)) {
+            synchronized (this) {
+                persisted = isTorn || !hasCommit || !isOrdered ? null : new PersonOrders(persons, ordersByName);
+                garbageLineCount = recordLineCount - persons.size();
+                changeCount++;
+            }
+        }
+        return Optional.of(addressBook);
+    }
+
+    private static boolean isStrictlyIncreasing(List<Person> persons, Map<String, Long> ordersByName) {
+        for (int i = 1; i < persons.size(); i++) {
+            if (ordersByName.get(PersonOrders.nameOf(persons.get(i - 1)))
+                    >= ordersByName.get(PersonOrders.nameOf(persons.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the person, tombstone or commit on line {@code lineNumber} of the file.
+     */
+    private static Line readLine(String text, int lineNumber) throws IOException, IllegalValueException {
+        Long order = null;
+        try (JsonParser parser = jsonFactory.createParser(text)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            String fieldName = parser.nextFieldName();
+            if (DELETED_FIELD.equals(fieldName)) {
+                if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                    throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber));
+                }
+                String deletedName = parser.getText();
+                expectEndOfObject(parser);
+                return Line.tombstone(lineNumber, deletedName);
+            }
+            if (COMMIT_FIELD.equals(fieldName)) {
+                if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT
+                        || parser.getNumberType() != JsonParser.NumberType.INT || parser.getIntValue() < 0) {
+                    throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber));
+                }
+                int committedLineCount = parser.getIntValue();
+                expectEndOfObject(parser);
+                return Line.commit(lineNumber, committedLineCount);
+            }
+            if (ORDER_FIELD.equals(fieldName)) {
+                if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT
+                        || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber));
+                }
+                order = parser.getLongValue();
+            }
+        }
+
+        // the order field is skipped as an unknown field of the person
+        try (JsonParser parser = jsonFactory.createParser(text)) {
+            parser.nextToken();
+            return Line.person(lineNumber, JsonPersonCodec.readPerson(parser), order);
+        } catch (IllegalValueException ive) {
+            throw new IllegalValueException(String.format(MESSAGE_INVALID_PERSON, lineNumber, ive.getMessage()), ive);
+        }
+    }
+
+    private static void expectEndOfObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Expected the end of the JSON object");
+        }
+    }
+
+    /**
+     * Applies the persons and tombstones of {@code batch} to {@code personsByName}, and the orders of the persons to
+     * {@code ordersByName}, in order.
+     */
+    private static void applyBatch(List<Line> batch, Map<String, Person> personsByName, Map<String, Long> ordersByName)
+            throws IllegalValueException {
+        for (Line line : batch) {
+            if (line.person != null) {
+                String name = PersonOrders.nameOf(line.person);
+                personsByName.put(name, line.person);
+                if (line.order != null) {
+                    ordersByName.put(name, line.order);
+                } else {
+                    ordersByName.remove(name);
+                }
+            } else if (personsByName.remove(line.deletedName) != null) {
+                ordersByName.remove(line.deletedName);
+            } else {
+                throw new IllegalValueException(String.format(MESSAGE_UNKNOWN_PERSON, line.lineNumber));
+            }
+        }
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * Only saves to the file path of this storage are appended; other file paths receive a full file.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+        if (!filePath.equals(this.filePath)) {
+            writeFile(filePath, PersonOrders.of(persons));
+            return;
+        }
+
+        synchronized (this) {
+            changeCount++;
+            if (persisted == null || !Files.exists(filePath) || !FileUtil.isEmptyOrEndsWithNewline(filePath)) {
+                // a file that does not end with a whole line would have the next line appended to its last line
+                rewrite(persons);
+                return;
+            }
+
+            PersonOrders personOrders = persisted.update(persons);
+            List<String> removedNames = persisted.getRemovedNames(personOrders);
+            List<Person> changedPersons = persisted.getChangedPersons(personOrders);
+            if (removedNames.isEmpty() && changedPersons.isEmpty()) {
+                persisted = personOrders;
+                return;
+            }
+
+            StringWriter lines = new StringWriter();
+            writeLines(lines, removedNames, changedPersons, personOrders);
+            try {
+                FileUtil.appendToFile(filePath, lines.toString().getBytes(StandardCharsets.UTF_8), fsyncPolicy);
+            } catch (IOException ioe) {
+                // The file may now end with a partial batch, so the next save has to rewrite it.
+                persisted = null;
+                throw ioe;
+            }
+            int keptCount = persisted.getPersons().size() - removedNames.size();
+            int replacedCount = changedPersons.size() - (persons.size() - keptCount);
+            persisted = personOrders;
+            // each tombstone is garbage, and so are the lines of the persons it removes or that are replaced
+            garbageLineCount += 2 * removedNames.size() + replacedCount + 1;
+            scheduleCompactionIfNeeded();
+        }
+    }
+
+    /**
+     * Compacts the file in the background if enough of its lines are garbage.
+     */
+    private void scheduleCompactionIfNeeded() {
+        assert Thread.holdsLock(this);
+        if (isCompactionScheduled || garbageLineCount < minCompactionGarbage
+                || garbageLineCount <= persisted.getPersons().size()) {
+            return;
+        }
+        isCompactionScheduled = true;
+        compactor.execute(this::compact);
+    }
+
+    /**
+     * Writes the persisted persons to a new file, and replaces the file with it unless the file was saved to in the
+     * meantime. The new file is written without holding the lock of this storage, so that saves are not held up.
+     * A compaction that is outdated by a save is dropped, and the save schedules another one if still needed.
+     */
+    private void compact() {
+        PersonOrders compactedPersons;
+        long compactedChangeCount;
+        synchronized (this) {
+            isCompactionScheduled = false;
+            if (persisted == null) {
+                // the next save rewrites the file anyway
+                return;
+            }
+            compactedPersons = persisted;
+            compactedChangeCount = changeCount;
+        }
+
+        Path compactedFilePath = filePath.resolveSibling(filePath.getFileName() + COMPACTED_FILE_SUFFIX);
+        try {
+            writeFile(compactedFilePath, compactedPersons);
+            synchronized (this) {
+                if (changeCount != compactedChangeCount) {
+                    logger.fine("Dropping compaction of " + filePath + " as it was saved to in the meantime");
+                    Files.deleteIfExists(compactedFilePath);
+                    return;
+                }
+                int compactedLineCount = garbageLineCount;
+                FileUtil.moveAtomically(compactedFilePath, filePath, fsyncPolicy);
+                // the commit that ends the file
+                garbageLineCount = 1;
+                logger.fine("Compacted " + compactedLineCount + " garbage lines of " + filePath);
+            }
+        } catch (IOException ioe) {
+            logger.warning("Failed to compact JSON Lines file " + filePath + ": " + ioe);
+            try {
+                Files.deleteIfExists(compactedFilePath);
+            } catch (IOException deleteException) {
+                logger.fine("Could not delete " + compactedFilePath + ": " + deleteException);
+            }
+        }
+    }
+
+    /**
+     * Replaces the file with one that only holds {@code persons}.
+     * The new file is written next to it first, so that the file is never left incomplete.
+     */
+    private void rewrite(List<Person> persons) throws IOException {
+        assert Thread.holdsLock(this);
+        persisted = null;
+        PersonOrders personOrders = PersonOrders.of(persons);
+        writeFile(filePath, personOrders);
+        persisted = personOrders;
+        // the commit that ends the file
+        garbageLineCount = 1;
+    }
+
+    private void writeFile(Path filePath, PersonOrders personOrders) throws IOException {
+        FileUtil.writeAtomically(filePath, fsyncPolicy, tempFilePath -> writeLines(
+                Files.newBufferedWriter(tempFilePath, StandardCharsets.UTF_8), Collections.emptyList(),
+                personOrders.getPersons(), personOrders));
+    }
+
+    /**
+     * Writes a batch of a tombstone for each of {@code removedNames}, a line for each of {@code persons} with its
+     * order in {@code personOrders}, and a commit to {@code writer}, and closes it.
+     */
+    private static void writeLines(Writer writer, List<String> removedNames, List<Person> persons,
+            PersonOrders personOrders) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.setRootValueSeparator(null);
+            for (String name : removedNames) {
+                generator.writeStartObject();
+                generator.writeStringField(DELETED_FIELD, name);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            for (Person person : persons) {
+                generator.writeStartObject();
+                generator.writeNumberField(ORDER_FIELD, personOrders.getOrder(person));
+                JsonPersonCodec.writePersonFields(generator, person);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.writeStartObject();
+            generator.writeNumberField(COMMIT_FIELD, removedNames.size() + persons.size());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * A line of the file: a person, a tombstone, or a commit.
+     */
+    private static class Line {
+        private final int lineNumber;
+        /** The person, or null for a tombstone or commit. */
+        private final Person person;
+        /** The order of the person, or null if the line has none or is not a person. */
+        private final Long order;
+        /** The name of the person removed by a tombstone, or null. */
+        private final String deletedName;
+        /** The number of lines committed by a commit, or -1 for other lines. */
+        private final int committedLineCount;
+
+        private Line(int lineNumber, Person person, Long order, String deletedName, int committedLineCount) {
+            this.lineNumber = lineNumber;
+            this.person = person;
+            this.order = order;
+            this.deletedName = deletedName;
+            this.committedLineCount = committedLineCount;
+        }
+
+        static Line person(int lineNumber, Person person, Long order) {
+            return new Line(lineNumber, person, order, null, -1);
+        }
+
+        static Line tombstone(int lineNumber, String deletedName) {
+            return new Line(lineNumber, null, null, deletedName, -1);
+        }
+
+        static Line commit(int lineNumber, int committedLineCount) {
+            return new Line(lineNumber, null, null, null, committedLineCount);
+        }
+    }
+
+}
@@ -0,0 +1,313 @@
+package seedu.address.storage;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.model.person.Address;
+import seedu.address.model.person.Email;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.Phone;
+import seedu.address.model.tag.Tag;
+
+/**
+ * Converts between {@link Person} and JSON directly with the streaming parser and generator.
+ * The JSON is the same as that of {@link JsonAdaptedPerson}, but no adapted objects are created and no fields are
+ * accessed by reflection: persons are built from the tokens as they are read, and written field by field.
+ * Values are validated once, by the constructors of the model objects, and rejected with the same error messages as
+ * by {@link JsonAdaptedPerson#toModelType()}.
+ *
+ * With a {@link TagDictionary}, the tags of a person can instead be written as the ids of the tags in the dictionary,
+ * under {@link #TAG_IDS_FIELD}, and the dictionary is written once as an array of tag names. Persons are read in either
+ * form, and their tags are interned in the dictionary.
+ */
+class JsonPersonCodec {
+
+    static final String NAME_FIELD = "name";
+    static final String PHONE_FIELD = "phone";
+    static final String EMAIL_FIELD = "email";
+    static final String ADDRESS_FIELD = "address";
+    static final String TAGS_FIELD = "tags";
+    static final String TAG_IDS_FIELD = "tagIds";
+
+    private JsonPersonCodec() {}
+
+    /**
+     * Reads the person in the JSON object that starts at the current token of {@code parser}, leaving the parser at
+     * the end of the object. Unknown fields are skipped.
+     *
+     * @throws IllegalValueException if there were any data constraints violated in the person.
+     */
+    static Person readPerson(JsonParser parser) throws IOException, IllegalValueException {
+        return readPerson(parser, new TagDictionary());
+    }
+
+    /**
+     * Similar to {@link #readPerson(JsonParser)}, but the tags of the person are interned in {@code dictionary}, and
+     * may also be given as ids of the tags in it.
+     */
+    static Person readPerson(JsonParser parser, TagDictionary dictionary) throws IOException, IllegalValueException {
+        return readPersonFields(parser, dictionary).toModelType();
+    }
+
+    /**
+     * Similar to {@link #readPerson(JsonParser, TagDictionary)}, but only the tags are validated while reading. The
+     * other fields are validated by {@link PersonFields#toModelType()}, which can be called on any thread.
+     *
+     * @throws IllegalValueException if there were any data constraints violated in the tags of the person.
+     */
+    static PersonFields readPersonFields(JsonParser parser, TagDictionary dictionary)
+            throws IOException, IllegalValueException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for a person");
+        }
+
+        String name = null;
+        String phone = null;
+        String email = null;
+        String address = null;
+        Set<Tag> tags = new HashSet<>();
+        String fieldName;
+        while ((fieldName = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (fieldName) {
+            case NAME_FIELD:
+                name = readString(parser);
+                break;
+            case PHONE_FIELD:
+                phone = readString(parser);
+                break;
+            case EMAIL_FIELD:
+                email = readString(parser);
+                break;
+            case ADDRESS_FIELD:
+                address = readString(parser);
+                break;
+            case TAGS_FIELD:
+                readTags(parser, dictionary, tags);
+                break;
+            case TAG_IDS_FIELD:
+                readTagIds(parser, dictionary, tags);
+                break;
+            default:
+                parser.skipChildren();
+                break;
+            }
+        }
+
+        return new PersonFields(name, phone, email, address, tags);
+    }
+
+    /**
+     * Writes {@code person} to {@code generator} as a JSON object.
+     */
+    static void writePerson(JsonGenerator generator, Person person) throws IOException {
+        generator.writeStartObject();
+        writePersonFields(generator, person);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the fields of {@code person} to {@code generator}, inside a JSON object that has already been started,
+     * so that other fields can be written into the same object.
+     */
+    static void writePersonFields(JsonGenerator generator, Person person) throws IOException {
+        generator.writeStringField(NAME_FIELD, person.getName().fullName);
+        generator.writeStringField(PHONE_FIELD, person.getPhone().value);
+        generator.writeStringField(EMAIL_FIELD, person.getEmail().value);
+        generator.writeStringField(ADDRESS_FIELD, person.getAddress().value);
+        generator.writeArrayFieldStart(TAGS_FIELD);
+        for (Tag tag : person.getTags()) {
+            generator.writeString(tag.tagName);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Similar to {@link #writePerson(JsonGenerator, Person)}, but writes the tags of {@code person} as their ids in
+     * {@code dictionary}, which must contain them. The ids are left out if the person has no tags.
+     */
+    static void writePerson(JsonGenerator generator, Person person, TagDictionary dictionary) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(NAME_FIELD, person.getName().fullName);
+        generator.writeStringField(PHONE_FIELD, person.getPhone().value);
+        generator.writeStringField(EMAIL_FIELD, person.getEmail().value);
+        generator.writeStringField(ADDRESS_FIELD, person.getAddress().value);
+        if (!person.getTags().isEmpty()) {
+            generator.writeArrayFieldStart(TAG_IDS_FIELD);
+            for (Tag tag : person.getTags()) {
+                generator.writeNumber(dictionary.getId(tag));
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Adds the tag names in the JSON array at the current token of {@code parser} to the end of {@code dictionary},
+     * leaving the parser at the end of the array.
+     *
+     * @throws IllegalValueException if a tag name is invalid or repeated.
+     */
+    static void readTagDictionary(JsonParser parser, TagDictionary dictionary)
+            throws IOException, IllegalValueException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array for the tag dictionary");
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String tagName = readString(parser);
+            if (tagName == null) {
+                throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+            }
+            dictionary.add(tagName);
+        }
+    }
+
+    /**
+     * Writes the tags in {@code dictionary} to {@code generator} as a JSON array of tag names, in the order of their
+     * ids.
+     */
+    static void writeTagDictionary(JsonGenerator generator, TagDictionary dictionary) throws IOException {
+        generator.writeStartArray();
+        for (Tag tag : dictionary.getTags()) {
+            generator.writeString(tag.tagName);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Returns the string at the current token of {@code parser}, or null for a JSON null.
+     * Numbers and booleans are read as their text, as data binding would.
+     */
+    private static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string for field " + parser.getCurrentName());
+        }
+        return parser.getText();
+    }
+
+    private static void readTags(JsonParser parser, TagDictionary dictionary, Set<Tag> tags)
+            throws IOException, IllegalValueException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array for field " + TAGS_FIELD);
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String tagName = readString(parser);
+            if (tagName == null) {
+                throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+            }
+            tags.add(dictionary.intern(tagName));
+        }
+    }
+
+    private static void readTagIds(JsonParser parser, TagDictionary dictionary, Set<Tag> tags)
+            throws IOException, IllegalValueException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array for field " + TAG_IDS_FIELD);
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.getCurrentToken() != JsonToken.VALUE_NUMBER_INT) {
+                throw new JsonParseException(parser, "Expected a tag id in field " + TAG_IDS_FIELD);
+            }
+            tags.add(dictionary.get(parser.getIntValue()));
+        }
+    }
+
+    private static Name toName(String name) throws IllegalValueException {
+        if (name == null) {
+            throw missingField(Name.class);
+        }
+        try {
+            return new Name(name);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+    private static Phone toPhone(String phone) throws IllegalValueException {
+        if (phone == null) {
+            throw missingField(Phone.class);
+        }
+        try {
+            return new Phone(phone);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalValueException(Phone.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+    private static Email toEmail(String email) throws IllegalValueException {
+        if (email == null) {
+            throw missingField(Email.class);
+        }
+        try {
+            return new Email(email);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalValueException(Email.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+    private static Address toAddress(String address) throws IllegalValueException {
+        if (address == null) {
+            throw missingField(Address.class);
+        }
+        try {
+            return new Address(address);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalValueException(Address.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+    private static IllegalValueException missingField(Class<?> fieldClass) {
+        return new IllegalValueException(
+                String.format(JsonAdaptedPerson.MISSING_FIELD_MESSAGE_FORMAT, fieldClass.getSimpleName()));
+    }
+
+    /**
+     * The fields of a person as read from JSON, with its tags already validated.
+     */
+    static class PersonFields {
+        private final String name;
+        private final String phone;
+        private final String email;
+        private final String address;
+        private final Set<Tag> tags;
+
+        private PersonFields(String name, String phone, String email, String address, Set<Tag> tags) {
+            this.name = name;
+            this.phone = phone;
+            this.email = email;
+            this.address = address;
+            this.tags = tags;
+        }
+
+        /**
+         * Converts these fields into the model's {@code Person} object.
+         *
+         * @throws IllegalValueException if there were any data constraints violated in the fields.
+         */
+        Person toModelType() throws IllegalValueException {
+            return new Person(toName(name), toPhone(phone), toEmail(email), toAddress(address), tags);
+        }
+    }
+
+}
@@ -1,8 +1,11 @@
 package seedu.address.storage;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -12,6 +15,7 @@ import seedu.address.commons.exceptions.IllegalValueException;
 import seedu.address.model.AddressBook;
 import seedu.address.model.ReadOnlyAddressBook;
 import seedu.address.model.person.Person;
+import seedu.address.model.person.exceptions.DuplicatePersonException;
 
 /**
  * An Immutable AddressBook that is serializable to JSON format.
@@ -20,6 +24,11 @@ import seedu.address.model.person.Person;
 class JsonSerializableAddressBook {
 
     public static final String MESSAGE_DUPLICATE_PERSON = "Persons list contains duplicate person(s).";
+    public static final String MESSAGE_INVALID_PERSON = "Person %d in the persons list is invalid: %s";
+    public static final String PERSONS_FIELD = "persons";
+
+    /** Lists with fewer persons than this are converted on the calling thread, as forking would not pay off. */
+    static final int PARALLEL_CONVERSION_THRESHOLD = 1024;
 
     private final List<JsonAdaptedPerson> persons = new ArrayList<>();
 
@@ -27,7 +36,7 @@ class JsonSerializableAddressBook {
      * Constructs a {@code JsonSerializableAddressBook} with the given persons.
      */
     @JsonCreator
-    public JsonSerializableAddressBook(@JsonProperty("persons") List<JsonAdaptedPerson> persons) {
+    public JsonSerializableAddressBook(@JsonProperty(PERSONS_FIELD) List<JsonAdaptedPerson> persons) {
         this.persons.addAll(persons);
     }
 
@@ -46,15 +55,72 @@ class JsonSerializableAddressBook {
      * @throws IllegalValueException if there were any data constraints violated.
      */
     public AddressBook toModelType() throws IllegalValueException {
+        List<Person> modelPersons = toModelPersons(persons, 1);
+
         AddressBook addressBook = new AddressBook();
-        for (JsonAdaptedPerson jsonAdaptedPerson : persons) {
-            Person person = jsonAdaptedPerson.toModelType();
-            if (addressBook.hasPerson(person)) {
-                throw new IllegalValueException(MESSAGE_DUPLICATE_PERSON);
-            }
-            addressBook.addPerson(person);
+        try {
+            addressBook.setPersons(modelPersons);
+        } catch (DuplicatePersonException dpe) {
+            throw new IllegalValueException(MESSAGE_DUPLICATE_PERSON);
         }
         return addressBook;
     }
 
+    /**
+     * Converts {@code jsonAdaptedPersons} into the model's {@code Person} objects, keeping their order.
+     * Lists of at least {@link #PARALLEL_CONVERSION_THRESHOLD} persons are converted and validated in parallel on the
+     * common fork-join pool. The persons are numbered from {@code firstPersonNumber} in error messages.
+     *
+     * @throws IllegalValueException for the first invalid person in the list, if any.
+     */
+    static List<Person> toModelPersons(List<JsonAdaptedPerson> jsonAdaptedPersons, int firstPersonNumber)
+            throws IllegalValueException {
+        return toModelPersons(jsonAdaptedPersons, JsonAdaptedPerson::toModelType, firstPersonNumber);
+    }
+
+    /**
+     * Similar to {@link #toModelPersons(List, int)}, but converts persons read in any form with {@code converter},
+     * which is called on several threads at once for large lists.
+     */
+    static <T> List<Person> toModelPersons(List<T> readPersons, PersonConverter<? super T> converter,
+            int firstPersonNumber) throws IllegalValueException {
+        int size = readPersons.size();
+        Person[] modelPersons = new Person[size];
+        IllegalValueException[] failures = new IllegalValueException[size];
+        // Persons after the first known failure need not be converted, as only the first failure is reported.
+        AtomicInteger firstFailureIndex = new AtomicInteger(size);
+
+        IntStream indices = IntStream.range(0, size);
+        if (size >= PARALLEL_CONVERSION_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            if (i > firstFailureIndex.get()) {
+                return;
+            }
+            try {
+                modelPersons[i] = converter.toModelType(readPersons.get(i));
+            } catch (IllegalValueException ive) {
+                failures[i] = ive;
+                firstFailureIndex.accumulateAndGet(i, Math::min);
+            }
+        });
+
+        int failureIndex = firstFailureIndex.get();
+        if (failureIndex < size) {
+            IllegalValueException failure = failures[failureIndex];
+            throw new IllegalValueException(String.format(MESSAGE_INVALID_PERSON, firstPersonNumber + failureIndex,
+                    failure.getMessage()), failure);
+        }
+        return Arrays.asList(modelPersons);
+    }
+
+    /**
+     * Converts a person read from JSON into the model's {@code Person} object.
+     */
+    @FunctionalInterface
+    interface PersonConverter<T> {
+        Person toModelType(T readPerson) throws IllegalValueException;
+    }
+
 }
@@ -0,0 +1,897 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+
+/**
+ * An {@code AddressBookStorage} that keeps the address book in a log-structured merge tree, so that the cost of a
+ * save depends on what changed rather than on the size of the address book.
+ *
+ * Each save appends a batch of the persons that were added or changed, and a tombstone for each removed person, to a
+ * write-ahead log, and puts them into an in-memory table sorted by name. Each batch ends with a commit that counts its
+ * entries, and a batch without its commit, as left behind if the app stopped while appending it, is discarded as a
+ * whole. Once the table holds {@code memtableLimit} entries, it is flushed to a new immutable segment file sorted by
+ * name, and a new, empty log is started. Once there are
+ * {@code mergeSegmentCount} segments, they are merged in the background into a single segment, in which a person only
+ * appears in its latest version and removed persons no longer appear at all.
+ *
+ * The file at the address book file path is a manifest that lists the segments from oldest to newest, followed by the
+ * log that holds the entries saved after them. It is only ever replaced as a whole, so that it always lists a complete
+ * set of segments and the log that belongs to them; a log that it no longer lists, such as one left behind if the app
+ * stopped right after a flush or a rewrite, is ignored and deleted. The segments and the logs are kept in a directory
+ * next to it. Every person entry also records the position of the person in the address book, so that
+ * persons are read back in the order in which they were saved.
+ */
+public class LsmAddressBookStorage implements AddressBookStorage {
+
+    public static final String DIRECTORY_SUFFIX = ".lsm";
+    public static final String SEGMENT_FILE_PREFIX = "segment-";
+    public static final String LOG_FILE_PREFIX = "log-";
+
+    public static final String MESSAGE_MALFORMED_LINE = "Line %d of %s is malformed";
+    public static final String MESSAGE_INVALID_PERSON = "Person on line %d of %s is invalid: %s";
+    public static final String MESSAGE_MISSING_SEGMENT = "Segment %s of the address book is missing";
+    public static final String MESSAGE_MALFORMED_MANIFEST = "Address book manifest is malformed at line %d";
+
+    public static final int DEFAULT_MEMTABLE_LIMIT = 4096;
+    public static final int DEFAULT_MERGE_SEGMENT_COUNT = 4;
+
+    static final String ORDER_FIELD = "order";
+    static final String PERSON_FIELD = "person";
+    static final String DELETED_FIELD = "deleted";
+    static final String COMMIT_FIELD = "commit";
+    /** The log of a manifest that does not list one. */
+    static final String DEFAULT_LOG_FILE_NAME = "log";
+
+    private static final Pattern SEGMENT_NAME_PATTERN = Pattern.compile(SEGMENT_FILE_PREFIX + "(\\d+)");
+    private static final Pattern LOG_NAME_PATTERN = Pattern.compile(LOG_FILE_PREFIX + "(\\d+)");
+    private static final long MERGER_KEEP_ALIVE_SECONDS = 30;
+
+    private static final Logger logger = LogsCenter.getLogger(LsmAddressBookStorage.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Path filePath;
+    private final Path directoryPath;
+    private final FsyncPolicy fsyncPolicy;
+    private final int memtableLimit;
+    private final int mergeSegmentCount;
+    private final Executor merger;
+
+    /** Names of the segments listed by the manifest from oldest to newest, or null if the manifest is unknown. */
+    private List<String> segmentNames;
+    /** Path of the log listed by the manifest, or null if the manifest is unknown. */
+    private Path logFilePath;
+    /** Entries saved since the last flush, which are only in the log. */
+    private final TreeMap<String, Entry> memtable = new TreeMap<>();
+    /** Persons as currently persisted, or null if the address book has to be rewritten by the next save. */
+    private PersonOrders persisted;
+    /** An id larger than those of the segments and logs in the directory. */
+    private long nextSegmentId;
+    private boolean isMergeScheduled;
+
+    public LsmAddressBookStorage(Path filePath) {
+        this(filePath, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code LsmAddressBookStorage} for the file at {@code filePath} that forces the entries it logs, and
+     * the segments and manifests it writes, to the storage device as {@code fsyncPolicy} says.
+     */
+    public LsmAddressBookStorage(Path filePath, FsyncPolicy fsyncPolicy) {
+        this(filePath, fsyncPolicy, DEFAULT_MEMTABLE_LIMIT, DEFAULT_MERGE_SEGMENT_COUNT, createMerger());
+    }
+
+    /**
+     * Creates a {@code LsmAddressBookStorage} that flushes its in-memory table once it holds {@code memtableLimit}
+     * entries, and merges its segments on {@code merger} once there are {@code mergeSegmentCount} of them.
+     * {@code memtableLimit} must be positive and {@code mergeSegmentCount} must be at least 2.
+     */
+    LsmAddressBookStorage(Path filePath, FsyncPolicy fsyncPolicy, int memtableLimit, int mergeSegmentCount,
+            Executor merger) {
+        requireNonNull(filePath);
+        requireNonNull(fsyncPolicy);
+        requireNonNull(merger);
+        checkArgument(memtableLimit > 0, "Memtable limit must be positive");
+        checkArgument(mergeSegmentCount > 1, "Merge segment count must be at least 2");
+        this.filePath = filePath;
+        this.directoryPath = getDirectoryPath(filePath);
+        this.fsyncPolicy = fsyncPolicy;
+        this.memtableLimit = memtableLimit;
+        this.mergeSegmentCount = mergeSegmentCount;
+        this.merger = merger;
+    }
+
+    /**
+     * Returns an executor that merges segments one merge at a time on a daemon thread, which stops while it is idle.
+     */
+    private static Executor createMerger() {
+        return new ThreadPoolExecutor(0, 1, MERGER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "AddressBook-merger");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the path of the directory that holds the segments and the log of the address book at
+     * {@code addressBookFilePath}.
+     */
+    public static Path getDirectoryPath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + DIRECTORY_SUFFIX);
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * An incomplete last batch of the log, as left behind if the app stopped while appending it, is discarded, and the
+     * next save to the file path of this storage then rewrites the address book.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        if (!filePath.equals(this.filePath)) {
+            Manifest manifest = readManifest(filePath);
+            TreeMap<String, Entry> loggedEntries = new TreeMap<>();
+            readLog(getDirectoryPath(filePath).resolve(manifest.logName), loggedEntries);
+            return Optional.of(toAddressBook(readEntries(filePath, manifest.segmentNames, loggedEntries)));
+        }
+
+        synchronized (this) {
+            persisted = null;
+            Manifest manifest = readManifest(filePath);
+            Path manifestLogFilePath = directoryPath.resolve(manifest.logName);
+            TreeMap<String, Entry> loggedEntries = new TreeMap<>();
+            boolean isLogTorn = readLog(manifestLogFilePath, loggedEntries);
+            List<Entry> entries = readEntries(filePath, manifest.segmentNames, loggedEntries);
+            AddressBook addressBook = toAddressBook(entries);
+
+            segmentNames = manifest.segmentNames;
+            logFilePath = manifestLogFilePath;
+            memtable.clear();
+            memtable.putAll(loggedEntries);
+            try {
+                nextSegmentId = Math.max(nextSegmentId, nextSegmentIdIn(directoryPath));
+            } catch (IOException ioe) {
+                logger.warning("Error listing segments of " + filePath + ": " + ioe);
+                throw new DataLoadingException(ioe);
+            }
+            deleteUnlistedFiles();
+            if (!isLogTorn) {
+                Map<String, Long> orders = new HashMap<>();
+                for (Entry entry : entries) {
+                    orders.put(entry.key, entry.order);
+                }
+                persisted = new PersonOrders(new ArrayList<>(addressBook.getPersonList()), orders);
+            }
+            scheduleMergeIfNeeded();
+            return Optional.of(addressBook);
+        }
+    }
+
+    /**
+     * Returns the person entries of the address book at {@code filePath}, which consists of the segments named
+     * {@code segmentNames} and the {@code loggedEntries} saved after them, in the order of the persons.
+     */
+    private static List<Entry> readEntries(Path filePath, List<String> segmentNames,
+            Map<String, Entry> loggedEntries) throws DataLoadingException {
+        Path directoryPath = getDirectoryPath(filePath);
+        Map<String, Entry> entries = new HashMap<>();
+        Consumer<Entry> applyEntry = entry -> {
+            if (entry.person == null) {
+                entries.remove(entry.key);
+            } else {
+                entries.put(entry.key, entry);
+            }
+        };
+
+        try {
+            for (String segmentName : segmentNames) {
+                Path segmentPath = directoryPath.resolve(segmentName);
+                if (!Files.exists(segmentPath)) {
+                    throw new IllegalValueException(String.format(MESSAGE_MISSING_SEGMENT, segmentName));
+                }
+                try (SegmentReader reader = new SegmentReader(segmentPath, false)) {
+                    for (Entry entry = reader.next(); entry != null; entry = reader.next()) {
+                        applyEntry.accept(entry);
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            logger.warning("Error reading from segments of " + filePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+        loggedEntries.values().forEach(applyEntry);
+
+        List<Entry> sortedEntries = new ArrayList<>(entries.values());
+        sortedEntries.sort(Comparator.comparingLong(entry -> entry.order));
+        return sortedEntries;
+    }
+
+    private static AddressBook toAddressBook(List<Entry> entries) {
+        List<Person> persons = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            persons.add(entry.person);
+        }
+        AddressBook addressBook = new AddressBook();
+        addressBook.setPersons(persons);
+        return addressBook;
+    }
+
+    /**
+     * Returns the segments and the log listed by the manifest at {@code filePath}.
+     */
+    private static Manifest readManifest(Path filePath) throws DataLoadingException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            logger.warning("Error reading from manifest " + filePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+
+        List<String> segmentNames = new ArrayList<>();
+        String logName = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (logName == null && SEGMENT_NAME_PATTERN.matcher(line).matches()) {
+                segmentNames.add(line);
+            } else if (logName == null && LOG_NAME_PATTERN.matcher(line).matches()) {
+                logName = line;
+            } else {
+                throw new DataLoadingException(new IllegalValueException(
+                        String.format(MESSAGE_MALFORMED_MANIFEST, i + 1)));
+            }
+        }
+        return new Manifest(segmentNames, logName == null ? DEFAULT_LOG_FILE_NAME : logName);
+    }
+
+    /**
+     * Reads the entries of the committed batches of the log at {@code logFilePath}, if any, into
+     * {@code loggedEntries} by their keys.
+     * Returns true if the log has to be replaced before anything is appended to it: if an incomplete last batch was
+     * discarded, or if the log is a {@link #DEFAULT_LOG_FILE_NAME default log} with entries, which was written before
+     * batches were committed and so is read without them.
+     */
+    private static boolean readLog(Path logFilePath, Map<String, Entry> loggedEntries) throws DataLoadingException {
+        if (!Files.exists(logFilePath)) {
+            return false;
+        }
+        boolean isBatched = LOG_NAME_PATTERN.matcher(logFilePath.getFileName().toString()).matches();
+        List<Entry> batch = new ArrayList<>();
+        boolean isTorn = false;
+        try (SegmentReader reader = new SegmentReader(logFilePath, true)) {
+            while (true) {
+                Entry entry;
+                try {
+                    entry = reader.next();
+                } catch (IllegalValueException ive) {
+                    if (reader.isAtLastLine()) {
+                        isTorn = true;
+                        break;
+                    }
+                    logger.info("Illegal values found in " + logFilePath + ": " + ive.getMessage());
+                    throw new DataLoadingException(ive);
+                }
+                if (entry == null) {
+                    break;
+                }
+                if (!entry.isCommit()) {
+                    batch.add(entry);
+                    continue;
+                }
+                if (!isBatched || entry.committedCount != batch.size()) {
+                    throw new DataLoadingException(new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE,
+                            reader.lineNumber, logFilePath.getFileName())));
+                }
+                putAll(loggedEntries, batch);
+                batch.clear();
+            }
+        } catch (IOException ioe) {
+            logger.warning("Error reading from log " + logFilePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+
+        if (!isBatched) {
+            if (isTorn) {
+                logger.warning("Discarding incomplete last entry of log " + logFilePath);
+            }
+            putAll(loggedEntries, batch);
+            return isTorn || !batch.isEmpty();
+        }
+        if (isTorn || !batch.isEmpty()) {
+            logger.warning("Discarding incomplete last batch of log " + logFilePath);
+            return true;
+        }
+        return false;
+    }
+
+    private static void putAll(Map<String, Entry> entriesByKey, List<Entry> entries) {
+        for (Entry entry : entries) {
+            entriesByKey.put(entry.key, entry);
+        }
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * Saves to other file paths write a new address book with all persons in a single segment.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+        if (!filePath.equals(this.filePath)) {
+            Path otherDirectoryPath = getDirectoryPath(filePath);
+            long segmentId = nextSegmentIdIn(otherDirectoryPath);
+            String segmentName = SEGMENT_FILE_PREFIX + segmentId;
+            writeSegment(otherDirectoryPath.resolve(segmentName), toEntries(PersonOrders.of(persons)));
+            // a new log, so that any log already in the directory is not read on top of the segment
+            writeManifest(filePath, List.of(segmentName), LOG_FILE_PREFIX + (segmentId + 1));
+            return;
+        }
+
+        synchronized (this) {
+            if (persisted == null
+                    || Files.exists(logFilePath) && !FileUtil.isEmptyOrEndsWithNewline(logFilePath)) {
+                // a log that does not end with a whole line would have the next entry appended to its last line
+                rewrite(persons);
+                return;
+            }
+
+            PersonOrders personOrders = persisted.update(persons);
+            List<Entry> changes = new ArrayList<>();
+            for (String removedName : persisted.getRemovedNames(personOrders)) {
+                changes.add(Entry.tombstone(removedName));
+            }
+            for (Person changedPerson : persisted.getChangedPersons(personOrders)) {
+                changes.add(new Entry(personOrders.getOrder(changedPerson), changedPerson));
+            }
+            if (changes.isEmpty()) {
+                persisted = personOrders;
+                return;
+            }
+
+            StringWriter lines = new StringWriter();
+            writeBatch(lines, changes);
+            try {
+                Files.createDirectories(directoryPath);
+                FileUtil.appendToFile(logFilePath, lines.toString().getBytes(StandardCharsets.UTF_8), fsyncPolicy);
+            } catch (IOException ioe) {
+                // The log may now end with a partial batch, so the next save has to rewrite the address book.
+                persisted = null;
+                throw ioe;
+            }
+            for (Entry change : changes) {
+                memtable.put(change.key, change);
+            }
+            persisted = personOrders;
+
+            if (memtable.size() >= memtableLimit) {
+                try {
+                    flush();
+                } catch (IOException ioe) {
+                    // The changes are safe in the log, so the flush is retried by the next save.
+                    logger.warning("Failed to flush address book log " + logFilePath + ": " + ioe);
+                }
+            }
+        }
+    }
+
+    private static List<Entry> toEntries(PersonOrders personOrders) {
+        List<Entry> entries = new ArrayList<>(personOrders.getPersons().size());
+        for (Person person : personOrders.getPersons()) {
+            entries.add(new Entry(personOrders.getOrder(person), person));
+        }
+        entries.sort(Comparator.comparing(entry -> entry.key));
+        return entries;
+    }
+
+    /**
+     * Replaces the address book with a single segment of {@code persons} and a new, empty log.
+     */
+    private void rewrite(List<Person> persons) throws IOException {
+        assert Thread.holdsLock(this);
+        persisted = null;
+        if (segmentNames == null) {
+            nextSegmentId = Math.max(nextSegmentId, nextSegmentIdIn(directoryPath));
+        }
+
+        PersonOrders personOrders = PersonOrders.of(persons);
+        String segmentName = SEGMENT_FILE_PREFIX + nextSegmentId++;
+        String logName = LOG_FILE_PREFIX + nextSegmentId++;
+        writeSegment(directoryPath.resolve(segmentName), toEntries(personOrders));
+        writeManifest(filePath, List.of(segmentName), logName);
+        segmentNames = List.of(segmentName);
+        logFilePath = directoryPath.resolve(logName);
+        memtable.clear();
+        deleteUnlistedFiles();
+
+        persisted = personOrders;
+    }
+
+    /**
+     * Writes the in-memory table to a new segment, and empties it and starts a new log.
+     */
+    private void flush() throws IOException {
+        assert Thread.holdsLock(this);
+        String segmentName = SEGMENT_FILE_PREFIX + nextSegmentId++;
+        String logName = LOG_FILE_PREFIX + nextSegmentId++;
+        writeSegment(directoryPath.resolve(segmentName), memtable.values());
+        List<String> newSegmentNames = new ArrayList<>(segmentNames);
+        newSegmentNames.add(segmentName);
+        writeManifest(filePath, newSegmentNames, logName);
+        Path flushedLogFilePath = logFilePath;
+        segmentNames = newSegmentNames;
+        logFilePath = directoryPath.resolve(logName);
+        memtable.clear();
+        deleteQuietly(flushedLogFilePath);
+        logger.fine("Flushed address book log to segment " + segmentName);
+        scheduleMergeIfNeeded();
+    }
+
+    private void scheduleMergeIfNeeded() {
+        assert Thread.holdsLock(this);
+        if (isMergeScheduled || segmentNames.size() < mergeSegmentCount) {
+            return;
+        }
+        isMergeScheduled = true;
+        merger.execute(this::merge);
+    }
+
+    /**
+     * Merges the current segments into a single segment, and lists it in the manifest in their place unless they
+     * were replaced in the meantime.
+     */
+    private void merge() {
+        List<String> mergedSegmentNames;
+        Path mergedSegmentPath;
+        synchronized (this) {
+            mergedSegmentNames = new ArrayList<>(segmentNames);
+            mergedSegmentPath = directoryPath.resolve(SEGMENT_FILE_PREFIX + nextSegmentId++);
+        }
+
+        try {
+            mergeSegments(mergedSegmentNames, mergedSegmentPath);
+        } catch (IOException | IllegalValueException e) {
+            logger.warning("Failed to merge segments of " + filePath + ": " + e);
+            synchronized (this) {
+                isMergeScheduled = false;
+                deleteQuietly(mergedSegmentPath);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            isMergeScheduled = false;
+            if (segmentNames.size() < mergedSegmentNames.size()
+                    || !segmentNames.subList(0, mergedSegmentNames.size()).equals(mergedSegmentNames)) {
+                deleteQuietly(mergedSegmentPath);
+                return;
+            }
+            List<String> newSegmentNames = new ArrayList<>();
+            newSegmentNames.add(mergedSegmentPath.getFileName().toString());
+            newSegmentNames.addAll(segmentNames.subList(mergedSegmentNames.size(), segmentNames.size()));
+            try {
+                writeManifest(filePath, newSegmentNames, logFilePath.getFileName().toString());
+            } catch (IOException ioe) {
+                logger.warning("Failed to list merged segment of " + filePath + ": " + ioe);
+                deleteQuietly(mergedSegmentPath);
+                return;
+            }
+            segmentNames = newSegmentNames;
+            deleteUnlistedFiles();
+            logger.fine("Merged " + mergedSegmentNames.size() + " segments of " + filePath);
+            scheduleMergeIfNeeded();
+        }
+    }
+
+    /**
+     * Merges the segments named {@code mergedSegmentNames}, from oldest to newest, into a new segment at
+     * {@code mergedSegmentPath}. Only the newest entry of each person is kept, and tombstones are dropped, as the
+     * oldest segment is always among those merged.
+     */
+    private void mergeSegments(List<String> mergedSegmentNames, Path mergedSegmentPath)
+            throws IOException, IllegalValueException {
+        // segments are ordered by the key of their next entry, and newer segments come first for the same key
+        PriorityQueue<SegmentReader> readers = new PriorityQueue<>(
+                Comparator.<SegmentReader, String>comparing(reader -> reader.current.key)
+                        .thenComparingInt(reader -> reader.age));
+        List<SegmentReader> openReaders = new ArrayList<>();
+        try (JsonGenerator generator = createGenerator(Files.newBufferedWriter(mergedSegmentPath,
+                StandardCharsets.UTF_8))) {
+            for (int i = 0; i < mergedSegmentNames.size(); i++) {
+                SegmentReader reader = new SegmentReader(directoryPath.resolve(mergedSegmentNames.get(i)), false);
+                openReaders.add(reader);
+                reader.age = mergedSegmentNames.size() - i;
+                if (reader.advance()) {
+                    readers.add(reader);
+                }
+            }
+
+            while (!readers.isEmpty()) {
+                SegmentReader newest = readers.poll();
+                Entry entry = newest.current;
+                if (entry.person != null) {
+                    writeEntry(generator, entry);
+                }
+                if (newest.advance()) {
+                    readers.add(newest);
+                }
+                while (!readers.isEmpty() && readers.peek().current.key.equals(entry.key)) {
+                    SegmentReader older = readers.poll();
+                    if (older.advance()) {
+                        readers.add(older);
+                    }
+                }
+            }
+        } finally {
+            for (SegmentReader reader : openReaders) {
+                reader.close();
+            }
+        }
+        FileUtil.syncWholeFile(mergedSegmentPath, fsyncPolicy);
+    }
+
+    /**
+     * Deletes the segments and logs in the directory that are not listed by the manifest, such as segments that were
+     * merged, logs that were flushed, or either left behind if the app stopped before the manifest was replaced.
+     * No segment is deleted while a merge may be writing its segment.
+     */
+    private void deleteUnlistedFiles() {
+        assert Thread.holdsLock(this);
+        if (!Files.isDirectory(directoryPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directoryPath)) {
+            for (Path path : paths) {
+                String name = path.getFileName().toString();
+                boolean isUnlistedSegment = !isMergeScheduled && SEGMENT_NAME_PATTERN.matcher(name).matches()
+                        && !segmentNames.contains(name);
+                boolean isUnlistedLog = (LOG_NAME_PATTERN.matcher(name).matches()
+                        || name.equals(DEFAULT_LOG_FILE_NAME)) && !path.equals(logFilePath);
+                if (isUnlistedSegment || isUnlistedLog) {
+                    deleteQuietly(path);
+                }
+            }
+        } catch (IOException ioe) {
+            logger.warning("Failed to list segments of " + filePath + ": " + ioe);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ioe) {
+            logger.warning("Failed to delete " + path + ": " + ioe);
+        }
+    }
+
+    /**
+     * Returns an id that is larger than those of the segments and logs in {@code directoryPath}.
+     */
+    private static long nextSegmentIdIn(Path directoryPath) throws IOException {
+        long nextId = 1;
+        if (!Files.isDirectory(directoryPath)) {
+            return nextId;
+        }
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directoryPath)) {
+            for (Path path : paths) {
+                String name = path.getFileName().toString();
+                Matcher matcher = SEGMENT_NAME_PATTERN.matcher(name);
+                if (!matcher.matches()) {
+                    matcher = LOG_NAME_PATTERN.matcher(name);
+                }
+                if (matcher.matches()) {
+                    nextId = Math.max(nextId, Long.parseLong(matcher.group(1)) + 1);
+                }
+            }
+        }
+        return nextId;
+    }
+
+    /**
+     * Replaces the manifest at {@code filePath} with one that lists {@code segmentNames} and the log named
+     * {@code logName}.
+     */
+    private void writeManifest(Path filePath, List<String> segmentNames, String logName) throws IOException {
+        List<String> lines = new ArrayList<>(segmentNames);
+        lines.add(logName);
+        FileUtil.writeAtomically(filePath, fsyncPolicy,
+                tempFilePath -> Files.write(tempFilePath, lines, StandardCharsets.UTF_8));
+    }
+
+    private void writeSegment(Path segmentPath, Collection<Entry> entries) throws IOException {
+        Files.createDirectories(segmentPath.getParent());
+        writeEntries(Files.newBufferedWriter(segmentPath, StandardCharsets.UTF_8), entries);
+        // a segment has to be on the storage device before the manifest that lists it
+        FileUtil.syncWholeFile(segmentPath, fsyncPolicy);
+    }
+
+    /**
+     * Writes {@code entries} to {@code writer}, one per line, and closes it.
+     */
+    private static void writeEntries(Writer writer, Collection<Entry> entries) throws IOException {
+        try (JsonGenerator generator = createGenerator(writer)) {
+            for (Entry entry : entries) {
+                writeEntry(generator, entry);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code entries} to {@code writer} as a batch of the log, one per line followed by a commit, and closes it.
+     */
+    private static void writeBatch(Writer writer, Collection<Entry> entries) throws IOException {
+        try (JsonGenerator generator = createGenerator(writer)) {
+            for (Entry entry : entries) {
+                writeEntry(generator, entry);
+            }
+            generator.writeStartObject();
+            generator.writeNumberField(COMMIT_FIELD, entries.size());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static JsonGenerator createGenerator(Writer writer) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static void writeEntry(JsonGenerator generator, Entry entry) throws IOException {
+        generator.writeStartObject();
+        if (entry.person == null) {
+            generator.writeStringField(DELETED_FIELD, entry.key);
+        } else {
+            generator.writeNumberField(ORDER_FIELD, entry.order);
+            generator.writeFieldName(PERSON_FIELD);
+            JsonPersonCodec.writePerson(generator, entry.person);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * A person at a position of the address book, or a tombstone that removes the person of a name.
+     * The log also has commits, which end a batch of entries.
+     */
+    static class Entry {
+        /** The name of the person, by which entries are sorted, or null for a commit. */
+        final String key;
+        final long order;
+        /** The person, or null for a tombstone or a commit. */
+        final Person person;
+        /** The number of entries in the batch ended by a commit. */
+        final int committedCount;
+
+        Entry(long order, Person person) {
+            this(PersonOrders.nameOf(person), order, person, 0);
+        }
+
+        private Entry(String key, long order, Person person, int committedCount) {
+            this.key = key;
+            this.order = order;
+            this.person = person;
+            this.committedCount = committedCount;
+        }
+
+        static Entry tombstone(String key) {
+            return new Entry(key, 0, null, 0);
+        }
+
+        static Entry commit(int committedCount) {
+            return new Entry(null, 0, null, committedCount);
+        }
+
+        boolean isCommit() {
+            return key == null;
+        }
+    }
+
+    /**
+     * The segments and the log listed by a manifest.
+     */
+    private static class Manifest {
+        /** Names of the segments from oldest to newest. */
+        private final List<String> segmentNames;
+        private final String logName;
+
+        Manifest(List<String> segmentNames, String logName) {
+            this.segmentNames = segmentNames;
+            this.logName = logName;
+        }
+    }
+
+    /**
+     * Reads the entries of a segment or of the log one line at a time.
+     */
+    private static class SegmentReader implements AutoCloseable {
+        private final Path path;
+        /** Whether commits are read, which only the log has. */
+        private final boolean isLog;
+        private final BufferedReader reader;
+        private String nextLine;
+        private int lineNumber;
+        /** The entry read by the last call to {@link #advance()}. */
+        private Entry current;
+        /** How many segments newer segments are merged with this one; larger for older segments. */
+        private int age;
+
+        SegmentReader(Path path, boolean isLog) throws IOException {
+            this.path = path;
+            this.isLog = isLog;
+            this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+            this.nextLine = reader.readLine();
+        }
+
+        /**
+         * Returns the next entry, or null if there are no more entries.
+         */
+        Entry next() throws IOException, IllegalValueException {
+            while (nextLine != null) {
+                String line = nextLine;
+                nextLine = reader.readLine();
+                lineNumber++;
+                if (!line.isBlank()) {
+                    return readEntry(line);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reads the next entry into {@link #current}, and returns false if there are no more entries.
+         */
+        boolean advance() throws IOException, IllegalValueException {
+            current = next();
+            return current != null;
+        }
+
+        /**
+         * Returns true if the last line read is the last line of the file.
+         */
+        boolean isAtLastLine() {
+            return nextLine == null;
+        }
+
+        private Entry readEntry(String line) throws IOException, IllegalValueException {
+            String fileName = path.getFileName().toString();
+            try (JsonParser parser = jsonFactory.createParser(line)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected a JSON object");
+                }
+                Long order = null;
+                Person person = null;
+                String deletedKey = null;
+                Integer committedCount = null;
+                String fieldName;
+                while ((fieldName = parser.nextFieldName()) != null) {
+                    JsonToken token = parser.nextToken();
+                    switch (fieldName) {
+                    case COMMIT_FIELD:
+                        if (!isLog || token != JsonToken.VALUE_NUMBER_INT) {
+                            throw new JsonParseException(parser, "Unexpected field " + COMMIT_FIELD);
+                        }
+                        committedCount = parser.getIntValue();
+                        break;
+                    case ORDER_FIELD:
+                        if (token != JsonToken.VALUE_NUMBER_INT) {
+                            throw new JsonParseException(parser, "Expected a number for field " + ORDER_FIELD);
+                        }
+                        order = parser.getLongValue();
+                        break;
+                    case PERSON_FIELD:
+                        try {
+                            person = JsonPersonCodec.readPerson(parser);
+                        } catch (IllegalValueException ive) {
+                            throw new IllegalValueException(String.format(MESSAGE_INVALID_PERSON, lineNumber,
+                                    fileName, ive.getMessage()), ive);
+                        }
+                        break;
+                    case DELETED_FIELD:
+                        if (token != JsonToken.VALUE_STRING) {
+                            throw new JsonParseException(parser, "Expected a string for field " + DELETED_FIELD);
+                        }
+                        deletedKey = parser.getText();
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                    }
+                }
+                if (committedCount != null) {
+                    if (order == null && person == null && deletedKey == null) {
+                        return Entry.commit(committedCount);
+                    }
+                } else if (deletedKey != null && person == null) {
+                    return Entry.tombstone(deletedKey);
+                } else if (order != null && person != null && deletedKey == null) {
+                    return new Entry(order, person);
+                }
+            } catch (JsonParseException jpe) {
+                // reported below as a malformed line
+            }
+            throw new IllegalValueException(String.format(MESSAGE_MALFORMED_LINE, lineNumber, fileName));
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+}
@@ -0,0 +1,353 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+
+/**
+ * An index of the persons in a binary address book file, kept in a separate file next to it.
+ * It allows persons to be looked up by their name, phone or email by seeking into the data file, without loading the
+ * whole address book.
+ *
+ * For each {@link Key}, the index file holds an entry per person made of a 64-bit hash of the person's normalized key
+ * and the offset of the person's record in the data file. The entries are sorted by hash so that they can be binary
+ * searched in place. The index file also stores the checksum of the footer of the data file it was written for, which
+ * changes with the content of every record of the data file, and is not used with any other data file.
+ *
+ * Large files are memory-mapped so that lookups only read the pages they need. As a mapped file cannot be replaced on
+ * some platforms, such as Windows, an index should be closed before the address book is saved again.
+ */
+public class PersonIndex implements AutoCloseable {
+
+    public static final String INDEX_FILE_SUFFIX = ".index";
+    /** The bytes "ABKI" that identify a person index file. */
+    public static final int INDEX_MAGIC = 0x41424B49;
+    /** Version 1 indexes were bound to footers that only changed with the offsets of the records. */
+    public static final int INDEX_VERSION = 2;
+
+    public static final String MESSAGE_CLOSED = "The person index has been closed.";
+
+    private static final Logger logger = LogsCenter.getLogger(PersonIndex.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The magic number, the version and the checksum of the footer of the data file. */
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    /** The hash of the normalized key and the record offset. */
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The fields by which persons can be looked up.
+     */
+    public enum Key {
+        /** Names are compared ignoring case and extra spaces. */
+        NAME(person -> person.getName().fullName),
+        /** Phone numbers are compared by their digits only. */
+        PHONE(person -> person.getPhone().value),
+        /** Emails are compared ignoring case. */
+        EMAIL(person -> person.getEmail().value);
+
+        private final Function<Person, String> getter;
+
+        Key(Function<Person, String> getter) {
+            this.getter = getter;
+        }
+
+        /**
+         * Returns the normalized value of this key of {@code person}.
+         */
+        public String of(Person person) {
+            return normalize(getter.apply(person));
+        }
+
+        /**
+         * Returns the normalized form of {@code value}, under which values of this key are indexed and compared.
+         */
+        public String normalize(String value) {
+            switch (this) {
+            case NAME:
+                return collapseSpaces(value).toLowerCase(Locale.ROOT);
+            case PHONE:
+                return keepDigits(value);
+            default:
+                return value.trim().toLowerCase(Locale.ROOT);
+            }
+        }
+    }
+
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+    private final List<Tag> tags;
+    /** The offset of the first entry and the number of entries in the index file, for each key. */
+    private final int[] entriesOffsets;
+    private final int[] entryCounts;
+    private boolean isClosed;
+
+    private PersonIndex(ByteBuffer data, ByteBuffer index, List<Tag> tags, int[] entriesOffsets, int[] entryCounts) {
+        this.data = data;
+        this.index = index;
+        this.tags = tags;
+        this.entriesOffsets = entriesOffsets;
+        this.entryCounts = entryCounts;
+    }
+
+    /**
+     * Returns the path of the index kept for the binary address book at {@code addressBookFilePath}.
+     */
+    public static Path getIndexFilePath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * Opens the index of the binary address book at {@code addressBookFilePath}.
+     * Returns {@code Optional.empty()} if either file is missing, or if the index was not written for the current
+     * content of the address book file.
+     *
+     * @throws DataLoadingException if the files could not be read.
+     */
+    public static Optional<PersonIndex> open(Path addressBookFilePath) throws DataLoadingException {
+        return open(addressBookFilePath, BinaryAddressBookStorage.DEFAULT_MEMORY_MAP_THRESHOLD);
+    }
+
+    /**
+     * Opens the index of the binary address book at {@code addressBookFilePath}, memory-mapping files of at least
+     * {@code memoryMapThreshold} bytes.
+     *
+     * @see #open(Path)
+     */
+    static Optional<PersonIndex> open(Path addressBookFilePath, long memoryMapThreshold) throws DataLoadingException {
+        requireNonNull(addressBookFilePath);
+
+        Path indexFilePath = getIndexFilePath(addressBookFilePath);
+        if (!Files.exists(addressBookFilePath) || !Files.exists(indexFilePath)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer data = null;
+        ByteBuffer index = null;
+        boolean isOpened = false;
+
+        try (FileChannel dataChannel = FileChannel.open(addressBookFilePath, StandardOpenOption.READ);
+                FileChannel indexChannel = FileChannel.open(indexFilePath, StandardOpenOption.READ)) {
+            data = BinaryAddressBookStorage.readFully(dataChannel, memoryMapThreshold);
+            index = BinaryAddressBookStorage.readFully(indexChannel, memoryMapThreshold);
+            if (BinaryAddressBookStorage.readFormatVersion(data) != BinaryAddressBookStorage.FORMAT_VERSION
+                    || !isIndexOf(index, data)) {
+                logger.info("Ignoring index " + indexFilePath + " as it does not belong to " + addressBookFilePath);
+                return Optional.empty();
+            }
+
+            List<Tag> tags = BinaryAddressBookStorage.readTagDictionary(data, data.position());
+            Key[] keys = Key.values();
+            int[] entriesOffsets = new int[keys.length];
+            int[] entryCounts = new int[keys.length];
+            int offset = HEADER_BYTES;
+            for (int i = 0; i < keys.length; i++) {
+                if (index.limit() - offset < Integer.BYTES) {
+                    throw new IllegalValueException(BinaryAddressBookStorage.MESSAGE_CORRUPT_DATA);
+                }
+                entryCounts[i] = index.getInt(offset);
+                entriesOffsets[i] = offset + Integer.BYTES;
+                if (entryCounts[i] < 0 || entryCounts[i] > (index.limit() - entriesOffsets[i]) / ENTRY_BYTES) {
+                    throw new IllegalValueException(BinaryAddressBookStorage.MESSAGE_CORRUPT_DATA);
+                }
+                offset = entriesOffsets[i] + entryCounts[i] * ENTRY_BYTES;
+            }
+            isOpened = true;
+            return Optional.of(new PersonIndex(data, index, tags, entriesOffsets, entryCounts));
+        } catch (IOException ioe) {
+            logger.warning("Error reading index " + indexFilePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + indexFilePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        } finally {
+            if (!isOpened) {
+                unmap(data, index);
+            }
+        }
+    }
+
+    private static boolean isIndexOf(ByteBuffer index, ByteBuffer data) {
+        Optional<Integer> footerChecksum = BinaryAddressBookStorage.readFooterChecksum(data);
+        return footerChecksum.isPresent()
+                && index.limit() >= HEADER_BYTES
+                && index.getInt(0) == INDEX_MAGIC
+                && index.getInt(Integer.BYTES) == INDEX_VERSION
+                && index.getInt(2 * Integer.BYTES) == footerChecksum.get();
+    }
+
+    /**
+     * Returns the persons whose {@code key} matches {@code value} after normalization.
+     * Persons whose records turn out to be corrupt are left out.
+     *
+     * @throws IllegalStateException if this index has been closed.
+     */
+    public List<Person> find(Key key, String value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        if (isClosed) {
+            throw new IllegalStateException(MESSAGE_CLOSED);
+        }
+
+        String normalizedValue = key.normalize(value);
+        long hash = hash(normalizedValue);
+        int entriesOffset = entriesOffsets[key.ordinal()];
+        int entryCount = entryCounts[key.ordinal()];
+
+        // Finds the first entry whose hash is not less than the hash of the value.
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getLong(entriesOffset + middle * ENTRY_BYTES) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = low; i < entryCount && index.getLong(entriesOffset + i * ENTRY_BYTES) == hash; i++) {
+            int recordOffset = index.getInt(entriesOffset + i * ENTRY_BYTES + Long.BYTES);
+            BinaryAddressBookStorage.readPersonRecord(data, recordOffset, tags)
+                    .filter(person -> key.of(person).equals(normalizedValue))
+                    .ifPresent(persons::add);
+        }
+        return persons;
+    }
+
+    /**
+     * Returns true if some person's {@code key} matches {@code value} after normalization.
+     */
+    public boolean contains(Key key, String value) {
+        return !find(key, value).isEmpty();
+    }
+
+    /**
+     * Releases the memory mappings of the files of this index, after which it can no longer be used.
+     * Closing an index that is already closed has no effect.
+     */
+    @Override
+    public void close() {
+        if (!isClosed) {
+            isClosed = true;
+            unmap(data, index);
+        }
+    }
+
+    private static void unmap(ByteBuffer data, ByteBuffer index) {
+        if (data != null) {
+            BinaryAddressBookStorage.unmap(data);
+        }
+        if (index != null) {
+            BinaryAddressBookStorage.unmap(index);
+        }
+    }
+
+    /**
+     * Writes the index of a binary address book file to {@code indexFilePath}.
+     *
+     * @param persons the persons in the address book file.
+     * @param recordOffsets the offsets of the records of {@code persons} in the address book file.
+     * @param footerChecksum the checksum of the footer of the address book file.
+     * @param fsyncPolicy when the index is forced to the storage device.
+     */
+    static void write(Path indexFilePath, List<Person> persons, int[] recordOffsets, int footerChecksum,
+            FsyncPolicy fsyncPolicy) throws IOException {
+        FileUtil.writeAtomically(indexFilePath, fsyncPolicy, tempFilePath -> writeIndex(tempFilePath, persons,
+                recordOffsets, footerChecksum));
+    }
+
+    private static void writeIndex(Path indexFilePath, List<Person> persons, int[] recordOffsets, int footerChecksum)
+            throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(indexFilePath), BUFFER_SIZE))) {
+            output.writeInt(INDEX_MAGIC);
+            output.writeInt(INDEX_VERSION);
+            output.writeInt(footerChecksum);
+
+            long[] hashes = new long[persons.size()];
+            Integer[] order = new Integer[persons.size()];
+            for (Key key : Key.values()) {
+                for (int i = 0; i < persons.size(); i++) {
+                    hashes[i] = hash(key.of(persons.get(i)));
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingLong(i -> hashes[i]));
+
+                output.writeInt(persons.size());
+                for (int i : order) {
+                    output.writeLong(hashes[i]);
+                    output.writeInt(recordOffsets[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the characters of {@code value}.
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns {@code value} without leading and trailing spaces, and with every run of spaces inside replaced by one.
+     */
+    private static String collapseSpaces(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ') {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.toString();
+    }
+
+    private static String keepDigits(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+}
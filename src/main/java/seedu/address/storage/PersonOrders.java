@@ -0,0 +1,153 @@
+package seedu.address.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import seedu.address.model.person.Person;
+
+/**
+ * The persons of an address book as persisted by a storage that saves each person separately, together with an order
+ * for each person that gives its position in the address book.
+ * Orders are spread out, so that a person can be added or edited without changing the orders of the other persons,
+ * and the storage then only has to save the persons that changed.
+ */
+class PersonOrders {
+
+    /** The difference between the orders of persons that are added one after another. */
+    static final long ORDER_GAP = 1L << 20;
+
+    private final List<Person> persons;
+    /** Orders of the persons, by their names. */
+    private final Map<String, Long> orders;
+
+    /**
+     * Creates a {@code PersonOrders} of {@code persons}, which must be in the order of {@code orders}.
+     */
+    PersonOrders(List<Person> persons, Map<String, Long> orders) {
+        this.persons = persons;
+        this.orders = orders;
+    }
+
+    /**
+     * Returns a {@code PersonOrders} of {@code persons} with orders that are evenly spread out.
+     */
+    static PersonOrders of(List<Person> persons) {
+        Map<String, Long> orders = new HashMap<>();
+        for (int i = 0; i < persons.size(); i++) {
+            orders.put(nameOf(persons.get(i)), (i + 1) * ORDER_GAP);
+        }
+        return new PersonOrders(persons, orders);
+    }
+
+    List<Person> getPersons() {
+        return persons;
+    }
+
+    /**
+     * Returns the order of {@code person}, which must be one of the persons.
+     */
+    long getOrder(Person person) {
+        return orders.get(nameOf(person));
+    }
+
+    /**
+     * Returns a {@code PersonOrders} of {@code newPersons} that keeps the orders of these persons.
+     * An added person takes over the order of a removed person in the same place, as an edited person does, or
+     * else gets an order between those of its neighbours. If the persons were reordered, or there is no order left
+     * between two neighbours, all persons get new orders.
+     */
+    PersonOrders update(List<Person> newPersons) {
+        Map<String, Long> newOrders = new HashMap<>();
+        if (!assignOrders(newPersons, newOrders)) {
+            return of(newPersons);
+        }
+        return new PersonOrders(newPersons, newOrders);
+    }
+
+    private boolean assignOrders(List<Person> newPersons, Map<String, Long> newOrders) {
+        Set<Person> personSet = new HashSet<>(persons);
+        Set<Person> newPersonSet = new HashSet<>(newPersons);
+        long lastOrder = 0;
+        int index = 0;
+        int newIndex = 0;
+        while (true) {
+            List<Long> freedOrders = new ArrayList<>();
+            while (index < persons.size() && !newPersonSet.contains(persons.get(index))) {
+                freedOrders.add(getOrder(persons.get(index)));
+                index++;
+            }
+            int addedEnd = newIndex;
+            while (addedEnd < newPersons.size() && !personSet.contains(newPersons.get(addedEnd))) {
+                addedEnd++;
+            }
+
+            // the next person that is in both lists, whose order is kept
+            boolean hasKeptPerson = index < persons.size();
+            long keptOrder = hasKeptPerson ? getOrder(persons.get(index)) : Long.MAX_VALUE;
+            for (int i = newIndex; i < addedEnd; i++) {
+                int freedIndex = i - newIndex;
+                long order;
+                if (freedIndex < freedOrders.size()) {
+                    order = freedOrders.get(freedIndex);
+                } else if (!hasKeptPerson) {
+                    order = lastOrder + ORDER_GAP;
+                } else {
+                    order = lastOrder + (keptOrder - lastOrder) / (addedEnd - i + 1);
+                    if (order <= lastOrder) {
+                        return false;
+                    }
+                }
+                newOrders.put(nameOf(newPersons.get(i)), order);
+                lastOrder = order;
+            }
+            newIndex = addedEnd;
+
+            if (!hasKeptPerson) {
+                return newIndex == newPersons.size();
+            }
+            if (newIndex == newPersons.size() || !newPersons.get(newIndex).equals(persons.get(index))) {
+                return false;
+            }
+            newOrders.put(nameOf(newPersons.get(newIndex)), keptOrder);
+            lastOrder = keptOrder;
+            index++;
+            newIndex++;
+        }
+    }
+
+    /**
+     * Returns the names of the persons that are not in {@code newer}.
+     */
+    List<String> getRemovedNames(PersonOrders newer) {
+        List<String> removedNames = new ArrayList<>();
+        for (Person person : persons) {
+            if (!newer.orders.containsKey(nameOf(person))) {
+                removedNames.add(nameOf(person));
+            }
+        }
+        return removedNames;
+    }
+
+    /**
+     * Returns the persons of {@code newer} that are not among these persons, or whose order changed.
+     */
+    List<Person> getChangedPersons(PersonOrders newer) {
+        Set<Person> personSet = new HashSet<>(persons);
+        List<Person> changedPersons = new ArrayList<>();
+        for (Person person : newer.persons) {
+            if (!personSet.contains(person) || getOrder(person) != newer.getOrder(person)) {
+                changedPersons.add(person);
+            }
+        }
+        return changedPersons;
+    }
+
+    static String nameOf(Person person) {
+        return person.getName().fullName;
+    }
+
+}
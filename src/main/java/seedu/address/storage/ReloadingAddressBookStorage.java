@@ -0,0 +1,273 @@
+package seedu.address.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+
+/**
+ * An {@code AddressBookStorage} that watches the data file of another {@code AddressBookStorage} for changes made to
+ * it outside the app, and reports the persons removed and added by each change to a {@link ChangeListener}.
+ *
+ * The persons last read from or saved to the data file are kept, and a change is found by looking up the persons of
+ * the changed file among them. Persons are looked up by their hash codes, which cover all their fields, so finding a
+ * change costs a read of the file but no comparison of every pair of persons. Saves made through this storage are
+ * not reported as changes, and the file is not read again while its size and modification time are those left by
+ * the last save.
+ */
+public class ReloadingAddressBookStorage implements AddressBookStorage {
+
+    /** How long the watcher waits for the events of a change to stop before reading the file. */
+    private static final long SETTLE_MILLIS = 100;
+
+    private static final Logger logger = LogsCenter.getLogger(ReloadingAddressBookStorage.class);
+
+    /**
+     * Receives the changes made to the data file outside the app.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * Called on the watcher thread with the persons removed from and added to the data file by a change.
+         * A person whose data was edited is both removed and added.
+         */
+        void onChange(List<Person> removedPersons, List<Person> addedPersons);
+    }
+
+    private final AddressBookStorage addressBookStorage;
+
+    // The fields below are shared with the watcher thread and guarded by this ReloadingAddressBookStorage.
+    private Set<Person> knownPersons = new LinkedHashSet<>();
+    private FileTime savedFileModifiedTime;
+    private long savedFileSize;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    /**
+     * Creates a {@code ReloadingAddressBookStorage} that watches the data file of {@code addressBookStorage}.
+     */
+    public ReloadingAddressBookStorage(AddressBookStorage addressBookStorage) {
+        requireNonNull(addressBookStorage);
+        this.addressBookStorage = addressBookStorage;
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return addressBookStorage.getAddressBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(getAddressBookFilePath());
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+        if (!filePath.equals(getAddressBookFilePath())) {
+            return addressBookStorage.readAddressBook(filePath);
+        }
+
+        synchronized (this) {
+            Optional<ReadOnlyAddressBook> addressBook = addressBookStorage.readAddressBook(filePath);
+            addressBook.ifPresent(data -> knownPersons = new LinkedHashSet<>(data.getPersonList()));
+            return addressBook;
+        }
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, getAddressBookFilePath());
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+        if (!filePath.equals(getAddressBookFilePath())) {
+            addressBookStorage.saveAddressBook(addressBook, filePath);
+            return;
+        }
+
+        synchronized (this) {
+            savedFileModifiedTime = null;
+            addressBookStorage.saveAddressBook(addressBook, filePath);
+            knownPersons = new LinkedHashSet<>(addressBook.getPersonList());
+            recordSavedFileState();
+        }
+    }
+
+    /**
+     * Starts watching the data file on a background thread, reporting the changes made to it to {@code listener}.
+     *
+     * @throws IOException if the directory of the data file could not be watched.
+     */
+    public synchronized void startWatching(ChangeListener listener) throws IOException {
+        requireNonNull(listener);
+        if (watchService != null) {
+            throw new IllegalStateException("Already watching " + getAddressBookFilePath());
+        }
+
+        Path directoryPath = getAddressBookFilePath().toAbsolutePath().getParent();
+        Files.createDirectories(directoryPath);
+        WatchService newWatchService = directoryPath.getFileSystem().newWatchService();
+        try {
+            directoryPath.register(newWatchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException ioe) {
+            newWatchService.close();
+            throw ioe;
+        }
+
+        watchService = newWatchService;
+        watcherThread = new Thread(() -> watch(newWatchService, listener), "AddressBook-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Watching data file " + getAddressBookFilePath() + " for external changes");
+    }
+
+    /**
+     * Stops watching the data file. Does nothing if it is not being watched.
+     */
+    public void stopWatching() {
+        Thread stoppedThread;
+        synchronized (this) {
+            if (watchService == null) {
+                return;
+            }
+            try {
+                watchService.close();
+            } catch (IOException ioe) {
+                logger.warning("Failed to stop watching data file: " + ioe);
+            }
+            watchService = null;
+            stoppedThread = watcherThread;
+            watcherThread = null;
+        }
+        stoppedThread.interrupt();
+    }
+
+    /**
+     * Waits for events in the directory of the data file and checks the file for changes after each burst of events
+     * that involves it, until {@code watchService} is closed.
+     */
+    private void watch(WatchService watchService, ChangeListener listener) {
+        Path fileName = getAddressBookFilePath().getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean isFileChanged = false;
+                // Writes to the file often come as several events, so the file is only read once they have stopped.
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        isFileChanged |= event.kind() == OVERFLOW || fileName.equals(event.context());
+                    }
+                    if (!key.reset()) {
+                        logger.warning("Stopped watching data file as its directory is no longer accessible");
+                        return;
+                    }
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (isFileChanged) {
+                    checkForChanges(listener);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.fine("Stopped watching data file");
+        }
+    }
+
+    /**
+     * Reads the data file and reports the persons removed and added since it was last read or saved to
+     * {@code listener}, if there are any. A file that cannot be loaded, e.g. because it is still being written, is
+     * left to the next check.
+     */
+    void checkForChanges(ChangeListener listener) {
+        List<Person> removedPersons = new ArrayList<>();
+        List<Person> addedPersons = new ArrayList<>();
+        synchronized (this) {
+            if (isSavedFileState()) {
+                return;
+            }
+
+            Optional<ReadOnlyAddressBook> addressBook;
+            try {
+                addressBook = addressBookStorage.readAddressBook();
+            } catch (DataLoadingException dle) {
+                logger.info("Ignoring change to data file that could not be loaded: " + dle.getMessage());
+                return;
+            }
+            if (!addressBook.isPresent()) {
+                return;
+            }
+
+            Set<Person> persons = new LinkedHashSet<>(addressBook.get().getPersonList());
+            for (Person person : persons) {
+                if (!knownPersons.contains(person)) {
+                    addedPersons.add(person);
+                }
+            }
+            for (Person person : knownPersons) {
+                if (!persons.contains(person)) {
+                    removedPersons.add(person);
+                }
+            }
+            knownPersons = persons;
+        }
+
+        if (removedPersons.isEmpty() && addedPersons.isEmpty()) {
+            return;
+        }
+        logger.info("Data file changed externally: " + removedPersons.size() + " persons removed, "
+                + addedPersons.size() + " persons added");
+        listener.onChange(removedPersons, addedPersons);
+    }
+
+    private void recordSavedFileState() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(getAddressBookFilePath(), BasicFileAttributes.class);
+            savedFileModifiedTime = attributes.lastModifiedTime();
+            savedFileSize = attributes.size();
+        } catch (IOException ioe) {
+            savedFileModifiedTime = null;
+        }
+    }
+
+    /**
+     * Returns true if the data file still has the size and modification time it had after the last save.
+     */
+    private boolean isSavedFileState() {
+        if (savedFileModifiedTime == null) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(getAddressBookFilePath(), BasicFileAttributes.class);
+            return attributes.lastModifiedTime().equals(savedFileModifiedTime) && attributes.size() == savedFileSize;
+        } catch (IOException ioe) {
+            return false;
+        }
+    }
+
+}
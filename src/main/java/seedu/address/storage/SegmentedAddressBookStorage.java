@@ -0,0 +1,448 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.model.person.exceptions.DuplicatePersonException;
+
+/**
+ * An {@code AddressBookStorage} that splits the address book into {@code segmentCount} segment files, each saved
+ * through another {@code AddressBookStorage}. Every person is kept in the segment given by the hash of its name.
+ * Saving only rewrites the segments whose persons changed since they were last read or written, so an edit to one
+ * person costs a write of about {@code 1 / segmentCount} of the data.
+ *
+ * The segment files are kept in a directory next to the file path of this storage, together with a manifest that
+ * lists the current file of each segment. Next to each segment file is an orders file with the {@link PersonOrders
+ * order} of each of its persons, by which the persons of all segments are merged back into one list when read.
+ * A changed segment is written to a file with a new name, and the segments are switched over to the new files by
+ * replacing the manifest in one atomic step, so a crash during a save leaves all segments as they were before it.
+ * If there is no manifest yet, the address book is read from the segment files of an older version of this storage,
+ * which are named by their index alone, or else from the file path itself, and all segments are written on the next
+ * save.
+ */
+public class SegmentedAddressBookStorage implements AddressBookStorage {
+
+    public static final String SEGMENT_DIRECTORY_SUFFIX = ".segments";
+    public static final String SEGMENT_FILE_PREFIX = "segment-";
+    public static final String MANIFEST_FILE_NAME = "manifest";
+    public static final String ORDERS_FILE_SUFFIX = ".orders";
+
+    public static final String MESSAGE_MALFORMED_MANIFEST = "Segment manifest is malformed at line %d";
+    public static final String MESSAGE_MISSING_SEGMENT = "Segment %s of the address book is missing";
+    public static final String MESSAGE_MALFORMED_ORDERS = "Orders of segment %s do not match its persons";
+
+    /** Name of a segment file: the index of the segment, then the generation of the file. */
+    private static final Pattern SEGMENT_NAME_PATTERN = Pattern.compile(SEGMENT_FILE_PREFIX + "(\\d+)-(\\d+)");
+    /** Name of a segment file written by an older version of this storage, without a manifest. */
+    private static final Pattern UNLISTED_SEGMENT_NAME_PATTERN = Pattern.compile(SEGMENT_FILE_PREFIX + "(\\d+)");
+
+    private static final Logger logger = LogsCenter.getLogger(SegmentedAddressBookStorage.class);
+
+    private final AddressBookStorage segmentStorage;
+    private final Path segmentDirectoryPath;
+    private final int segmentCount;
+    private final FsyncPolicy fsyncPolicy;
+
+    /** Persons as currently persisted with their orders, or null if all segments have to be written. */
+    private PersonOrders persistedOrders;
+    /** Persons of each segment as currently persisted, if {@code persistedOrders} is known. */
+    private List<List<Person>> persistedSegments;
+    /** Names of the segment files listed by the manifest, if {@code persistedOrders} is known. */
+    private List<String> segmentNames;
+    /** Generation of the next segment file written, or 0 if it has not been determined yet. */
+    private long nextGeneration;
+
+    /**
+     * Creates a {@code SegmentedAddressBookStorage} that saves each segment through {@code segmentStorage}.
+     * {@code segmentCount} must be positive.
+     */
+    public SegmentedAddressBookStorage(AddressBookStorage segmentStorage, int segmentCount) {
+        this(segmentStorage, segmentCount, FsyncPolicy.ON_CHECKPOINT);
+    }
+
+    /**
+     * Creates a {@code SegmentedAddressBookStorage} that forces the manifest and the orders files to the storage
+     * device as {@code fsyncPolicy} says. The segments are forced as {@code segmentStorage} forces them.
+     */
+    public SegmentedAddressBookStorage(AddressBookStorage segmentStorage, int segmentCount,
+            FsyncPolicy fsyncPolicy) {
+        requireNonNull(segmentStorage);
+        requireNonNull(fsyncPolicy);
+        checkArgument(segmentCount > 0, "Segment count must be positive");
+        this.segmentStorage = segmentStorage;
+        this.segmentDirectoryPath = getSegmentDirectoryPath(segmentStorage.getAddressBookFilePath());
+        this.segmentCount = segmentCount;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Returns the path of the directory holding the segments of the address book at {@code addressBookFilePath}.
+     */
+    public static Path getSegmentDirectoryPath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + SEGMENT_DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Returns the index of the segment that holds {@code person} in an address book of {@code segmentCount} segments.
+     */
+    public static int getSegmentIndex(Person person, int segmentCount) {
+        return Math.floorMod(person.getName().hashCode(), segmentCount);
+    }
+
+    private Path getManifestPath() {
+        return segmentDirectoryPath.resolve(MANIFEST_FILE_NAME);
+    }
+
+    private Path getOrdersFilePath(String segmentName) {
+        return segmentDirectoryPath.resolve(segmentName + ORDERS_FILE_SUFFIX);
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return segmentStorage.getAddressBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * Only the file path of this storage is read from its segments; other file paths are read as a single file.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!filePath.equals(getAddressBookFilePath())) {
+            return segmentStorage.readAddressBook(filePath);
+        }
+
+        persistedOrders = null;
+        nextGeneration = 0;
+        if (!Files.exists(getManifestPath())) {
+            return readUnlistedSegments(filePath);
+        }
+
+        List<String> listedSegmentNames = readManifest();
+        List<Person> persons = new ArrayList<>();
+        Map<String, Long> orders = new HashMap<>();
+        List<List<Person>> segments = createEmptySegments();
+        boolean isLayoutCurrent = listedSegmentNames.size() == segmentCount;
+        for (int i = 0; i < listedSegmentNames.size(); i++) {
+            String segmentName = listedSegmentNames.get(i);
+            List<Person> segmentPersons = readSegment(segmentName);
+            List<Long> segmentOrders = readOrders(segmentName);
+            if (segmentOrders.size() != segmentPersons.size()) {
+                throw new DataLoadingException(new IllegalValueException(
+                        String.format(MESSAGE_MALFORMED_ORDERS, segmentName)));
+            }
+            for (int j = 0; j < segmentPersons.size(); j++) {
+                Person person = segmentPersons.get(j);
+                int segmentIndex = getSegmentIndex(person, segmentCount);
+                isLayoutCurrent &= segmentIndex == i;
+                segments.get(segmentIndex).add(person);
+                persons.add(person);
+                orders.put(PersonOrders.nameOf(person), segmentOrders.get(j));
+            }
+        }
+        persons.sort(Comparator.comparingLong(person -> orders.get(PersonOrders.nameOf(person))));
+
+        AddressBook addressBook = toAddressBook(persons);
+        if (isLayoutCurrent) {
+            persistedOrders = new PersonOrders(persons, orders);
+            persistedSegments = segments;
+            segmentNames = new ArrayList<>(listedSegmentNames);
+        } else {
+            logger.info("Segments in " + segmentDirectoryPath + " will be redistributed over " + segmentCount
+                    + " segments on the next save.");
+        }
+        return Optional.of(addressBook);
+    }
+
+    /**
+     * Reads the address book from the segment files named by their index alone, in the order of their indices, or
+     * from {@code filePath} if there are none.
+     */
+    private Optional<ReadOnlyAddressBook> readUnlistedSegments(Path filePath) throws DataLoadingException {
+        TreeMap<Integer, Path> segmentFilePaths = new TreeMap<>();
+        if (Files.isDirectory(segmentDirectoryPath)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(segmentDirectoryPath)) {
+                for (Path path : stream) {
+                    Matcher matcher = UNLISTED_SEGMENT_NAME_PATTERN.matcher(path.getFileName().toString());
+                    if (matcher.matches()) {
+                        segmentFilePaths.put(Integer.parseInt(matcher.group(1)), path);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.warning("Error listing segments in " + segmentDirectoryPath + ": " + e);
+                throw new DataLoadingException(e);
+            }
+        }
+        if (segmentFilePaths.isEmpty()) {
+            logger.info("No segments found in " + segmentDirectoryPath + ", reading " + filePath + " instead.");
+            return segmentStorage.readAddressBook(filePath);
+        }
+
+        List<Person> persons = new ArrayList<>();
+        for (Path segmentFilePath : segmentFilePaths.values()) {
+            Optional<ReadOnlyAddressBook> segment = segmentStorage.readAddressBook(segmentFilePath);
+            segment.ifPresent(addressBook -> persons.addAll(addressBook.getPersonList()));
+        }
+        logger.info("Segments in " + segmentDirectoryPath + " have no manifest and will be rewritten on the next"
+                + " save.");
+        return Optional.of(toAddressBook(persons));
+    }
+
+    /**
+     * Returns the names of the segment files listed by the manifest, by the index of their segments.
+     */
+    private List<String> readManifest() throws DataLoadingException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(getManifestPath(), StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            logger.warning("Error reading from manifest " + getManifestPath() + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+
+        List<String> listedSegmentNames = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            Matcher matcher = SEGMENT_NAME_PATTERN.matcher(line);
+            if (!matcher.matches() || !matcher.group(1).equals(String.valueOf(listedSegmentNames.size()))) {
+                throw new DataLoadingException(new IllegalValueException(
+                        String.format(MESSAGE_MALFORMED_MANIFEST, i + 1)));
+            }
+            listedSegmentNames.add(line);
+        }
+        return listedSegmentNames;
+    }
+
+    private List<Person> readSegment(String segmentName) throws DataLoadingException {
+        Optional<ReadOnlyAddressBook> segment = segmentStorage.readAddressBook(
+                segmentDirectoryPath.resolve(segmentName));
+        if (!segment.isPresent()) {
+            throw new DataLoadingException(new IllegalValueException(
+                    String.format(MESSAGE_MISSING_SEGMENT, segmentName)));
+        }
+        return segment.get().getPersonList();
+    }
+
+    private List<Long> readOrders(String segmentName) throws DataLoadingException {
+        Path ordersFilePath = getOrdersFilePath(segmentName);
+        List<Long> orders = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(ordersFilePath, StandardCharsets.UTF_8)) {
+                orders.add(Long.parseLong(line.trim()));
+            }
+        } catch (NumberFormatException nfe) {
+            throw new DataLoadingException(new IllegalValueException(
+                    String.format(MESSAGE_MALFORMED_ORDERS, segmentName)));
+        } catch (IOException ioe) {
+            logger.warning("Error reading from " + ordersFilePath + ": " + ioe);
+            throw new DataLoadingException(ioe);
+        }
+        return orders;
+    }
+
+    private static AddressBook toAddressBook(List<Person> persons) throws DataLoadingException {
+        AddressBook addressBook = new AddressBook();
+        try {
+            addressBook.setPersons(persons);
+        } catch (DuplicatePersonException dpe) {
+            throw new DataLoadingException(new IllegalValueException(
+                    JsonSerializableAddressBook.MESSAGE_DUPLICATE_PERSON));
+        }
+        return addressBook;
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * Only the file path of this storage is saved in segments; other file paths receive a single file.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        if (!filePath.equals(getAddressBookFilePath())) {
+            segmentStorage.saveAddressBook(addressBook, filePath);
+            return;
+        }
+
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+        PersonOrders orders = persistedOrders == null ? PersonOrders.of(persons) : persistedOrders.update(persons);
+        List<List<Person>> segments = createEmptySegments();
+        for (Person person : persons) {
+            segments.get(getSegmentIndex(person, segmentCount)).add(person);
+        }
+        if (nextGeneration == 0) {
+            nextGeneration = nextGenerationIn(segmentDirectoryPath);
+        }
+
+        List<String> newSegmentNames = new ArrayList<>(segmentCount);
+        int writtenSegmentCount = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            List<Person> segment = segments.get(i);
+            if (persistedOrders != null && hasSamePersons(persistedSegments.get(i), segment)
+                    && hasSameOrders(segment, persistedOrders, orders)) {
+                newSegmentNames.add(segmentNames.get(i));
+                continue;
+            }
+
+            String segmentName = SEGMENT_FILE_PREFIX + i + "-" + nextGeneration++;
+            writeSegment(segment, orders, segmentName);
+            newSegmentNames.add(segmentName);
+            writtenSegmentCount++;
+        }
+        if (writtenSegmentCount == 0) {
+            persistedOrders = orders;
+            return;
+        }
+
+        // the segments written above only take effect once the manifest lists them
+        FileUtil.writeAtomically(getManifestPath(), fsyncPolicy,
+                tempFilePath -> Files.write(tempFilePath, newSegmentNames, StandardCharsets.UTF_8));
+        persistedOrders = orders;
+        persistedSegments = segments;
+        segmentNames = newSegmentNames;
+        deleteUnlistedFiles();
+        logger.fine("Wrote " + writtenSegmentCount + " of " + segmentCount + " segments in " + segmentDirectoryPath);
+    }
+
+    /**
+     * Writes the persons of {@code segment} to a new segment file named {@code segmentName}, and their orders to its
+     * orders file. Both are on the storage device before the manifest can list them.
+     */
+    private void writeSegment(List<Person> segment, PersonOrders orders, String segmentName) throws IOException {
+        AddressBook segmentAddressBook = new AddressBook();
+        segmentAddressBook.setPersons(segment);
+        segmentStorage.saveAddressBook(segmentAddressBook, segmentDirectoryPath.resolve(segmentName));
+
+        List<String> orderLines = new ArrayList<>(segment.size());
+        for (Person person : segment) {
+            orderLines.add(String.valueOf(orders.getOrder(person)));
+        }
+        Path ordersFilePath = getOrdersFilePath(segmentName);
+        Files.write(ordersFilePath, orderLines, StandardCharsets.UTF_8);
+        FileUtil.syncWholeFile(ordersFilePath, fsyncPolicy);
+    }
+
+    /**
+     * Deletes the segment files and orders files in the segment directory that the manifest does not list, such as
+     * the earlier files of rewritten segments, files left behind by a crash before the manifest was replaced, or
+     * the segment files of an older version of this storage.
+     */
+    private void deleteUnlistedFiles() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(segmentDirectoryPath,
+                SEGMENT_FILE_PREFIX + "*")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                String segmentName = name.endsWith(ORDERS_FILE_SUFFIX)
+                        ? name.substring(0, name.length() - ORDERS_FILE_SUFFIX.length())
+                        : name;
+                if (!segmentNames.contains(segmentName)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException ioe) {
+            logger.warning("Failed to delete old segments in " + segmentDirectoryPath + ": " + ioe);
+        }
+    }
+
+    /**
+     * Returns a generation that is larger than those of the segment files in {@code directoryPath}.
+     */
+    private static long nextGenerationIn(Path directoryPath) throws IOException {
+        long nextGeneration = 1;
+        if (!Files.isDirectory(directoryPath)) {
+            return nextGeneration;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directoryPath, SEGMENT_FILE_PREFIX + "*")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(ORDERS_FILE_SUFFIX)) {
+                    name = name.substring(0, name.length() - ORDERS_FILE_SUFFIX.length());
+                }
+                Matcher matcher = SEGMENT_NAME_PATTERN.matcher(name);
+                if (matcher.matches()) {
+                    nextGeneration = Math.max(nextGeneration, Long.parseLong(matcher.group(2)) + 1);
+                }
+            }
+        }
+        return nextGeneration;
+    }
+
+    private List<List<Person>> createEmptySegments() {
+        List<List<Person>> segments = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments.add(new ArrayList<>());
+        }
+        return segments;
+    }
+
+    /**
+     * Returns true if both lists hold the same {@code Person} instances in the same order.
+     * As persons are immutable, an edited person is always a different instance.
+     */
+    private static boolean hasSamePersons(List<Person> persons, List<Person> otherPersons) {
+        if (persons.size() != otherPersons.size()) {
+            return false;
+        }
+        for (int i = 0; i < persons.size(); i++) {
+            if (persons.get(i) != otherPersons.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if every person of {@code segment} has the same order in {@code orders} and {@code newOrders}.
+     */
+    private static boolean hasSameOrders(List<Person> segment, PersonOrders orders, PersonOrders newOrders) {
+        for (Person person : segment) {
+            if (orders.getOrder(person) != newOrders.getOrder(person)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,288 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+
+/**
+ * An {@code AddressBookStorage} that keeps a binary snapshot next to a JSON data file, so that the address book can be
+ * read from the faster binary format while the data file stays as it is.
+ *
+ * The first time the data file is read, it is read as usual and the snapshot is written. Later reads read the
+ * snapshot instead, unless it is missing or stale. Saves only write the data file, computing its checksum as it is
+ * written; the snapshot of the last save is only written by {@link #refreshSnapshot()}, e.g. when the app stops.
+ * A stamp file next to the snapshot records the modification time, size and checksum of the data file that the
+ * snapshot was taken of. The snapshot is stale if the data file has since been changed, by a save or by editing it by
+ * hand: the checksum of the data file is only compared if its modification time or size changed.
+ */
+public class SnapshotAddressBookStorage implements AddressBookStorage {
+
+    public static final String SNAPSHOT_FILE_SUFFIX = ".bin";
+    public static final String STAMP_FILE_SUFFIX = ".stamp";
+
+    private static final Logger logger = LogsCenter.getLogger(SnapshotAddressBookStorage.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JsonAddressBookStorage dataStorage;
+    private final BinaryAddressBookStorage snapshotStorage;
+    private final Path stampFilePath;
+
+    /** Persons of the last save that the snapshot has not been taken of yet, or null if there are none. */
+    private List<Person> unsnapshottedPersons;
+    /** Stamp of the data file written by the last save, if {@code unsnapshottedPersons} is not null. */
+    private Stamp unsnapshottedStamp;
+
+    /**
+     * Creates a {@code SnapshotAddressBookStorage} that keeps a snapshot of the data file of {@code dataStorage}.
+     * The snapshot is forced to the storage device as the data file is.
+     */
+    public SnapshotAddressBookStorage(JsonAddressBookStorage dataStorage) {
+        requireNonNull(dataStorage);
+        this.dataStorage = dataStorage;
+        Path snapshotFilePath = getSnapshotFilePath(dataStorage.getAddressBookFilePath());
+        this.snapshotStorage = new BinaryAddressBookStorage(snapshotFilePath, false, dataStorage.getFsyncPolicy());
+        this.stampFilePath = snapshotFilePath.resolveSibling(snapshotFilePath.getFileName() + STAMP_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the path of the snapshot kept of the address book at {@code addressBookFilePath}.
+     */
+    public static Path getSnapshotFilePath(Path addressBookFilePath) {
+        return addressBookFilePath.resolveSibling(addressBookFilePath.getFileName() + SNAPSHOT_FILE_SUFFIX);
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return dataStorage.getAddressBookFilePath();
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     * The snapshot is only used if {@code filePath} is the file path of this storage.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public synchronized Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!filePath.equals(getAddressBookFilePath()) || !Files.exists(filePath)) {
+            return dataStorage.readAddressBook(filePath);
+        }
+
+        Optional<ReadOnlyAddressBook> snapshot = readFreshSnapshot();
+        if (snapshot.isPresent()) {
+            logger.fine("Read address book from snapshot " + snapshotStorage.getAddressBookFilePath());
+            return snapshot;
+        }
+
+        Optional<ReadOnlyAddressBook> addressBook = dataStorage.readAddressBook(filePath);
+        if (addressBook.isPresent()) {
+            logger.info("Writing binary snapshot of data file to " + snapshotStorage.getAddressBookFilePath());
+            try {
+                writeSnapshot(addressBook.get(), new Stamp(Files.getLastModifiedTime(filePath).toMillis(),
+                        Files.size(filePath), checksumOf(filePath), addressBook.get().getPersonList().size()));
+            } catch (IOException ioe) {
+                logger.warning("Failed to take snapshot of " + filePath + ": " + ioe);
+            }
+        }
+        return addressBook;
+    }
+
+    /**
+     * Returns the address book in the snapshot, or {@code Optional.empty()} if the snapshot is missing, stale or
+     * cannot be read.
+     */
+    private Optional<ReadOnlyAddressBook> readFreshSnapshot() {
+        Path dataFilePath = getAddressBookFilePath();
+        try {
+            if (!Files.exists(stampFilePath) || !Files.exists(snapshotStorage.getAddressBookFilePath())) {
+                return Optional.empty();
+            }
+            Optional<Stamp> stamp = Stamp.parse(FileUtil.readFromFile(stampFilePath));
+            if (!stamp.isPresent()) {
+                logger.info("Ignoring snapshot with malformed stamp " + stampFilePath);
+                return Optional.empty();
+            }
+
+            long modifiedMillis = Files.getLastModifiedTime(dataFilePath).toMillis();
+            long size = Files.size(dataFilePath);
+            if (stamp.get().modifiedMillis != modifiedMillis || stamp.get().size != size) {
+                if (stamp.get().size != size || stamp.get().checksum != checksumOf(dataFilePath)) {
+                    logger.info("Ignoring snapshot " + snapshotStorage.getAddressBookFilePath()
+                            + " as the data file changed since it was taken");
+                    return Optional.empty();
+                }
+                // the data file was only touched, so the snapshot is still fresh
+                writeStamp(new Stamp(modifiedMillis, size, stamp.get().checksum, stamp.get().personCount));
+            }
+
+            Optional<ReadOnlyAddressBook> snapshot = snapshotStorage.readAddressBook();
+            if (!snapshot.isPresent() || snapshot.get().getPersonList().size() != stamp.get().personCount) {
+                logger.warning("Ignoring incomplete snapshot " + snapshotStorage.getAddressBookFilePath());
+                return Optional.empty();
+            }
+            return snapshot;
+        } catch (IOException | DataLoadingException e) {
+            logger.warning("Ignoring snapshot " + snapshotStorage.getAddressBookFilePath() + " that cannot be read: "
+                    + e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, getAddressBookFilePath());
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * If {@code filePath} is the file path of this storage, the saved persons are kept for the next
+     * {@link #refreshSnapshot()}.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public synchronized void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        if (!filePath.equals(getAddressBookFilePath())) {
+            dataStorage.saveAddressBook(addressBook, filePath);
+            return;
+        }
+
+        if (unsnapshottedPersons == null) {
+            // a save that keeps the size of the data file may not change its modification time either, where the
+            // file system records it coarsely, so the stamp is removed until the snapshot is taken again
+            Files.deleteIfExists(stampFilePath);
+        }
+        unsnapshottedPersons = null;
+        CRC32C checksum = new CRC32C();
+        dataStorage.saveAddressBook(addressBook, filePath, checksum);
+        // persons are immutable, so a copy of the list keeps the saved content
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+        unsnapshottedStamp = new Stamp(Files.getLastModifiedTime(filePath).toMillis(), Files.size(filePath),
+                checksum.getValue(), persons.size());
+        unsnapshottedPersons = persons;
+    }
+
+    /**
+     * Takes the snapshot of the address book of the last save, if it has not been taken yet and the data file has not
+     * been changed since. Saves leave the snapshot stale until then, so that they only write the data file.
+     * As the snapshot is only a copy of the data file, a failure to write it is logged rather than thrown.
+     */
+    public synchronized void refreshSnapshot() {
+        if (unsnapshottedPersons == null) {
+            return;
+        }
+        Path dataFilePath = getAddressBookFilePath();
+        try {
+            if (Files.getLastModifiedTime(dataFilePath).toMillis() != unsnapshottedStamp.modifiedMillis
+                    || Files.size(dataFilePath) != unsnapshottedStamp.size) {
+                logger.info("Not taking snapshot of " + dataFilePath + " as it changed since it was saved");
+                return;
+            }
+            AddressBook addressBook = new AddressBook();
+            addressBook.setPersons(unsnapshottedPersons);
+            writeSnapshot(addressBook, unsnapshottedStamp);
+            logger.fine("Wrote binary snapshot of data file to " + snapshotStorage.getAddressBookFilePath());
+        } catch (IOException ioe) {
+            logger.warning("Failed to write snapshot " + snapshotStorage.getAddressBookFilePath() + ": " + ioe);
+        } finally {
+            unsnapshottedPersons = null;
+        }
+    }
+
+    /**
+     * Writes {@code addressBook}, which must be the content of the data file described by {@code stamp}, to the
+     * snapshot.
+     */
+    private void writeSnapshot(ReadOnlyAddressBook addressBook, Stamp stamp) throws IOException {
+        // without its stamp, a snapshot that is only partly written is never read
+        Files.deleteIfExists(stampFilePath);
+        snapshotStorage.saveAddressBook(addressBook);
+        writeStamp(stamp);
+    }
+
+    private void writeStamp(Stamp stamp) throws IOException {
+        FileUtil.writeToFile(stampFilePath, stamp.toString(), dataStorage.getFsyncPolicy());
+    }
+
+    /**
+     * Returns the CRC32C checksum of the content of the file at {@code filePath}.
+     */
+    private static long checksumOf(Path filePath) throws IOException {
+        CRC32C checksum = new CRC32C();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(filePath)) {
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                checksum.update(buffer, 0, length);
+            }
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * The data file that a snapshot was taken of, and the number of persons in the snapshot.
+     */
+    private static class Stamp {
+        private final long modifiedMillis;
+        private final long size;
+        private final long checksum;
+        private final int personCount;
+
+        Stamp(long modifiedMillis, long size, long checksum, int personCount) {
+            this.modifiedMillis = modifiedMillis;
+            this.size = size;
+            this.checksum = checksum;
+            this.personCount = personCount;
+        }
+
+        /**
+         * Returns the stamp written as {@code text} by {@link #toString()}, or {@code Optional.empty()} if
+         * {@code text} is not a stamp.
+         */
+        static Optional<Stamp> parse(String text) {
+            String[] fields = text.trim().split(" ");
+            if (fields.length != 4) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Stamp(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2], 16), Integer.parseInt(fields[3])));
+            } catch (NumberFormatException nfe) {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return modifiedMillis + " " + size + " " + Long.toHexString(checksum) + " " + personCount;
+        }
+    }
+
+}
@@ -0,0 +1,387 @@
+package seedu.address.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import seedu.address.commons.core.LogsCenter;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+
+/**
+ * An {@code AddressBookStorage} that keeps the address book in an SQLite database file, which other programs can
+ * query directly. Persons and tags are kept in normalized tables:
+ * <ul>
+ *     <li>{@code persons (id, name, position, phone, email, address)}, where {@code name} is unique and the persons
+ *     are in the order of {@code position},</li>
+ *     <li>{@code tags (id, name)}, where {@code name} is unique, and</li>
+ *     <li>{@code person_tags (person_id, tag_id)}, which gives the tags of each person.</li>
+ * </ul>
+ * Each save runs a single transaction that only deletes the rows of removed persons and inserts or updates the rows of
+ * added or edited persons. Tags that are no longer used by any person are deleted with the last person that used them.
+ * The database is only rewritten as a whole if it has no schema yet or its persons cannot be read.
+ * The database is kept in write-ahead log mode, so that other programs reading it do not block saves, and a save
+ * waits up to {@code BUSY_TIMEOUT_MILLIS} for another program that is writing to it.
+ */
+public class SqliteAddressBookStorage implements AddressBookStorage {
+
+    public static final String JDBC_URL_PREFIX = "jdbc:sqlite:";
+    public static final int SCHEMA_VERSION = 1;
+    public static final int BUSY_TIMEOUT_MILLIS = 5000;
+
+    public static final String MESSAGE_INVALID_PERSON = "Person %s in the database is invalid: %s";
+    public static final String MESSAGE_UNSUPPORTED_VERSION = "Address book database version %d is not supported.";
+
+    private static final String[] CREATE_SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS persons (id INTEGER PRIMARY KEY, name TEXT NOT NULL UNIQUE,"
+                + " position INTEGER NOT NULL, phone TEXT NOT NULL, email TEXT NOT NULL, address TEXT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS persons_position ON persons (position)",
+        "CREATE TABLE IF NOT EXISTS tags (id INTEGER PRIMARY KEY, name TEXT NOT NULL UNIQUE)",
+        "CREATE TABLE IF NOT EXISTS person_tags ("
+                + "person_id INTEGER NOT NULL REFERENCES persons (id) ON DELETE CASCADE,"
+                + " tag_id INTEGER NOT NULL REFERENCES tags (id), PRIMARY KEY (person_id, tag_id))",
+        "CREATE INDEX IF NOT EXISTS person_tags_tag_id ON person_tags (tag_id)",
+        "PRAGMA user_version = " + SCHEMA_VERSION
+    };
+    private static final String SELECT_PERSONS =
+            "SELECT id, name, position, phone, email, address FROM persons ORDER BY position";
+    private static final String SELECT_PERSON_TAGS =
+            "SELECT person_tags.person_id, tags.name FROM person_tags JOIN tags ON tags.id = person_tags.tag_id";
+    private static final String UPSERT_PERSON =
+            "INSERT INTO persons (name, position, phone, email, address) VALUES (?, ?, ?, ?, ?)"
+                    + " ON CONFLICT (name) DO UPDATE SET position = excluded.position, phone = excluded.phone,"
+                    + " email = excluded.email, address = excluded.address";
+    private static final String SELECT_PERSON_ID = "SELECT id FROM persons WHERE name = ?";
+    private static final String DELETE_PERSON = "DELETE FROM persons WHERE name = ?";
+    private static final String DELETE_PERSON_TAGS = "DELETE FROM person_tags WHERE person_id = ?";
+    private static final String INSERT_PERSON_TAG = "INSERT INTO person_tags (person_id, tag_id) VALUES (?, ?)";
+    private static final String INSERT_TAG = "INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
+    private static final String SELECT_TAG_ID = "SELECT id FROM tags WHERE name = ?";
+    private static final String DELETE_UNUSED_TAG = "DELETE FROM tags WHERE name = ?"
+            + " AND NOT EXISTS (SELECT 1 FROM person_tags WHERE person_tags.tag_id = tags.id)";
+    private static final String[] DELETE_ALL = {"DELETE FROM person_tags", "DELETE FROM persons", "DELETE FROM tags"};
+    private static final String SELECT_PERSONS_TABLE =
+            "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'persons'";
+
+    private static final Logger logger = LogsCenter.getLogger(SqliteAddressBookStorage.class);
+
+    private final Path filePath;
+
+    /** Persons as currently persisted, or null if the database has to be rewritten by the next save. */
+    private PersonOrders persisted;
+
+    public SqliteAddressBookStorage(Path filePath) {
+        requireNonNull(filePath);
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Path getAddressBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook() throws DataLoadingException {
+        return readAddressBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readAddressBook()}.
+     *
+     * @param filePath location of the data. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        synchronized (this) {
+            boolean isOwnFile = filePath.equals(this.filePath);
+            if (isOwnFile) {
+                persisted = null;
+            }
+            PersonOrders personOrders;
+            try (Connection connection = connect(filePath)) {
+                personOrders = readPersons(connection);
+            } catch (SQLException sqle) {
+                logger.warning("Error reading from database " + filePath + ": " + sqle);
+                throw new DataLoadingException(sqle);
+            } catch (IllegalValueException ive) {
+                logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+                throw new DataLoadingException(ive);
+            }
+
+            AddressBook addressBook = new AddressBook();
+            addressBook.setPersons(personOrders.getPersons());
+            if (isOwnFile) {
+                persisted = personOrders;
+            }
+            return Optional.of(addressBook);
+        }
+    }
+
+    private static PersonOrders readPersons(Connection connection) throws SQLException, IllegalValueException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet result = statement.executeQuery("PRAGMA user_version")) {
+                int version = result.next() ? result.getInt(1) : 0;
+                if (version > SCHEMA_VERSION) {
+                    throw new IllegalValueException(String.format(MESSAGE_UNSUPPORTED_VERSION, version));
+                }
+            }
+
+            Map<Long, List<JsonAdaptedTag>> tagsByPersonId = new HashMap<>();
+            try (ResultSet result = statement.executeQuery(SELECT_PERSON_TAGS)) {
+                while (result.next()) {
+                    tagsByPersonId.computeIfAbsent(result.getLong(1), id -> new ArrayList<>())
+                            .add(new JsonAdaptedTag(result.getString(2)));
+                }
+            }
+
+            List<Person> persons = new ArrayList<>();
+            Map<String, Long> orders = new HashMap<>();
+            try (ResultSet result = statement.executeQuery(SELECT_PERSONS)) {
+                while (result.next()) {
+                    String name = result.getString(2);
+                    List<JsonAdaptedTag> tags = tagsByPersonId.getOrDefault(result.getLong(1), new ArrayList<>());
+                    Person person;
+                    try {
+                        person = new JsonAdaptedPerson(name, result.getString(4), result.getString(5),
+                                result.getString(6), tags).toModelType();
+                    } catch (IllegalValueException ive) {
+                        throw new IllegalValueException(
+                                String.format(MESSAGE_INVALID_PERSON, name, ive.getMessage()), ive);
+                    }
+                    persons.add(person);
+                    orders.put(name, result.getLong(3));
+                }
+            }
+            return new PersonOrders(persons, orders);
+        }
+    }
+
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException {
+        saveAddressBook(addressBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveAddressBook(ReadOnlyAddressBook)}.
+     * Only the persons that changed since the last read or save are written to the file path of this storage;
+     * other file paths are rewritten.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+        requireNonNull(addressBook);
+        requireNonNull(filePath);
+
+        List<Person> persons = new ArrayList<>(addressBook.getPersonList());
+        FileUtil.createParentDirsOfFile(filePath);
+        synchronized (this) {
+            boolean isOwnFile = filePath.equals(this.filePath);
+            if (isOwnFile && persisted == null) {
+                persisted = readPersistedPersons(filePath);
+            }
+            if (!isOwnFile || persisted == null) {
+                PersonOrders personOrders = PersonOrders.of(persons);
+                inTransaction(filePath, connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        for (String sql : CREATE_SCHEMA) {
+                            statement.execute(sql);
+                        }
+                        for (String sql : DELETE_ALL) {
+                            statement.execute(sql);
+                        }
+                    }
+                    upsertPersons(connection, persons, personOrders);
+                });
+                if (isOwnFile) {
+                    persisted = personOrders;
+                }
+                return;
+            }
+
+            PersonOrders personOrders = persisted.update(persons);
+            List<String> removedNames = persisted.getRemovedNames(personOrders);
+            List<Person> changedPersons = persisted.getChangedPersons(personOrders);
+            if (removedNames.isEmpty() && changedPersons.isEmpty()) {
+                persisted = personOrders;
+                return;
+            }
+
+            // the tags that may no longer be used are those of the removed and edited persons
+            Set<Person> personSet = new HashSet<>(persons);
+            Set<String> replacedTagNames = new HashSet<>();
+            for (Person person : persisted.getPersons()) {
+                if (!personSet.contains(person)) {
+                    for (Tag tag : person.getTags()) {
+                        replacedTagNames.add(tag.tagName);
+                    }
+                }
+            }
+
+            // a failed transaction is rolled back and leaves the persisted persons as they are
+            inTransaction(filePath, connection -> {
+                try (PreparedStatement deletePerson = connection.prepareStatement(DELETE_PERSON)) {
+                    for (String name : removedNames) {
+                        deletePerson.setString(1, name);
+                        deletePerson.addBatch();
+                    }
+                    deletePerson.executeBatch();
+                }
+                upsertPersons(connection, changedPersons, personOrders);
+                deleteUnusedTags(connection, replacedTagNames);
+            });
+            persisted = personOrders;
+        }
+    }
+
+    /**
+     * Returns the persons in the database at {@code filePath}, or null if the database has no schema yet or its
+     * persons cannot be read, so that it has to be rewritten.
+     */
+    private static PersonOrders readPersistedPersons(Path filePath) throws IOException {
+        if (!Files.exists(filePath)) {
+            return null;
+        }
+        try (Connection connection = connect(filePath)) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery(SELECT_PERSONS_TABLE)) {
+                if (!result.next()) {
+                    return null;
+                }
+            }
+            return readPersons(connection);
+        } catch (IllegalValueException ive) {
+            logger.info("Rewriting database " + filePath + " with illegal values: " + ive.getMessage());
+            return null;
+        } catch (SQLException sqle) {
+            throw new IOException("Error reading from database " + filePath, sqle);
+        }
+    }
+
+    /**
+     * Inserts {@code persons} with their orders in {@code personOrders}, or updates the persons of the same names.
+     */
+    private static void upsertPersons(Connection connection, Collection<Person> persons, PersonOrders personOrders)
+            throws SQLException {
+        Map<String, Long> tagIds = new HashMap<>();
+        try (PreparedStatement upsertPerson = connection.prepareStatement(UPSERT_PERSON);
+                PreparedStatement selectPersonId = connection.prepareStatement(SELECT_PERSON_ID);
+                PreparedStatement deletePersonTags = connection.prepareStatement(DELETE_PERSON_TAGS);
+                PreparedStatement insertPersonTag = connection.prepareStatement(INSERT_PERSON_TAG);
+                PreparedStatement insertTag = connection.prepareStatement(INSERT_TAG);
+                PreparedStatement selectTagId = connection.prepareStatement(SELECT_TAG_ID)) {
+            for (Person person : persons) {
+                upsertPerson.setString(1, person.getName().fullName);
+                upsertPerson.setLong(2, personOrders.getOrder(person));
+                upsertPerson.setString(3, person.getPhone().value);
+                upsertPerson.setString(4, person.getEmail().value);
+                upsertPerson.setString(5, person.getAddress().value);
+                upsertPerson.executeUpdate();
+
+                long personId = selectId(selectPersonId, person.getName().fullName);
+                deletePersonTags.setLong(1, personId);
+                deletePersonTags.executeUpdate();
+                for (Tag tag : person.getTags()) {
+                    Long tagId = tagIds.get(tag.tagName);
+                    if (tagId == null) {
+                        insertTag.setString(1, tag.tagName);
+                        insertTag.executeUpdate();
+                        tagId = selectId(selectTagId, tag.tagName);
+                        tagIds.put(tag.tagName, tagId);
+                    }
+                    insertPersonTag.setLong(1, personId);
+                    insertPersonTag.setLong(2, tagId);
+                    insertPersonTag.addBatch();
+                }
+                insertPersonTag.executeBatch();
+            }
+        }
+    }
+
+    private static long selectId(PreparedStatement selectId, String name) throws SQLException {
+        selectId.setString(1, name);
+        try (ResultSet result = selectId.executeQuery()) {
+            if (!result.next()) {
+                throw new SQLException("No row named " + name);
+            }
+            return result.getLong(1);
+        }
+    }
+
+    private static void deleteUnusedTags(Connection connection, Collection<String> tagNames) throws SQLException {
+        try (PreparedStatement deleteUnusedTag = connection.prepareStatement(DELETE_UNUSED_TAG)) {
+            for (String tagName : tagNames) {
+                deleteUnusedTag.setString(1, tagName);
+                deleteUnusedTag.addBatch();
+            }
+            deleteUnusedTag.executeBatch();
+        }
+    }
+
+    /**
+     * Runs {@code work} in a single transaction on the database at {@code filePath}, which is rolled back if the
+     * work fails.
+     */
+    private static void inTransaction(Path filePath, Work work) throws IOException {
+        try (Connection connection = connect(filePath)) {
+            connection.setAutoCommit(false);
+            try {
+                work.run(connection);
+                connection.commit();
+            } catch (SQLException sqle) {
+                connection.rollback();
+                throw sqle;
+            }
+        } catch (SQLException sqle) {
+            throw new IOException("Error writing to database " + filePath, sqle);
+        }
+    }
+
+    private static Connection connect(Path filePath) throws SQLException {
+        Connection connection = DriverManager.getConnection(JDBC_URL_PREFIX + filePath);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA foreign_keys = ON");
+        } catch (SQLException sqle) {
+            connection.close();
+            throw sqle;
+        }
+        return connection;
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run(Connection connection) throws SQLException;
+    }
+
+}
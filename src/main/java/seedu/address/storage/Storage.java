@@ -14,6 +14,17 @@ import seedu.address.model.UserPrefs;
  */
 public interface Storage extends AddressBookStorage, UserPrefsStorage {
 
+    /**
+     * Receives the failures of the writes of the address book made in the background.
+     */
+    @FunctionalInterface
+    interface WriteFailureListener {
+        /**
+         * Called on the background writer with the failure of a write, which is retried later.
+         */
+        void onWriteFailure(IOException failure);
+    }
+
     @Override
     Optional<UserPrefs> readUserPrefs() throws DataLoadingException;
 
@@ -29,4 +40,22 @@ public interface Storage extends AddressBookStorage, UserPrefsStorage {
     @Override
     void saveAddressBook(ReadOnlyAddressBook addressBook) throws IOException;
 
+    /**
+     * Returns true if the address book of every save so far has been written to its file, i.e. no save is waiting
+     * to be written in the background or to be retried after a failed write.
+     */
+    boolean isAddressBookWritten();
+
+    /**
+     * Sets the listener told about each failed write of the address book made in the background.
+     */
+    void setWriteFailureListener(WriteFailureListener listener);
+
+    /**
+     * Writes out any saves that are still pending and stops accepting saves in the background.
+     * Later saves are written synchronously.
+     * @throws IOException if there was any problem writing to the file.
+     */
+    void close() throws IOException;
+
 }
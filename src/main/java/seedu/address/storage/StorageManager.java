@@ -1,31 +1,99 @@
 package seedu.address.storage;
 
+import static java.util.Objects.requireNonNull;
+import static seedu.address.commons.util.AppUtil.checkArgument;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import seedu.address.commons.core.LogsCenter;
 import seedu.address.commons.exceptions.DataLoadingException;
 import seedu.address.model.ReadOnlyAddressBook;
 import seedu.address.model.ReadOnlyUserPrefs;
 import seedu.address.model.UserPrefs;
+import seedu.address.model.person.Person;
 
 /**
  * Manages storage of AddressBook data in local storage.
+ * In write-behind mode, saves of the address book to its own file path only take a snapshot of the data and leave
+ * the writing to a single background thread. A save is written at most {@code writeBehindDelayMillis} after it was
+ * requested, and all saves requested in the meantime are merged into a single write of the latest snapshot.
+ * A failed background write is reported to the {@link WriteFailureListener}, if any, and by the next call to
+ * {@link #saveAddressBook(ReadOnlyAddressBook)} or {@link #close()}. It is retried after a backoff that starts at
+ * {@code MIN_RETRY_DELAY_MILLIS} and doubles with each further failure, up to {@code writeBehindDelayMillis}.
  */
 public class StorageManager implements Storage {
 
+    /** Delay before the first retry of a failed background write. */
+    static final long MIN_RETRY_DELAY_MILLIS = 100;
+
     private static final Logger logger = LogsCenter.getLogger(StorageManager.class);
     private AddressBookStorage addressBookStorage;
     private UserPrefsStorage userPrefsStorage;
 
+    /** Writes the address book in the background, or null if the address book is saved synchronously. */
+    private final ScheduledExecutorService addressBookWriter;
+    private final long writeBehindDelayMillis;
+
+    // The fields below are shared with the background writer and guarded by this StorageManager.
+    private ReadOnlyAddressBook pendingAddressBook;
+    private boolean isWriteScheduled;
+    private boolean isWriting;
+    private IOException unreportedWriteFailure;
+    private WriteFailureListener writeFailureListener;
+
+    /** Delay before the next retry of a failed background write, or 0 if the last write succeeded. */
+    private long retryDelayMillis;
+
     /**
      * Creates a {@code StorageManager} with the given {@code AddressBookStorage} and {@code UserPrefStorage}.
      */
     public StorageManager(AddressBookStorage addressBookStorage, UserPrefsStorage userPrefsStorage) {
         this.addressBookStorage = addressBookStorage;
         this.userPrefsStorage = userPrefsStorage;
+        this.addressBookWriter = null;
+        this.writeBehindDelayMillis = 0;
+    }
+
+    /**
+     * Creates a {@code StorageManager} with the given {@code AddressBookStorage} and {@code UserPrefStorage}
+     * that saves the address book in write-behind mode, at most {@code writeBehindDelayMillis} after each save.
+     * {@code writeBehindDelayMillis} must not be negative.
+     */
+    public StorageManager(AddressBookStorage addressBookStorage, UserPrefsStorage userPrefsStorage,
+            long writeBehindDelayMillis) {
+        this(addressBookStorage, userPrefsStorage, writeBehindDelayMillis, createAddressBookWriter());
+    }
+
+    /**
+     * Similar to {@link #StorageManager(AddressBookStorage, UserPrefsStorage, long)}, but the address book is written
+     * by the tasks that are scheduled on {@code addressBookWriter}, which must run them one at a time.
+     * {@link #close()} shuts down {@code addressBookWriter}.
+     */
+    public StorageManager(AddressBookStorage addressBookStorage, UserPrefsStorage userPrefsStorage,
+            long writeBehindDelayMillis, ScheduledExecutorService addressBookWriter) {
+        requireNonNull(addressBookWriter);
+        checkArgument(writeBehindDelayMillis >= 0, "Write-behind delay must not be negative");
+        this.addressBookStorage = addressBookStorage;
+        this.userPrefsStorage = userPrefsStorage;
+        this.addressBookWriter = addressBookWriter;
+        this.writeBehindDelayMillis = writeBehindDelayMillis;
+    }
+
+    private static ScheduledExecutorService createAddressBookWriter() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AddressBook-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     // ================ UserPrefs methods ==============================
@@ -71,8 +139,138 @@ public class StorageManager implements Storage {
 
     @Override
     public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
-        logger.fine("Attempting to write to data file: " + filePath);
-        addressBookStorage.saveAddressBook(addressBook, filePath);
+        if (addressBookWriter == null || addressBookWriter.isShutdown()
+                || !filePath.equals(addressBookStorage.getAddressBookFilePath())) {
+            logger.fine("Attempting to write to data file: " + filePath);
+            addressBookStorage.saveAddressBook(addressBook, filePath);
+            return;
+        }
+
+        ReadOnlyAddressBook snapshot = new AddressBookSnapshot(addressBook);
+        synchronized (this) {
+            pendingAddressBook = snapshot;
+            if (!isWriteScheduled) {
+                addressBookWriter.schedule(this::writePendingAddressBook, writeBehindDelayMillis,
+                        TimeUnit.MILLISECONDS);
+                isWriteScheduled = true;
+            }
+        }
+        throwUnreportedWriteFailure();
+    }
+
+    @Override
+    public synchronized boolean isAddressBookWritten() {
+        return pendingAddressBook == null && !isWriting;
+    }
+
+    @Override
+    public synchronized void setWriteFailureListener(WriteFailureListener listener) {
+        writeFailureListener = listener;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (addressBookWriter == null || addressBookWriter.isShutdown()) {
+            return;
+        }
+
+        logger.fine("Writing pending saves of the address book");
+        try {
+            addressBookWriter.submit(this::writePendingAddressBook).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing pending saves of the address book", ie);
+        } catch (ExecutionException ee) {
+            throw new IOException(ee.getCause());
+        } finally {
+            // also cancels the retry of a failed final write
+            addressBookWriter.shutdownNow();
+        }
+        throwUnreportedWriteFailure();
+    }
+
+    /**
+     * Writes the latest pending snapshot of the address book, if any. Only runs on the background writer.
+     */
+    private void writePendingAddressBook() {
+        ReadOnlyAddressBook toWrite;
+        synchronized (this) {
+            toWrite = pendingAddressBook;
+            pendingAddressBook = null;
+            isWriteScheduled = false;
+            isWriting = toWrite != null;
+        }
+        if (toWrite == null) {
+            return;
+        }
+
+        Path filePath = addressBookStorage.getAddressBookFilePath();
+        try {
+            logger.fine("Attempting to write to data file: " + filePath);
+            addressBookStorage.saveAddressBook(toWrite, filePath);
+            synchronized (this) {
+                isWriting = false;
+                retryDelayMillis = 0;
+            }
+        } catch (IOException ioe) {
+            logger.warning("Failed to write to data file " + filePath + ": " + ioe);
+            WriteFailureListener listener;
+            synchronized (this) {
+                isWriting = false;
+                unreportedWriteFailure = ioe;
+                if (pendingAddressBook == null) {
+                    pendingAddressBook = toWrite;
+                }
+                scheduleRetry();
+                listener = writeFailureListener;
+            }
+            if (listener != null) {
+                listener.onWriteFailure(ioe);
+            }
+        }
+    }
+
+    /**
+     * Schedules another write of the pending snapshot after a failed write, unless one is scheduled already.
+     */
+    private synchronized void scheduleRetry() {
+        retryDelayMillis = retryDelayMillis == 0
+                ? MIN_RETRY_DELAY_MILLIS
+                : Math.min(2 * retryDelayMillis, Math.max(writeBehindDelayMillis, MIN_RETRY_DELAY_MILLIS));
+        if (isWriteScheduled || addressBookWriter.isShutdown()) {
+            return;
+        }
+        logger.fine("Retrying to write to data file in " + retryDelayMillis + " ms");
+        addressBookWriter.schedule(this::writePendingAddressBook, retryDelayMillis, TimeUnit.MILLISECONDS);
+        isWriteScheduled = true;
+    }
+
+    /**
+     * Throws the failure of the last background write if it has not been reported yet.
+     */
+    private synchronized void throwUnreportedWriteFailure() throws IOException {
+        IOException failure = unreportedWriteFailure;
+        unreportedWriteFailure = null;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * An immutable copy of the persons of an address book, taken when a save is requested.
+     */
+    private static class AddressBookSnapshot implements ReadOnlyAddressBook {
+        private final ObservableList<Person> persons;
+
+        AddressBookSnapshot(ReadOnlyAddressBook addressBook) {
+            persons = FXCollections.unmodifiableObservableList(
+                    FXCollections.observableArrayList(addressBook.getPersonList()));
+        }
+
+        @Override
+        public ObservableList<Person> getPersonList() {
+            return persons;
+        }
     }
 
 }
@@ -0,0 +1,108 @@
+package seedu.address.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+
+/**
+ * The distinct tags of an address book, numbered in the order they are first used, so that a data file can store
+ * each tag name once and refer to the tags of a person by number.
+ * Tags read through a dictionary are interned: each distinct tag name is a single {@code Tag} instance.
+ */
+class TagDictionary {
+
+    static final String MESSAGE_UNKNOWN_TAG_ID = "Tag id %d is not in the tag dictionary.";
+    static final String MESSAGE_DUPLICATE_TAG = "Tag dictionary contains duplicate tag %s.";
+
+    private final List<Tag> tags = new ArrayList<>();
+    /** Ids of the tags, by their names. */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Returns a {@code TagDictionary} of the tags of {@code persons}.
+     */
+    static TagDictionary of(Iterable<Person> persons) {
+        TagDictionary dictionary = new TagDictionary();
+        for (Person person : persons) {
+            for (Tag tag : person.getTags()) {
+                if (!dictionary.ids.containsKey(tag.tagName)) {
+                    dictionary.put(tag);
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * Returns the tag named {@code tagName}, which is added to the dictionary if it is not in it yet.
+     *
+     * @throws IllegalValueException if {@code tagName} is not a valid tag name.
+     */
+    Tag intern(String tagName) throws IllegalValueException {
+        Integer id = ids.get(tagName);
+        if (id != null) {
+            return tags.get(id);
+        }
+        Tag tag = toTag(tagName);
+        put(tag);
+        return tag;
+    }
+
+    /**
+     * Adds the tag named {@code tagName} to the end of the dictionary.
+     *
+     * @throws IllegalValueException if {@code tagName} is not a valid tag name, or is already in the dictionary.
+     */
+    void add(String tagName) throws IllegalValueException {
+        if (ids.containsKey(tagName)) {
+            throw new IllegalValueException(String.format(MESSAGE_DUPLICATE_TAG, tagName));
+        }
+        put(toTag(tagName));
+    }
+
+    /**
+     * Returns the tag with the given {@code id}.
+     *
+     * @throws IllegalValueException if no tag has that id.
+     */
+    Tag get(int id) throws IllegalValueException {
+        if (id < 0 || id >= tags.size()) {
+            throw new IllegalValueException(String.format(MESSAGE_UNKNOWN_TAG_ID, id));
+        }
+        return tags.get(id);
+    }
+
+    /**
+     * Returns the id of {@code tag}, which must be in the dictionary.
+     */
+    int getId(Tag tag) {
+        return ids.get(tag.tagName);
+    }
+
+    /**
+     * Returns the tags in the order of their ids, as an unmodifiable list.
+     */
+    List<Tag> getTags() {
+        return Collections.unmodifiableList(tags);
+    }
+
+    private void put(Tag tag) {
+        ids.put(tag.tagName, tags.size());
+        tags.add(tag);
+    }
+
+    private static Tag toTag(String tagName) throws IllegalValueException {
+        try {
+            return new Tag(tagName);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+        }
+    }
+
+}
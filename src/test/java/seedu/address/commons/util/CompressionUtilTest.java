@@ -0,0 +1,61 @@
+package seedu.address.commons.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import seedu.address.commons.core.Compression;
+
+public class CompressionUtilTest {
+
+    private static final byte[] DATA = "{ \"persons\" : [ ] }".getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] compress(byte[] data, Compression compression) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = CompressionUtil.compress(compressed, compression)) {
+            outputStream.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        try (InputStream inputStream = CompressionUtil.decompress(new ByteArrayInputStream(data))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @Test
+    public void decompress_compressedData_originalDataReturned() throws Exception {
+        for (Compression compression : Compression.values()) {
+            assertArrayEquals(DATA, decompress(compress(DATA, compression)));
+        }
+    }
+
+    @Test
+    public void decompress_shortData_returnedAsIs() throws Exception {
+        assertArrayEquals(new byte[0], decompress(new byte[0]));
+        assertArrayEquals(new byte[] {0x1f}, decompress(new byte[] {0x1f}));
+    }
+
+    @Test
+    public void detect() throws Exception {
+        assertEquals(Compression.GZIP, CompressionUtil.detect(0x1f, 0x8b));
+        assertEquals(Compression.DEFLATE, CompressionUtil.detect(0x78, 0x9c));
+        byte[] deflated = compress(DATA, Compression.DEFLATE);
+        assertEquals(Compression.DEFLATE, CompressionUtil.detect(deflated[0] & 0xff, deflated[1] & 0xff));
+
+        // JSON text starts with a brace or whitespace
+        assertEquals(Compression.NONE, CompressionUtil.detect('{', ' '));
+        assertEquals(Compression.NONE, CompressionUtil.detect(' ', '{'));
+        assertEquals(Compression.NONE, CompressionUtil.detect('{', -1));
+    }
+
+}
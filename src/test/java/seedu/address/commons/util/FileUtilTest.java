@@ -1,13 +1,24 @@
 package seedu.address.commons.util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static seedu.address.testutil.Assert.assertThrows;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.core.FsyncPolicy;
 
 public class FileUtilTest {
 
+    @TempDir
+    public Path testFolder;
+
     @Test
     public void isValidPath() {
         // valid path
@@ -20,4 +31,62 @@ public class FileUtilTest {
         assertThrows(NullPointerException.class, () -> FileUtil.isValidPath(null));
     }
 
+    @Test
+    public void writeToFile_everyFsyncPolicy_fileReplaced() throws Exception {
+        Path file = testFolder.resolve("missing").resolve("file.txt");
+        for (FsyncPolicy fsyncPolicy : FsyncPolicy.values()) {
+            FileUtil.writeToFile(file, "content " + fsyncPolicy, fsyncPolicy);
+            assertEquals("content " + fsyncPolicy, FileUtil.readFromFile(file));
+            assertFalse(Files.exists(file.resolveSibling("file.txt" + FileUtil.TEMP_FILE_SUFFIX)));
+        }
+    }
+
+    @Test
+    public void writeAtomically_writeFails_fileUnchanged() throws Exception {
+        Path file = testFolder.resolve("file.txt");
+        FileUtil.writeToFile(file, "old content");
+
+        assertThrows(IOException.class, () -> FileUtil.writeAtomically(file, FsyncPolicy.ON_CHECKPOINT, tempFile -> {
+            Files.writeString(tempFile, "partial new content");
+            throw new IOException("disk full");
+        }));
+        assertEquals("old content", FileUtil.readFromFile(file));
+        assertFalse(Files.exists(testFolder.resolve("file.txt" + FileUtil.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void writeAtomically_replaceFails_fileUnchanged() throws Exception {
+        // a non-empty directory cannot be replaced, much like a file that is still mapped on Windows
+        Path file = testFolder.resolve("directory");
+        Path fileInside = file.resolve("file.txt");
+        FileUtil.writeToFile(fileInside, "old content");
+
+        assertThrows(IOException.class, () -> FileUtil.writeAtomically(file, FsyncPolicy.ON_CHECKPOINT,
+                tempFile -> Files.writeString(tempFile, "new content")));
+        assertEquals("old content", FileUtil.readFromFile(fileInside));
+        assertFalse(Files.exists(testFolder.resolve("directory" + FileUtil.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void appendToFile_everyFsyncPolicy_contentAppended() throws Exception {
+        Path file = testFolder.resolve("file.txt");
+        StringBuilder expected = new StringBuilder();
+        for (FsyncPolicy fsyncPolicy : FsyncPolicy.values()) {
+            FileUtil.appendToFile(file, fsyncPolicy.name().getBytes("UTF-8"), fsyncPolicy);
+            expected.append(fsyncPolicy.name());
+        }
+        assertEquals(expected.toString(), FileUtil.readFromFile(file));
+    }
+
+    @Test
+    public void isEmptyOrEndsWithNewline() throws Exception {
+        Path file = testFolder.resolve("file.txt");
+        Files.writeString(file, "");
+        assertTrue(FileUtil.isEmptyOrEndsWithNewline(file));
+        Files.writeString(file, "line\n");
+        assertTrue(FileUtil.isEmptyOrEndsWithNewline(file));
+        Files.writeString(file, "line\nincomplete");
+        assertFalse(FileUtil.isEmptyOrEndsWithNewline(file));
+    }
+
 }
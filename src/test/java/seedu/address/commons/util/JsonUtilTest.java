@@ -1,12 +1,28 @@
 package seedu.address.commons.util;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
 
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import seedu.address.commons.core.Compression;
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
 import seedu.address.testutil.SerializableTestClass;
 import seedu.address.testutil.TestUtil;
 
@@ -39,6 +55,104 @@ public class JsonUtilTest {
         assertEquals(serializableTestClass.getMapOfIntegerToString(), SerializableTestClass.getHashMapTestValues());
     }
 
+    @Test
+    public void readJsonArrayFile_validFile_elementsHandledInOrder() throws Exception {
+        FileUtil.writeToFile(SERIALIZATION_FILE, "{ \"skipped\" : { \"values\" : [ \"x\" ] }, "
+                + "\"values\" : [ \"a\", \"b\", \"c\" ], \"other\" : 1 }");
+
+        List<String> values = new ArrayList<>();
+        assertTrue(JsonUtil.readJsonArrayFile(SERIALIZATION_FILE, "values", String.class, values::add));
+        assertEquals(Arrays.asList("a", "b", "c"), values);
+    }
+
+    @Test
+    public void readJsonArrayFile_missingFile_returnsFalse() throws Exception {
+        Path missingFile = TestUtil.getFilePathInSandboxFolder("missing.json");
+        assertFalse(JsonUtil.readJsonArrayFile(missingFile, "values", String.class, value -> { }));
+    }
+
+    @Test
+    public void readJsonArrayFile_notAnArray_throwsDataLoadingException() throws Exception {
+        FileUtil.writeToFile(SERIALIZATION_FILE, "{ \"values\" : \"a\" }");
+        assertThrows(DataLoadingException.class, () ->
+                JsonUtil.readJsonArrayFile(SERIALIZATION_FILE, "values", String.class, value -> { }));
+    }
+
+    @Test
+    public void readJsonArrayFile_elementRejected_throwsDataLoadingException() throws Exception {
+        FileUtil.writeToFile(SERIALIZATION_FILE, "{ \"values\" : [ \"a\" ] }");
+        assertThrows(DataLoadingException.class, () ->
+                JsonUtil.readJsonArrayFile(SERIALIZATION_FILE, "values", String.class, value -> {
+                    throw new IllegalValueException(value);
+                }));
+    }
+
+    @Test
+    public void saveAndReadJsonArrayFile_leadingFields_readBeforeElements() throws Exception {
+        JsonUtil.saveJsonArrayFile(SERIALIZATION_FILE, "values", Arrays.asList("a", "b"), JsonGenerator::writeString,
+                false, Compression.NONE, generator -> generator.writeNumberField("count", 2));
+        assertEquals("{\"count\":2,\"values\":[\"a\",\"b\"]}", FileUtil.readFromFile(SERIALIZATION_FILE));
+
+        List<String> read = new ArrayList<>();
+        assertTrue(JsonUtil.readJsonArrayFile(SERIALIZATION_FILE, "values", JsonParser::getText, read::add,
+                (parser, fieldName) -> read.add(fieldName + "=" + parser.getIntValue())));
+        assertEquals(Arrays.asList("count=2", "a", "b"), read);
+    }
+
+    @Test
+    public void saveJsonArrayFileInParallel_manyChunks_sameAsSequentialSave() throws Exception {
+        Path sequentialFile = TestUtil.getFilePathInSandboxFolder("sequential.json");
+        for (int size : new int[] {JsonUtil.PARALLEL_WRITE_CHUNK_SIZE, 5 * JsonUtil.PARALLEL_WRITE_CHUNK_SIZE,
+                40 * JsonUtil.PARALLEL_WRITE_CHUNK_SIZE + 7}) {
+            List<List<Integer>> values = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                values.add(Arrays.asList(i, -i));
+            }
+            for (boolean isPrettyPrinted : new boolean[] {false, true}) {
+                JsonUtil.saveJsonArrayFile(sequentialFile, "values", values, JsonGenerator::writeObject,
+                        isPrettyPrinted, Compression.NONE, generator -> generator.writeNumberField("size", size));
+                JsonUtil.saveJsonArrayFileInParallel(SERIALIZATION_FILE, "values", values,
+                        JsonGenerator::writeObject, isPrettyPrinted, Compression.NONE,
+                        generator -> generator.writeNumberField("size", size));
+                assertArrayEquals(Files.readAllBytes(sequentialFile), Files.readAllBytes(SERIALIZATION_FILE));
+            }
+        }
+    }
+
+    @Test
+    public void saveJsonArrayFileInParallel_compressed_readBack() throws Exception {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 3 * JsonUtil.PARALLEL_WRITE_CHUNK_SIZE; i++) {
+            values.add("value " + i);
+        }
+        JsonUtil.saveJsonArrayFileInParallel(SERIALIZATION_FILE, "values", values, JsonGenerator::writeString, true,
+                Compression.GZIP, generator -> { });
+
+        List<String> read = new ArrayList<>();
+        assertTrue(JsonUtil.readJsonArrayFile(SERIALIZATION_FILE, "values", String.class, read::add));
+        assertEquals(values, read);
+    }
+
+    @Test
+    public void saveJsonArrayFileInParallel_withChecksum_checksumOfFile() throws Exception {
+        for (int size : new int[] {3, 3 * JsonUtil.PARALLEL_WRITE_CHUNK_SIZE}) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                values.add("value " + i);
+            }
+            for (Compression compression : new Compression[] {Compression.NONE, Compression.GZIP}) {
+                CRC32C checksum = new CRC32C();
+                checksum.update(1);
+                JsonUtil.saveJsonArrayFileInParallel(SERIALIZATION_FILE, "values", values, JsonGenerator::writeString,
+                        true, compression, generator -> { }, checksum, FsyncPolicy.NEVER);
+
+                CRC32C expected = new CRC32C();
+                expected.update(Files.readAllBytes(SERIALIZATION_FILE));
+                assertEquals(expected.getValue(), checksum.getValue());
+            }
+        }
+    }
+
     //TODO: @Test jsonUtil_readJsonStringToObjectInstance_correctObject()
 
     //TODO: @Test jsonUtil_writeThenReadObjectToJson_correctObject()
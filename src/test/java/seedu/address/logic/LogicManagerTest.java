@@ -13,6 +13,8 @@ import static seedu.address.testutil.TypicalPersons.AMY;
 import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +33,7 @@ import seedu.address.model.person.Person;
 import seedu.address.storage.JsonAddressBookStorage;
 import seedu.address.storage.JsonUserPrefsStorage;
 import seedu.address.storage.StorageManager;
+import seedu.address.testutil.ManualScheduledExecutor;
 import seedu.address.testutil.PersonBuilder;
 
 public class LogicManagerTest {
@@ -82,6 +85,58 @@ public class LogicManagerTest {
                 LogicManager.FILE_OPS_PERMISSION_ERROR_FORMAT, DUMMY_AD_EXCEPTION.getMessage()));
     }
 
+    @Test
+    public void execute_addressBookUnchangedSinceLastSave_skipsSave() throws Exception {
+        List<ReadOnlyAddressBook> savedAddressBooks = new ArrayList<>();
+        JsonAddressBookStorage addressBookStorage =
+                new JsonAddressBookStorage(temporaryFolder.resolve("addressBook.json")) {
+                    @Override
+                    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) {
+                        savedAddressBooks.add(addressBook);
+                    }
+                };
+        JsonUserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(temporaryFolder.resolve("userPrefs.json"));
+        logic = new LogicManager(model, new StorageManager(addressBookStorage, userPrefsStorage));
+
+        // nothing saved yet
+        logic.execute(ListCommand.COMMAND_WORD);
+        assertEquals(1, savedAddressBooks.size());
+
+        // read-only command
+        logic.execute(ListCommand.COMMAND_WORD);
+        assertEquals(1, savedAddressBooks.size());
+
+        // mutating command
+        logic.execute(AddCommand.COMMAND_WORD + NAME_DESC_AMY + PHONE_DESC_AMY + EMAIL_DESC_AMY + ADDRESS_DESC_AMY);
+        assertEquals(2, savedAddressBooks.size());
+    }
+
+    @Test
+    public void execute_backgroundWriteFailed_readOnlyCommandReportsFailure() throws Exception {
+        JsonAddressBookStorage addressBookStorage =
+                new JsonAddressBookStorage(temporaryFolder.resolve("addressBook.json")) {
+                    @Override
+                    public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath)
+                            throws IOException {
+                        throw DUMMY_IO_EXCEPTION;
+                    }
+                };
+        JsonUserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(temporaryFolder.resolve("userPrefs.json"));
+        ManualScheduledExecutor addressBookWriter = new ManualScheduledExecutor();
+        StorageManager storage = new StorageManager(addressBookStorage, userPrefsStorage, 0, addressBookWriter);
+        logic = new LogicManager(model, storage);
+        List<String> failureMessages = new ArrayList<>();
+        logic.setSaveFailureListener(failureMessages::add);
+
+        String expectedMessage = String.format(LogicManager.FILE_OPS_ERROR_FORMAT, DUMMY_IO_EXCEPTION.getMessage());
+        logic.execute(AddCommand.COMMAND_WORD + NAME_DESC_AMY + PHONE_DESC_AMY + EMAIL_DESC_AMY + ADDRESS_DESC_AMY);
+        addressBookWriter.runScheduledTasks();
+        assertEquals(List.of(expectedMessage), failureMessages);
+
+        // the address book is not counted as saved, so even a read-only command saves it and reports the failure
+        assertCommandException(ListCommand.COMMAND_WORD, expectedMessage);
+    }
+
     @Test
     public void getFilteredPersonList_modifyList_throwsUnsupportedOperationException() {
         assertThrows(UnsupportedOperationException.class, () -> logic.getFilteredPersonList().remove(0));
@@ -2,11 +2,15 @@ package seedu.address.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static seedu.address.logic.commands.CommandTestUtil.VALID_ADDRESS_BOB;
 import static seedu.address.logic.commands.CommandTestUtil.VALID_TAG_HUSBAND;
 import static seedu.address.testutil.Assert.assertThrows;
 import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.CARL;
+import static seedu.address.testutil.TypicalPersons.HOON;
 import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
 
 import java.util.Arrays;
@@ -20,6 +24,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import seedu.address.model.person.Person;
 import seedu.address.model.person.exceptions.DuplicatePersonException;
+import seedu.address.testutil.AddressBookBuilder;
 import seedu.address.testutil.PersonBuilder;
 
 public class AddressBookTest {
@@ -43,6 +48,17 @@ public class AddressBookTest {
         assertEquals(newData, addressBook);
     }
 
+    @Test
+    public void resetData_withAddressBook_copiesIdentityLookups() {
+        AddressBook newData = new AddressBookBuilder().withPerson(ALICE).build();
+        addressBook.resetData(newData);
+        assertTrue(addressBook.hasPerson(ALICE));
+
+        // later changes to the source are not reflected in the copy
+        newData.removePerson(ALICE);
+        assertTrue(addressBook.hasPerson(ALICE));
+    }
+
     @Test
     public void resetData_withDuplicatePersons_throwsDuplicatePersonException() {
         // Two persons with the same identity fields
@@ -54,6 +70,20 @@ public class AddressBookTest {
         assertThrows(DuplicatePersonException.class, () -> addressBook.resetData(newData));
     }
 
+    @Test
+    public void getVersion_afterModification_changes() {
+        long initialVersion = addressBook.getVersion();
+        addressBook.addPerson(ALICE);
+        long versionAfterAdd = addressBook.getVersion();
+        assertNotEquals(initialVersion, versionAfterAdd);
+
+        addressBook.hasPerson(ALICE);
+        assertEquals(versionAfterAdd, addressBook.getVersion());
+
+        addressBook.removePerson(ALICE);
+        assertNotEquals(versionAfterAdd, addressBook.getVersion());
+    }
+
     @Test
     public void hasPerson_nullPerson_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> addressBook.hasPerson(null));
@@ -78,6 +108,26 @@ public class AddressBookTest {
         assertTrue(addressBook.hasPerson(editedAlice));
     }
 
+    @Test
+    public void applyChanges_editedPerson_replacedInPlace() {
+        addressBook.setPersons(Arrays.asList(ALICE, BENSON, CARL));
+        Person editedBenson = new PersonBuilder(BENSON).withPhone("12345678").build();
+        addressBook.applyChanges(List.of(BENSON, CARL), List.of(editedBenson, HOON));
+        assertEquals(Arrays.asList(ALICE, editedBenson, HOON), addressBook.getPersonList());
+    }
+
+    @Test
+    public void applyChanges_conflictingChanges_skipped() {
+        Person editedAlice = new PersonBuilder(ALICE).withAddress(VALID_ADDRESS_BOB).build();
+        addressBook.setPersons(Arrays.asList(editedAlice, BENSON));
+        Person otherAlice = new PersonBuilder(ALICE).withTags(VALID_TAG_HUSBAND).build();
+        Person otherBenson = new PersonBuilder(BENSON).withTags(VALID_TAG_HUSBAND).build();
+
+        // the removed or replaced person was edited here, and the added person already exists
+        addressBook.applyChanges(List.of(ALICE), List.of(otherAlice, otherBenson));
+        assertEquals(Arrays.asList(editedAlice, BENSON), addressBook.getPersonList());
+    }
+
     @Test
     public void getPersonList_modifyList_throwsUnsupportedOperationException() {
         assertThrows(UnsupportedOperationException.class, () -> addressBook.getPersonList().remove(0));
@@ -2,6 +2,7 @@ package seedu.address.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static seedu.address.model.Model.PREDICATE_SHOW_ALL_PERSONS;
 import static seedu.address.testutil.Assert.assertThrows;
@@ -29,6 +30,19 @@ public class ModelManagerTest {
         assertEquals(new AddressBook(), new AddressBook(modelManager.getAddressBook()));
     }
 
+    @Test
+    public void adopt_addressBook_usesGivenAddressBookWithoutCopying() {
+        AddressBook addressBook = new AddressBookBuilder().withPerson(ALICE).build();
+        ModelManager adoptingModelManager = ModelManager.adopt(addressBook, new UserPrefs());
+        assertSame(addressBook, adoptingModelManager.getAddressBook());
+        assertEquals(new ModelManager(addressBook, new UserPrefs()), adoptingModelManager);
+    }
+
+    @Test
+    public void adopt_nullAddressBook_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> ModelManager.adopt(null, new UserPrefs()));
+    }
+
     @Test
     public void setUserPrefs_nullUserPrefs_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> modelManager.setUserPrefs(null));
@@ -1,6 +1,7 @@
 package seedu.address.model.tag;
 
 import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.ValidatorTestUtil.assertEquivalentToRegex;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,4 +24,9 @@ public class TagTest {
         assertThrows(NullPointerException.class, () -> Tag.isValidTagName(null));
     }
 
+    @Test
+    public void isValidTagName_equivalentToValidationRegex() {
+        assertEquivalentToRegex(Tag::isValidTagName, Tag.VALIDATION_REGEX, "aZ9 #", 5);
+    }
+
 }
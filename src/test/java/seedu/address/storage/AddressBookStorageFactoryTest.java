@@ -0,0 +1,107 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.core.AddressBookStorageFormat;
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.model.UserPrefs;
+import seedu.address.storage.AddressBookStorageFactory.Option;
+
+public class AddressBookStorageFactoryTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private UserPrefs userPrefs;
+
+    @BeforeEach
+    public void setUp() {
+        userPrefs = new UserPrefs();
+        userPrefs.setAddressBookFilePath(testFolder.resolve("addressbook"));
+    }
+
+    @Test
+    public void getUsedOptions_unsupportedOptions_notUsed() {
+        EnumSet<Option> enabledOptions = EnumSet.of(Option.COMPRESSION, Option.INDEX, Option.RELOAD);
+        assertEquals(EnumSet.of(Option.COMPRESSION, Option.RELOAD),
+                AddressBookStorageFactory.getUsedOptions(AddressBookStorageFormat.JSON, enabledOptions));
+        assertEquals(EnumSet.of(Option.INDEX, Option.RELOAD),
+                AddressBookStorageFactory.getUsedOptions(AddressBookStorageFormat.BINARY, enabledOptions));
+        assertEquals(EnumSet.noneOf(Option.class),
+                AddressBookStorageFactory.getUsedOptions(AddressBookStorageFormat.SQLITE, enabledOptions));
+    }
+
+    @Test
+    public void getUsedOptions_excludedOptions_onlyExcludedByUsedOptions() {
+        // segmentation rules out journaling, so journaling does not rule out indexing
+        assertEquals(EnumSet.of(Option.SEGMENTATION, Option.INDEX), AddressBookStorageFactory.getUsedOptions(
+                AddressBookStorageFormat.BINARY, EnumSet.of(Option.SEGMENTATION, Option.JOURNAL, Option.INDEX)));
+        assertEquals(EnumSet.of(Option.JOURNAL), AddressBookStorageFactory.getUsedOptions(
+                AddressBookStorageFormat.BINARY, EnumSet.of(Option.JOURNAL, Option.INDEX, Option.RELOAD)));
+    }
+
+    @Test
+    public void createAddressBookStorage_jsonLinesSegmented_notSegmented() {
+        userPrefs.setAddressBookStorageFormat(AddressBookStorageFormat.JSON_LINES);
+        userPrefs.setAddressBookSegmentationEnabled(true);
+        userPrefs.setAddressBookJournalEnabled(true);
+        assertTrue(new AddressBookStorageFactory(userPrefs, FsyncPolicy.ON_CHECKPOINT).createAddressBookStorage()
+                instanceof JsonLinesAddressBookStorage);
+    }
+
+    @Test
+    public void createAddressBookStorage_jsonWithSnapshot_snapshotStorageReturned() {
+        AddressBookStorageFactory factory = new AddressBookStorageFactory(userPrefs, FsyncPolicy.ON_CHECKPOINT);
+        AddressBookStorage addressBookStorage = factory.createAddressBookStorage();
+        assertSame(addressBookStorage, factory.getSnapshotAddressBookStorage().get());
+        assertFalse(factory.getReloadingAddressBookStorage().isPresent());
+    }
+
+    @Test
+    public void createAddressBookStorage_fsyncPolicy_passedToStorage() {
+        userPrefs.setAddressBookSnapshotEnabled(false);
+        AddressBookStorage addressBookStorage = new AddressBookStorageFactory(userPrefs, FsyncPolicy.NEVER)
+                .createAddressBookStorage();
+        assertEquals(FsyncPolicy.NEVER, ((JsonAddressBookStorage) addressBookStorage).getFsyncPolicy());
+    }
+
+    @Test
+    public void createAddressBookStorage_segmentedJsonWithSnapshotAndJournal_onlySegmented() {
+        userPrefs.setAddressBookSegmentationEnabled(true);
+        userPrefs.setAddressBookJournalEnabled(true);
+        AddressBookStorageFactory factory = new AddressBookStorageFactory(userPrefs, FsyncPolicy.ON_CHECKPOINT);
+        assertTrue(factory.createAddressBookStorage() instanceof SegmentedAddressBookStorage);
+        assertFalse(factory.getSnapshotAddressBookStorage().isPresent());
+    }
+
+    @Test
+    public void createAddressBookStorage_journaledBinaryWithReload_journaledOnly() {
+        userPrefs.setAddressBookStorageFormat(AddressBookStorageFormat.BINARY);
+        userPrefs.setAddressBookJournalEnabled(true);
+        userPrefs.setAddressBookReloadEnabled(true);
+        AddressBookStorageFactory factory = new AddressBookStorageFactory(userPrefs, FsyncPolicy.ON_CHECKPOINT);
+        assertTrue(factory.createAddressBookStorage() instanceof JournalAddressBookStorage);
+        assertFalse(factory.getReloadingAddressBookStorage().isPresent());
+    }
+
+    @Test
+    public void createAddressBookStorage_reloadedBinary_reloadingStorageReturned() {
+        userPrefs.setAddressBookStorageFormat(AddressBookStorageFormat.BINARY);
+        userPrefs.setAddressBookReloadEnabled(true);
+        AddressBookStorageFactory factory = new AddressBookStorageFactory(userPrefs, FsyncPolicy.ON_CHECKPOINT);
+        AddressBookStorage addressBookStorage = factory.createAddressBookStorage();
+        assertSame(addressBookStorage, factory.getReloadingAddressBookStorage().get());
+        assertFalse(factory.getSnapshotAddressBookStorage().isPresent());
+    }
+
+}
@@ -0,0 +1,285 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+import seedu.address.testutil.PersonBuilder;
+
+public class BinaryAddressBookStorageTest {
+    private static final Path TEST_DATA_FOLDER = Paths.get("src", "test", "data", "BinaryAddressBookStorageTest");
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void readAddressBook_nullFilePath_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> new BinaryAddressBookStorage(null).readAddressBook(null));
+    }
+
+    @Test
+    public void read_missingFile_emptyResult() throws Exception {
+        Path filePath = TEST_DATA_FOLDER.resolve("NonExistentFile.bin");
+        assertFalse(new BinaryAddressBookStorage(filePath).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void read_notBinaryFormat_exceptionThrown() {
+        Path filePath = TEST_DATA_FOLDER.resolve("notBinaryFormatAddressBook.bin");
+        assertThrows(DataLoadingException.class, () -> new BinaryAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void read_unsupportedVersion_exceptionThrown() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(filePath))) {
+            output.writeInt(BinaryAddressBookStorage.MAGIC);
+            output.writeInt(BinaryAddressBookStorage.FORMAT_VERSION + 1);
+        }
+        assertThrows(DataLoadingException.class, () -> new BinaryAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void read_truncatedFile_leadingPersonsRecovered() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = getTypicalAddressBook();
+        new BinaryAddressBookStorage(filePath).saveAddressBook(original);
+        byte[] bytes = Files.readAllBytes(filePath);
+        try (OutputStream output = Files.newOutputStream(filePath)) {
+            output.write(bytes, 0, bytes.length / 2);
+        }
+
+        List<Person> persons = new BinaryAddressBookStorage(filePath).readAddressBook().get().getPersonList();
+        assertFalse(persons.isEmpty());
+        assertEquals(original.getPersonList().subList(0, persons.size()), persons);
+        assertTrue(Files.exists(BinaryAddressBookStorage.getCorruptFilePath(filePath)));
+    }
+
+    @Test
+    public void read_corruptRecord_onlyCorruptPersonSkipped() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = getTypicalAddressBook();
+        new BinaryAddressBookStorage(filePath).saveAddressBook(original);
+        byte[] bytes = Files.readAllBytes(filePath);
+        flipByteOf(bytes, ALICE.getAddress().value);
+        Files.write(filePath, bytes);
+
+        AddressBook expected = getTypicalAddressBook();
+        expected.removePerson(ALICE);
+        assertEquals(expected, new AddressBook(new BinaryAddressBookStorage(filePath).readAddressBook().get()));
+        assertArrayEquals(bytes, Files.readAllBytes(BinaryAddressBookStorage.getCorruptFilePath(filePath)));
+    }
+
+    @Test
+    public void read_corruptRecordLength_otherPersonsFoundThroughFooter() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = getTypicalAddressBook();
+        new BinaryAddressBookStorage(filePath).saveAddressBook(original);
+        byte[] bytes = Files.readAllBytes(filePath);
+        // the length of Alice's record precedes its checksum and the length of her name
+        int nameLengthIndex = indexOf(bytes, ALICE.getName().fullName) - Integer.BYTES;
+        bytes[nameLengthIndex - 2 * Integer.BYTES] ^= 0x7F;
+        Files.write(filePath, bytes);
+
+        AddressBook expected = getTypicalAddressBook();
+        expected.removePerson(ALICE);
+        assertEquals(expected, new AddressBook(new BinaryAddressBookStorage(filePath).readAddressBook().get()));
+    }
+
+    @Test
+    public void read_corruptTagDictionary_exceptionThrown() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        new BinaryAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        byte[] bytes = Files.readAllBytes(filePath);
+        flipByteOf(bytes, "friends");
+        Files.write(filePath, bytes);
+
+        assertThrows(DataLoadingException.class, () -> new BinaryAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void read_intactFile_noCorruptFileKept() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        new BinaryAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        new BinaryAddressBookStorage(filePath).readAddressBook();
+        assertFalse(Files.exists(BinaryAddressBookStorage.getCorruptFilePath(filePath)));
+    }
+
+    private static int indexOf(byte[] bytes, String value) {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= bytes.length - valueBytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + valueBytes.length, valueBytes, 0, valueBytes.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError(value + " not found");
+    }
+
+    /**
+     * Changes the first byte of the first occurrence of {@code value} in {@code bytes}.
+     */
+    private static void flipByteOf(byte[] bytes, String value) {
+        bytes[indexOf(bytes, value)] ^= 0x01;
+    }
+
+    @Test
+    public void read_unchecksummedFormat_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(filePath))) {
+            output.writeInt(BinaryAddressBookStorage.MAGIC);
+            output.writeInt(BinaryAddressBookStorage.FORMAT_VERSION_UNCHECKSUMMED);
+            output.writeInt(1); // one tag
+            writeString(output, "friends");
+            output.writeInt(1); // one person
+            for (String value : new String[] {"Hans Muster", "94824242", "hans@example.com", "4th street"}) {
+                writeString(output, value);
+            }
+            output.writeInt(1);
+            output.writeInt(0);
+        }
+
+        AddressBook expected = new AddressBook();
+        expected.addPerson(new PersonBuilder().withName("Hans Muster").withPhone("94824242")
+                .withEmail("hans@example.com").withAddress("4th street").withTags("friends").build());
+        assertEquals(expected, new AddressBook(new BinaryAddressBookStorage(filePath).readAddressBook().get()));
+    }
+
+    @Test
+    public void read_invalidPerson_exceptionThrown() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(filePath))) {
+            output.writeInt(BinaryAddressBookStorage.MAGIC);
+            output.writeInt(BinaryAddressBookStorage.FORMAT_VERSION_UNCHECKSUMMED);
+            output.writeInt(0); // no tags
+            output.writeInt(1); // one person
+            for (String value : new String[] {"Hans Muster", "9482asf424", "hans@example", "4th street"}) {
+                writeString(output, value);
+            }
+            output.writeInt(0);
+        }
+        assertThrows(DataLoadingException.class, () -> new BinaryAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAndSaveAddressBook_allInOrder_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = getTypicalAddressBook();
+        BinaryAddressBookStorage binaryAddressBookStorage = new BinaryAddressBookStorage(filePath);
+
+        // Save in new file and read back
+        binaryAddressBookStorage.saveAddressBook(original, filePath);
+        ReadOnlyAddressBook readBack = binaryAddressBookStorage.readAddressBook(filePath).get();
+        assertEquals(original, new AddressBook(readBack));
+
+        // Modify data, overwrite exiting file, and read back
+        original.addPerson(HOON);
+        original.removePerson(ALICE);
+        binaryAddressBookStorage.saveAddressBook(original, filePath);
+        readBack = binaryAddressBookStorage.readAddressBook(filePath).get();
+        assertEquals(original, new AddressBook(readBack));
+
+        // Save and read without specifying file path
+        original.addPerson(ALICE);
+        binaryAddressBookStorage.saveAddressBook(original); // file path not specified
+        readBack = binaryAddressBookStorage.readAddressBook().get(); // file path not specified
+        assertEquals(original, new AddressBook(readBack));
+    }
+
+    @Test
+    public void readAddressBook_memoryMapped_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = getTypicalAddressBook();
+        BinaryAddressBookStorage mappingStorage =
+                new BinaryAddressBookStorage(filePath, false, FsyncPolicy.ON_CHECKPOINT, 0);
+        mappingStorage.saveAddressBook(original);
+        assertEquals(original, new AddressBook(mappingStorage.readAddressBook().get()));
+    }
+
+    @Test
+    public void readAddressBook_memoryMapped_mappingReleased() throws Exception {
+        Path mapsFilePath = Paths.get("/proc/self/maps");
+        assumeTrue(Files.isReadable(mapsFilePath));
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        BinaryAddressBookStorage mappingStorage =
+                new BinaryAddressBookStorage(filePath, false, FsyncPolicy.ON_CHECKPOINT, 0);
+        mappingStorage.saveAddressBook(getTypicalAddressBook());
+
+        mappingStorage.readAddressBook();
+        assertFalse(Files.readString(mapsFilePath).contains(filePath.toRealPath().toString()));
+    }
+
+    @Test
+    public void readAddressBook_countLargerThanFile_exceptionThrown() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(filePath))) {
+            output.writeInt(BinaryAddressBookStorage.MAGIC);
+            output.writeInt(BinaryAddressBookStorage.FORMAT_VERSION);
+            output.writeInt(Integer.MAX_VALUE);
+        }
+        assertThrows(DataLoadingException.class, () ->
+                new BinaryAddressBookStorage(filePath, false, FsyncPolicy.ON_CHECKPOINT, 0).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_sharedTag_sameTagInstance() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.bin");
+        AddressBook original = new AddressBook();
+        original.addPerson(new PersonBuilder().withName("Amy").withTags("friends").build());
+        original.addPerson(new PersonBuilder().withName("Bob").withTags("friends").build());
+        new BinaryAddressBookStorage(filePath).saveAddressBook(original);
+
+        List<Person> persons = new BinaryAddressBookStorage(filePath).readAddressBook().get().getPersonList();
+        Tag firstTag = persons.get(0).getTags().iterator().next();
+        Tag secondTag = persons.get(1).getTags().iterator().next();
+        assertSame(firstTag, secondTag);
+    }
+
+    @Test
+    public void saveAddressBook_nullAddressBook_throwsNullPointerException() {
+        Path filePath = testFolder.resolve("SomeFile.bin");
+        assertThrows(NullPointerException.class, () -> new BinaryAddressBookStorage(filePath).saveAddressBook(null));
+    }
+
+    @Test
+    public void saveAddressBook_typicalAddressBook_smallerThanCompactJson() throws IOException {
+        Path binaryFilePath = testFolder.resolve("TempAddressBook.bin");
+        Path jsonFilePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        new BinaryAddressBookStorage(binaryFilePath).saveAddressBook(original);
+        new JsonAddressBookStorage(jsonFilePath, false).saveAddressBook(original);
+        assertTrue(Files.size(binaryFilePath) < Files.size(jsonFilePath));
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+}
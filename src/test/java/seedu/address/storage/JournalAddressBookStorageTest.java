@@ -0,0 +1,187 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.BOB;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.IDA;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.testutil.PersonBuilder;
+
+public class JournalAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private Path journalFilePath;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("TempAddressBook.json");
+        journalFilePath = JournalAddressBookStorage.getJournalFilePath(filePath);
+    }
+
+    private JournalAddressBookStorage createStorage(int checkpointInterval) {
+        return new JournalAddressBookStorage(new JsonAddressBookStorage(filePath), checkpointInterval);
+    }
+
+    private AddressBook readBack() throws Exception {
+        return new AddressBook(createStorage(100).readAddressBook().get());
+    }
+
+    @Test
+    public void constructor_nonPositiveCheckpointInterval_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> createStorage(0));
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(createStorage(100).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void readAndSaveAddressBook_changesJournaled_success() throws Exception {
+        JournalAddressBookStorage storage = createStorage(100);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        long snapshotSize = Files.size(filePath);
+
+        // add, edit in place with a new identity, and delete
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        original.setPerson(BENSON, BOB);
+        storage.saveAddressBook(original);
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+
+        assertEquals(snapshotSize, Files.size(filePath));
+        assertEquals(4, Files.readAllLines(journalFilePath).size());
+        assertEquals(original, readBack());
+    }
+
+    @Test
+    public void saveAddressBook_unchangedAddressBook_nothingAppended() throws Exception {
+        JournalAddressBookStorage storage = createStorage(100);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        storage.saveAddressBook(original);
+        storage.saveAddressBook(new AddressBook(original));
+
+        assertEquals(1, Files.readAllLines(journalFilePath).size());
+    }
+
+    @Test
+    public void saveAddressBook_checkpointIntervalReached_journalTruncated() throws Exception {
+        JournalAddressBookStorage storage = createStorage(2);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        original.addPerson(IDA);
+        storage.saveAddressBook(original);
+        assertEquals(3, Files.readAllLines(journalFilePath).size());
+
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+        assertEquals(1, Files.readAllLines(journalFilePath).size());
+        assertEquals(original, new AddressBook(new JsonAddressBookStorage(filePath).readAddressBook().get()));
+        assertEquals(original, readBack());
+    }
+
+    @Test
+    public void readAddressBook_journalOfOtherSnapshot_journalIgnored() throws Exception {
+        JournalAddressBookStorage storage = createStorage(100);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        // snapshot rewritten with the journaled change, but the journal was not truncated
+        new JsonAddressBookStorage(filePath).saveAddressBook(original);
+
+        assertEquals(original, readBack());
+    }
+
+    @Test
+    public void readAddressBook_journalOfSnapshotWithSameHashCode_journalIgnored() throws Exception {
+        // "Aa" and "BB" have the same hash code, and so do lists of persons that only differ in them
+        AddressBook original = new AddressBook();
+        original.addPerson(new PersonBuilder(ALICE).withName("Aa").build());
+        AddressBook other = new AddressBook();
+        other.addPerson(new PersonBuilder(ALICE).withName("BB").build());
+        assertEquals(original.getPersonList().hashCode(), other.getPersonList().hashCode());
+
+        JournalAddressBookStorage storage = createStorage(100);
+        storage.saveAddressBook(original);
+        AddressBook changed = new AddressBook(original);
+        changed.addPerson(HOON);
+        storage.saveAddressBook(changed);
+
+        new JsonAddressBookStorage(filePath).saveAddressBook(other);
+        assertEquals(other, readBack());
+    }
+
+    @Test
+    public void readAddressBook_incompleteLastEntry_entryDiscarded() throws Exception {
+        JournalAddressBookStorage storage = createStorage(100);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        Files.write(journalFilePath, "{\"from\":8,\"remo".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        JournalAddressBookStorage reopenedStorage = createStorage(100);
+        assertEquals(original, new AddressBook(reopenedStorage.readAddressBook().get()));
+
+        // the next save starts a new journal instead of appending to the incomplete entry
+        original.addPerson(IDA);
+        reopenedStorage.saveAddressBook(original);
+        assertEquals(1, Files.readAllLines(journalFilePath).size());
+        assertEquals(original, readBack());
+    }
+
+    @Test
+    public void readAddressBook_malformedEntry_throwsDataLoadingException() throws Exception {
+        JournalAddressBookStorage storage = createStorage(100);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        List<String> lines = Files.readAllLines(journalFilePath);
+        lines.add(1, "not an entry");
+        Files.write(journalFilePath, lines);
+
+        assertThrows(DataLoadingException.class, () -> createStorage(100).readAddressBook());
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_fullSnapshotSaved() throws Exception {
+        Path otherFilePath = testFolder.resolve("OtherAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        createStorage(100).saveAddressBook(original, otherFilePath);
+
+        assertFalse(Files.exists(JournalAddressBookStorage.getJournalFilePath(otherFilePath)));
+        assertEquals(original, new AddressBook(new JsonAddressBookStorage(otherFilePath).readAddressBook().get()));
+    }
+
+}
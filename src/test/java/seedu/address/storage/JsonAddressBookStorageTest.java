@@ -2,6 +2,8 @@ package seedu.address.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static seedu.address.testutil.Assert.assertThrows;
 import static seedu.address.testutil.TypicalPersons.ALICE;
 import static seedu.address.testutil.TypicalPersons.HOON;
@@ -9,15 +11,27 @@ import static seedu.address.testutil.TypicalPersons.IDA;
 import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import seedu.address.commons.core.Compression;
 import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.commons.util.JsonUtil;
 import seedu.address.model.AddressBook;
 import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+import seedu.address.testutil.PersonBuilder;
 
 public class JsonAddressBookStorageTest {
     private static final Path TEST_DATA_FOLDER = Paths.get("src", "test", "data", "JsonAddressBookStorageTest");
@@ -86,6 +100,152 @@ public class JsonAddressBookStorageTest {
 
     }
 
+    @Test
+    public void saveAddressBook_prettyPrinted_sameAsSerializedAddressBook() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        new JsonAddressBookStorage(filePath).saveAddressBook(original);
+
+        assertEquals(JsonUtil.toJsonString(new JsonSerializableAddressBook(original)), FileUtil.readFromFile(filePath));
+    }
+
+    @Test
+    public void readAndSaveAddressBook_notPrettyPrinted_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        JsonAddressBookStorage jsonAddressBookStorage = new JsonAddressBookStorage(filePath, false);
+        jsonAddressBookStorage.saveAddressBook(original);
+
+        assertEquals(JsonUtil.toCompactJsonString(new JsonSerializableAddressBook(original)),
+                FileUtil.readFromFile(filePath));
+        assertEquals(original, new AddressBook(jsonAddressBookStorage.readAddressBook().get()));
+    }
+
+    @Test
+    public void readAndSaveAddressBook_compressed_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        JsonAddressBookStorage uncompressedStorage = new JsonAddressBookStorage(filePath);
+        uncompressedStorage.saveAddressBook(original);
+        long uncompressedSize = Files.size(filePath);
+
+        for (Compression compression : Compression.values()) {
+            new JsonAddressBookStorage(filePath, true, compression).saveAddressBook(original);
+            if (compression != Compression.NONE) {
+                assertTrue(Files.size(filePath) < uncompressedSize);
+            }
+            // the compression is told from the file itself
+            assertEquals(original, new AddressBook(uncompressedStorage.readAddressBook().get()));
+        }
+    }
+
+    @Test
+    public void saveAddressBook_largeAddressBook_sameAsSerializedAddressBook() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = new AddressBook();
+        for (int i = 0; i < 5000; i++) {
+            original.addPerson(new PersonBuilder().withName("Person " + i).withPhone(String.valueOf(90000000 + i))
+                    .withTags(i % 2 == 0 ? new String[] {"friends"} : new String[] {"colleagues", "owesMoney"})
+                    .build());
+        }
+
+        new JsonAddressBookStorage(filePath).saveAddressBook(original);
+        assertEquals(JsonUtil.toJsonString(new JsonSerializableAddressBook(original)), FileUtil.readFromFile(filePath));
+        new JsonAddressBookStorage(filePath, false).saveAddressBook(original);
+        assertEquals(JsonUtil.toCompactJsonString(new JsonSerializableAddressBook(original)),
+                FileUtil.readFromFile(filePath));
+        assertEquals(original, new AddressBook(new JsonAddressBookStorage(filePath).readAddressBook().get()));
+    }
+
+    @Test
+    public void readAddressBook_truncatedCompressedFile_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        new JsonAddressBookStorage(filePath, true, Compression.GZIP).saveAddressBook(getTypicalAddressBook());
+        byte[] bytes = Files.readAllBytes(filePath);
+        Files.write(filePath, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(DataLoadingException.class, () -> new JsonAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAndSaveAddressBook_tagDictionary_success() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        new JsonAddressBookStorage(filePath, false).saveAddressBook(original);
+        long sizeWithoutDictionary = Files.size(filePath);
+
+        JsonAddressBookStorage jsonAddressBookStorage = new JsonAddressBookStorage(filePath, false,
+                Compression.NONE, true);
+        jsonAddressBookStorage.saveAddressBook(original);
+        String json = FileUtil.readFromFile(filePath);
+        assertTrue(json.startsWith("{\"" + JsonAddressBookStorage.TAG_DICTIONARY_FIELD + "\":["));
+        assertFalse(json.contains("\"tags\""));
+        assertTrue(Files.size(filePath) < sizeWithoutDictionary);
+
+        assertEquals(original, new AddressBook(jsonAddressBookStorage.readAddressBook().get()));
+        // files with a tag dictionary are read whatever the setting
+        assertEquals(original, new AddressBook(new JsonAddressBookStorage(filePath).readAddressBook().get()));
+    }
+
+    @Test
+    public void readAddressBook_withOrWithoutTagDictionary_tagsInterned() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        for (boolean isTagDictionaryEnabled : new boolean[] {false, true}) {
+            new JsonAddressBookStorage(filePath, true, Compression.NONE, isTagDictionaryEnabled)
+                    .saveAddressBook(getTypicalAddressBook());
+
+            Map<Tag, Tag> distinctTags = new HashMap<>();
+            for (Person person : new JsonAddressBookStorage(filePath).readAddressBook().get().getPersonList()) {
+                for (Tag tag : person.getTags()) {
+                    assertSame(distinctTags.computeIfAbsent(tag, t -> tag), tag);
+                }
+            }
+            assertEquals(2, distinctTags.size());
+        }
+    }
+
+    @Test
+    public void readAddressBook_unknownTagId_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        FileUtil.writeToFile(filePath, "{\"" + JsonAddressBookStorage.TAG_DICTIONARY_FIELD + "\": [\"friends\"],"
+                + " \"persons\": [{\"name\": \"Rachel\", \"phone\": \"98765432\","
+                + " \"email\": \"rachel@example.com\", \"address\": \"a\", \"tagIds\": [1]}]}");
+        assertThrows(DataLoadingException.class, () -> new JsonAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_manyPersonsWithInvalid_firstInvalidPersonNamed() throws Exception {
+        Path filePath = testFolder.resolve("TempAddressBook.json");
+        // an invalid tag is found while reading, and an invalid name only when the persons are validated in parallel
+        FileUtil.writeToFile(filePath, createPersonsJson(5000, 1499, 2999));
+        String expectedMessage = new DataLoadingException(new IllegalValueException(String.format(
+                JsonSerializableAddressBook.MESSAGE_INVALID_PERSON, 1500, Name.MESSAGE_CONSTRAINTS))).getMessage();
+        assertThrows(DataLoadingException.class, expectedMessage, () ->
+                new JsonAddressBookStorage(filePath).readAddressBook());
+
+        FileUtil.writeToFile(filePath, createPersonsJson(5000, 2999, 1499));
+        expectedMessage = new DataLoadingException(new IllegalValueException(String.format(
+                JsonSerializableAddressBook.MESSAGE_INVALID_PERSON, 1500, Tag.MESSAGE_CONSTRAINTS))).getMessage();
+        assertThrows(DataLoadingException.class, expectedMessage, () ->
+                new JsonAddressBookStorage(filePath).readAddressBook());
+    }
+
+    /**
+     * Returns the JSON of an address book of {@code count} persons, in which the person at {@code invalidNameIndex}
+     * has an invalid name and the one at {@code invalidTagIndex} an invalid tag.
+     */
+    private static String createPersonsJson(int count, int invalidNameIndex, int invalidTagIndex) {
+        StringBuilder json = new StringBuilder("{\"persons\": [");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"name\": \"").append(i == invalidNameIndex ? "Pers@n " : "Person ").append(i)
+                    .append("\", \"phone\": \"").append(90000000 + i)
+                    .append("\", \"email\": \"person@example.com\", \"address\": \"a\", \"tags\": [\"")
+                    .append(i == invalidTagIndex ? "not a tag" : "friends").append("\"]}");
+        }
+        return json.append("]}").toString();
+    }
+
     @Test
     public void saveAddressBook_nullAddressBook_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> saveAddressBook(null, "SomeFile.json"));
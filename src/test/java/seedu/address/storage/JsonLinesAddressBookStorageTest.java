@@ -0,0 +1,363 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.CARL;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.FileUtil;
+import seedu.address.commons.util.JsonUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+public class JsonLinesAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("addressbook.jsonl");
+    }
+
+    private JsonLinesAddressBookStorage createStorage(int minCompactionGarbage) {
+        return new JsonLinesAddressBookStorage(filePath, FsyncPolicy.ON_CHECKPOINT, minCompactionGarbage,
+                Runnable::run);
+    }
+
+    private static String jsonLineOf(Person person) throws Exception {
+        return JsonUtil.toCompactJsonString(new JsonAdaptedPerson(person));
+    }
+
+    private static String jsonLineOf(Person person, long order) throws Exception {
+        return "{\"order\":" + order + "," + jsonLineOf(person).substring(1);
+    }
+
+    private List<String> readLines() throws Exception {
+        return Files.readAllLines(filePath, StandardCharsets.UTF_8);
+    }
+
+    private static String commitLineOf(int lineCount) {
+        return "{\"commit\":" + lineCount + "}";
+    }
+
+    private void truncateFile(long size) throws Exception {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private ReadOnlyAddressBook readFresh() throws Exception {
+        return new JsonLinesAddressBookStorage(filePath).readAddressBook().get();
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new JsonLinesAddressBookStorage(filePath).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void saveAddressBook_newFile_onePersonPerLine() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new JsonLinesAddressBookStorage(filePath).saveAddressBook(original);
+
+        List<String> lines = readLines();
+        assertEquals(original.getPersonList().size() + 1, lines.size());
+        assertEquals(jsonLineOf(ALICE, PersonOrders.ORDER_GAP), lines.get(0));
+        assertEquals(commitLineOf(original.getPersonList().size()), lines.get(lines.size() - 1));
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void saveAddressBook_changes_onlyChangesAppended() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        List<String> savedLines = readLines();
+
+        Person editedBenson = new PersonBuilder(BENSON).withPhone("12345678").build();
+        original.setPerson(BENSON, editedBenson);
+        original.removePerson(CARL);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        // an edit is a single line that replaces the person, and only a removal needs a tombstone
+        List<String> expectedLines = new ArrayList<>(savedLines);
+        expectedLines.add("{\"deleted\":\"Carl Kurz\"}");
+        expectedLines.add(jsonLineOf(editedBenson, 2 * PersonOrders.ORDER_GAP));
+        expectedLines.add(jsonLineOf(HOON, 8 * PersonOrders.ORDER_GAP));
+        expectedLines.add(commitLineOf(3));
+        assertEquals(expectedLines, readLines());
+
+        // edited persons keep their position
+        assertEquals(original, new AddressBook(readFresh()));
+
+        // saving the same persons again appends nothing
+        storage.saveAddressBook(original);
+        assertEquals(expectedLines, readLines());
+    }
+
+    @Test
+    public void saveAddressBook_renamedPerson_positionKept() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        int savedLineCount = readLines().size();
+
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withName("Benson Renamed").build());
+        storage.saveAddressBook(original);
+        // a tombstone, the renamed person and a commit
+        assertEquals(savedLineCount + 3, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void saveAddressBook_personRemovedAndAddedAgain_movedToEnd() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+        original.addPerson(ALICE);
+        storage.saveAddressBook(original);
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void saveAddressBook_compactionQueuedBeforeSave_currentPersonsCompacted() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        List<Runnable> compactions = new ArrayList<>();
+        JsonLinesAddressBookStorage storage = new JsonLinesAddressBookStorage(filePath, FsyncPolicy.ON_CHECKPOINT,
+                1, compactions::add);
+        storage.saveAddressBook(original);
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+        original.removePerson(BENSON);
+        storage.saveAddressBook(original);
+        assertEquals(1, compactions.size());
+
+        compactions.get(0).run();
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+        assertFalse(Files.exists(testFolder.resolve("addressbook.jsonl"
+                + JsonLinesAddressBookStorage.COMPACTED_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void saveAddressBook_garbageThresholdPassed_fileCompacted() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(4);
+        storage.saveAddressBook(original);
+
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withPhone("12345678").build());
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 3, readLines().size());
+
+        // 6 garbage lines (3 commits, a replaced person, a tombstone and the person it removes) are not more than
+        // the 6 persons left
+        original.removePerson(CARL);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 6, readLines().size());
+
+        // 9 garbage lines are more than the 5 persons left
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+        assertFalse(Files.exists(testFolder.resolve("addressbook.jsonl" + FileUtil.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void readAddressBook_garbageInFile_compactedAfterNextSave() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage savingStorage =
+                createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        savingStorage.saveAddressBook(original);
+        for (Person person : List.copyOf(original.getPersonList()).subList(0, 4)) {
+            original.removePerson(person);
+            savingStorage.saveAddressBook(original);
+        }
+        assertEquals(original.getPersonList().size() + 13, readLines().size());
+
+        // garbage lines are counted when the file is read
+        JsonLinesAddressBookStorage storage = createStorage(1);
+        storage.readAddressBook();
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void readAddressBook_incompleteLastLine_discardedAndFileRewritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        Files.writeString(filePath, "{\"name\":\"Hoon Mei", StandardOpenOption.APPEND);
+
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void readAddressBook_batchCutOffAfterTombstone_wholeBatchDiscarded() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        long savedSize = Files.size(filePath);
+
+        // a rename is a tombstone and a person line, which must not be applied without each other
+        AddressBook renamed = new AddressBook(original);
+        renamed.setPerson(ALICE, new PersonBuilder(ALICE).withName("Alice Renamed").build());
+        storage.saveAddressBook(renamed);
+        String tombstoneLine = readLines().get(original.getPersonList().size() + 1) + "\n";
+        truncateFile(savedSize + tombstoneLine.length() + 10);
+
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        // the torn batch is not appended to
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void readAddressBook_batchWithoutCommit_wholeBatchDiscarded() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        long savedSize = Files.size(filePath);
+
+        AddressBook changed = new AddressBook(original);
+        changed.removePerson(CARL);
+        changed.addPerson(HOON);
+        storage.saveAddressBook(changed);
+        // cut off just before the line separator that ends the person line, which leaves that line complete
+        truncateFile(Files.size(filePath) - commitLineOf(2).length() - 2);
+
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void saveAddressBook_fileNotEndingWithNewline_fileRewritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        storage.saveAddressBook(original);
+        // a complete commit without its line separator is read, but must not have the next batch joined onto it
+        truncateFile(Files.size(filePath) - 1);
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(original.getPersonList().size() + 1, readLines().size());
+        assertEquals(original, new AddressBook(readFresh()));
+    }
+
+    @Test
+    public void readAddressBook_linesWithoutCommit_readAndFileRewritten() throws Exception {
+        Files.writeString(filePath, jsonLineOf(ALICE) + "\n" + jsonLineOf(BENSON) + "\n");
+        JsonLinesAddressBookStorage storage = createStorage(JsonLinesAddressBookStorage.DEFAULT_MIN_COMPACTION_GARBAGE);
+        AddressBook expected = new AddressBook();
+        expected.addPerson(ALICE);
+        expected.addPerson(BENSON);
+        assertEquals(expected, new AddressBook(storage.readAddressBook().get()));
+
+        expected.addPerson(HOON);
+        storage.saveAddressBook(expected);
+        assertEquals(List.of(jsonLineOf(ALICE, PersonOrders.ORDER_GAP), jsonLineOf(BENSON, 2 * PersonOrders.ORDER_GAP),
+                jsonLineOf(HOON, 3 * PersonOrders.ORDER_GAP), commitLineOf(3)), readLines());
+    }
+
+    @Test
+    public void readAddressBook_malformedLine_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, "not json\n" + jsonLineOf(ALICE) + "\n");
+        assertThrows(DataLoadingException.class, () -> new JsonLinesAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_invalidPerson_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, jsonLineOf(ALICE).replace("Alice", "Al!ce") + "\n");
+        String expectedMessage = new DataLoadingException(new IllegalValueException(
+                String.format(JsonLinesAddressBookStorage.MESSAGE_INVALID_PERSON, 1, Name.MESSAGE_CONSTRAINTS)))
+                .getMessage();
+        assertThrows(DataLoadingException.class, expectedMessage, () ->
+                new JsonLinesAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_tombstoneOfUnknownPerson_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, jsonLineOf(ALICE) + "\n{\"deleted\":\"Benson Meier\"}\n");
+        assertThrows(DataLoadingException.class, () -> new JsonLinesAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_commitOfWrongLineCount_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, jsonLineOf(ALICE) + "\n" + commitLineOf(2) + "\n");
+        assertThrows(DataLoadingException.class, () -> new JsonLinesAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_commitOutOfRange_throwsDataLoadingException() throws Exception {
+        for (String commitLine : List.of("{\"commit\":99999999999}", "{\"commit\":-1}")) {
+            Files.writeString(filePath, jsonLineOf(ALICE) + "\n" + commitLine + "\n" + jsonLineOf(BENSON) + "\n");
+            assertThrows(DataLoadingException.class, () -> new JsonLinesAddressBookStorage(filePath).readAddressBook());
+        }
+    }
+
+    @Test
+    public void readAddressBook_orderedPersonLines_sortedByOrder() throws Exception {
+        Files.writeString(filePath, jsonLineOf(ALICE, 2) + "\n" + jsonLineOf(BENSON, 1) + "\n" + commitLineOf(2)
+                + "\n");
+        assertEquals(List.of(BENSON, ALICE), readFresh().getPersonList());
+    }
+
+    @Test
+    public void readAddressBook_personLineWithSameName_replacesPerson() throws Exception {
+        Person editedAlice = new PersonBuilder(ALICE).withPhone("12345678").build();
+        Files.writeString(filePath, jsonLineOf(ALICE) + "\n" + jsonLineOf(BENSON) + "\n" + commitLineOf(2) + "\n"
+                + jsonLineOf(editedAlice) + "\n" + commitLineOf(1) + "\n");
+        assertEquals(List.of(editedAlice, BENSON), readFresh().getPersonList());
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_fullFileWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        Path otherFilePath = testFolder.resolve("other.jsonl");
+        JsonLinesAddressBookStorage storage = new JsonLinesAddressBookStorage(filePath);
+        storage.saveAddressBook(original, otherFilePath);
+
+        assertFalse(Files.exists(filePath));
+        assertEquals(original, new AddressBook(storage.readAddressBook(otherFilePath).get()));
+    }
+
+}
@@ -0,0 +1,158 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static seedu.address.storage.JsonAdaptedPerson.MISSING_FIELD_MESSAGE_FORMAT;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+
+import seedu.address.commons.exceptions.IllegalValueException;
+import seedu.address.commons.util.JsonUtil;
+import seedu.address.model.person.Email;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.model.tag.Tag;
+import seedu.address.testutil.PersonBuilder;
+
+public class JsonPersonCodecTest {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static Person readPerson(String json) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(json.replace('\'', '"'))) {
+            parser.nextToken();
+            return JsonPersonCodec.readPerson(parser);
+        }
+    }
+
+    private static Person readPerson(String json, TagDictionary dictionary) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(json.replace('\'', '"'))) {
+            parser.nextToken();
+            return JsonPersonCodec.readPerson(parser, dictionary);
+        }
+    }
+
+    private static String writePerson(Person person) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            JsonPersonCodec.writePerson(generator, person);
+        }
+        return writer.toString();
+    }
+
+    private static String writePerson(Person person, TagDictionary dictionary) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            JsonPersonCodec.writePerson(generator, person, dictionary);
+        }
+        return writer.toString();
+    }
+
+    private static TagDictionary readTagDictionary(String json) throws Exception {
+        TagDictionary dictionary = new TagDictionary();
+        try (JsonParser parser = jsonFactory.createParser(json.replace('\'', '"'))) {
+            parser.nextToken();
+            JsonPersonCodec.readTagDictionary(parser, dictionary);
+        }
+        return dictionary;
+    }
+
+    @Test
+    public void writePerson_sameJsonAsAdaptedPerson() throws Exception {
+        assertEquals(JsonUtil.toCompactJsonString(new JsonAdaptedPerson(BENSON)), writePerson(BENSON));
+    }
+
+    @Test
+    public void readPerson_writtenPerson_returnsPerson() throws Exception {
+        assertEquals(BENSON, readPerson(writePerson(BENSON)));
+    }
+
+    @Test
+    public void readPerson_unknownFieldsAndScalarValues_readAsDataBindingWould() throws Exception {
+        Person expected = new PersonBuilder().withName("Amy Bee").withPhone("85355255").withEmail("amy@gmail.com")
+                .withAddress("Block 312, Amy Street 1").withTags().build();
+        assertEquals(expected, readPerson("{'name': 'Amy Bee', 'phone': 85355255, 'notes': {'a': [1, 2]},"
+                + " 'email': 'amy@gmail.com', 'address': 'Block 312, Amy Street 1', 'tags': null}"));
+    }
+
+    @Test
+    public void readPerson_invalidName_throwsIllegalValueException() {
+        assertThrows(IllegalValueException.class, Name.MESSAGE_CONSTRAINTS, () -> readPerson(
+                "{'name': 'R@chel', 'phone': '98765432', 'email': 'rachel@example.com', 'address': 'a'}"));
+    }
+
+    @Test
+    public void readPerson_missingEmail_throwsIllegalValueException() {
+        String expectedMessage = String.format(MISSING_FIELD_MESSAGE_FORMAT, Email.class.getSimpleName());
+        assertThrows(IllegalValueException.class, expectedMessage, () -> readPerson(
+                "{'name': 'Rachel', 'phone': '98765432', 'email': null, 'address': 'a'}"));
+    }
+
+    @Test
+    public void readPerson_invalidTag_throwsIllegalValueException() {
+        assertThrows(IllegalValueException.class, Tag.MESSAGE_CONSTRAINTS, () -> readPerson(
+                "{'name': 'Rachel', 'phone': '98765432', 'email': 'rachel@example.com', 'address': 'a',"
+                        + " 'tags': ['friends', '#friend']}"));
+    }
+
+    @Test
+    public void writePerson_tagDictionary_writesTagIds() throws Exception {
+        Person person = new PersonBuilder(ALICE).withTags("friends").build();
+        TagDictionary dictionary = TagDictionary.of(List.of(BENSON, person));
+        int friendsId = dictionary.getId(new Tag("friends"));
+
+        String json = writePerson(person, dictionary);
+        assertEquals(writePerson(person).replace("\"tags\":[\"friends\"]", "\"tagIds\":[" + friendsId + "]"), json);
+        assertEquals(person, readPerson(json, dictionary));
+    }
+
+    @Test
+    public void readPerson_tagDictionary_tagsInterned() throws Exception {
+        TagDictionary dictionary = readTagDictionary("['friends', 'owesMoney']");
+        Person alice = readPerson(writePerson(ALICE), dictionary);
+        Person benson = readPerson(writePerson(BENSON, dictionary), dictionary);
+
+        assertEquals(ALICE, alice);
+        assertEquals(BENSON, benson);
+        Tag friends = dictionary.get(0);
+        assertSame(friends, alice.getTags().iterator().next());
+        assertSame(friends, benson.getTags().stream().filter(friends::equals).findFirst().get());
+    }
+
+    @Test
+    public void readPerson_unknownTagId_throwsIllegalValueException() {
+        String expectedMessage = String.format(TagDictionary.MESSAGE_UNKNOWN_TAG_ID, 2);
+        assertThrows(IllegalValueException.class, expectedMessage, () -> readPerson(
+                "{'name': 'Rachel', 'phone': '98765432', 'email': 'rachel@example.com', 'address': 'a',"
+                        + " 'tagIds': [0, 2]}", readTagDictionary("['friends', 'owesMoney']")));
+        assertThrows(JsonParseException.class, () -> readPerson(
+                "{'name': 'Rachel', 'phone': '98765432', 'email': 'rachel@example.com', 'address': 'a',"
+                        + " 'tagIds': ['friends']}", readTagDictionary("['friends']")));
+    }
+
+    @Test
+    public void readTagDictionary_invalidOrDuplicateTag_throwsIllegalValueException() {
+        assertThrows(IllegalValueException.class, Tag.MESSAGE_CONSTRAINTS, () -> readTagDictionary("['#friend']"));
+        assertThrows(IllegalValueException.class, String.format(TagDictionary.MESSAGE_DUPLICATE_TAG, "friends"), () ->
+                readTagDictionary("['friends', 'colleagues', 'friends']"));
+    }
+
+    @Test
+    public void readPerson_notAnObject_throwsJsonParseException() {
+        assertThrows(JsonParseException.class, () -> readPerson("['Rachel']"));
+        assertThrows(JsonParseException.class, () -> readPerson("{'name': ['Rachel']}"));
+    }
+
+}
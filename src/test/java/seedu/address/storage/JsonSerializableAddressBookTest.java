@@ -5,12 +5,17 @@ import static seedu.address.testutil.Assert.assertThrows;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import seedu.address.commons.exceptions.IllegalValueException;
 import seedu.address.commons.util.JsonUtil;
 import seedu.address.model.AddressBook;
+import seedu.address.model.person.Name;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
 import seedu.address.testutil.TypicalPersons;
 
 public class JsonSerializableAddressBookTest {
@@ -44,4 +49,39 @@ public class JsonSerializableAddressBookTest {
                 dataFromFile::toModelType);
     }
 
+    @Test
+    public void toModelPersons_manyPersons_convertedInOrder() throws Exception {
+        List<JsonAdaptedPerson> jsonAdaptedPersons = createJsonAdaptedPersons(
+                JsonSerializableAddressBook.PARALLEL_CONVERSION_THRESHOLD * 4);
+        List<Person> persons = JsonSerializableAddressBook.toModelPersons(jsonAdaptedPersons, 1);
+
+        assertEquals(jsonAdaptedPersons.size(), persons.size());
+        for (int i = 0; i < persons.size(); i++) {
+            assertEquals(jsonAdaptedPersons.get(i).toModelType(), persons.get(i));
+        }
+    }
+
+    @Test
+    public void toModelPersons_manyPersonsWithInvalid_firstInvalidPersonNamed() {
+        List<JsonAdaptedPerson> jsonAdaptedPersons = createJsonAdaptedPersons(
+                JsonSerializableAddressBook.PARALLEL_CONVERSION_THRESHOLD * 4);
+        JsonAdaptedPerson invalidPerson = new JsonAdaptedPerson("R@chel", "98765432", "rachel@example.com",
+                "Rachel's address", new ArrayList<>());
+        jsonAdaptedPersons.set(3000, invalidPerson);
+        jsonAdaptedPersons.set(1500, invalidPerson);
+
+        String expectedMessage = String.format(JsonSerializableAddressBook.MESSAGE_INVALID_PERSON, 1511,
+                Name.MESSAGE_CONSTRAINTS);
+        assertThrows(IllegalValueException.class, expectedMessage, () ->
+                JsonSerializableAddressBook.toModelPersons(jsonAdaptedPersons, 11));
+    }
+
+    private static List<JsonAdaptedPerson> createJsonAdaptedPersons(int count) {
+        List<JsonAdaptedPerson> jsonAdaptedPersons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jsonAdaptedPersons.add(new JsonAdaptedPerson(new PersonBuilder().withName("Person " + i).build()));
+        }
+        return jsonAdaptedPersons;
+    }
+
 }
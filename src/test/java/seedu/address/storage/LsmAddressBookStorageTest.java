@@ -0,0 +1,312 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.AMY;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.BOB;
+import static seedu.address.testutil.TypicalPersons.CARL;
+import static seedu.address.testutil.TypicalPersons.DANIEL;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.IDA;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.core.FsyncPolicy;
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+public class LsmAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private Path directoryPath;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("addressbook");
+        directoryPath = LsmAddressBookStorage.getDirectoryPath(filePath);
+    }
+
+    private LsmAddressBookStorage createStorage(int memtableLimit, int mergeSegmentCount) {
+        return new LsmAddressBookStorage(filePath, FsyncPolicy.ON_CHECKPOINT, memtableLimit, mergeSegmentCount,
+                Runnable::run);
+    }
+
+    private AddressBook readFresh() throws Exception {
+        return new AddressBook(new LsmAddressBookStorage(filePath).readAddressBook().get());
+    }
+
+    /**
+     * Returns the segments listed by the manifest.
+     */
+    private List<String> readListedSegments() throws Exception {
+        List<String> lines = Files.readAllLines(filePath);
+        return lines.subList(0, lines.size() - 1);
+    }
+
+    /**
+     * Returns the path of the log listed by the manifest.
+     */
+    private Path getLogFilePath() throws Exception {
+        List<String> lines = Files.readAllLines(filePath);
+        return directoryPath.resolve(lines.get(lines.size() - 1));
+    }
+
+    private void truncateFile(Path path, long size) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private List<String> listSegments() throws Exception {
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            return paths.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(LsmAddressBookStorage.SEGMENT_FILE_PREFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new LsmAddressBookStorage(filePath).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void saveAddressBook_newAddressBook_singleSegmentListedByManifest() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new LsmAddressBookStorage(filePath).saveAddressBook(original);
+
+        assertEquals(listSegments(), readListedSegments());
+        assertEquals(1, listSegments().size());
+        assertTrue(getLogFilePath().getFileName().toString().startsWith(LsmAddressBookStorage.LOG_FILE_PREFIX));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_changesBelowMemtableLimit_onlyLogged() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+        List<String> manifest = Files.readAllLines(filePath);
+
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withPhone("12345678").build());
+        original.removePerson(CARL);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        assertEquals(manifest, Files.readAllLines(filePath));
+        // the 3 changes and the commit that ends them
+        assertEquals(4, Files.readAllLines(getLogFilePath()).size());
+        // the edited person keeps its place
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_manyChanges_flushedAndMergedInOrder() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(2, 3);
+        storage.saveAddressBook(original);
+
+        List<Person> changes = List.of(HOON, IDA, AMY, BOB);
+        for (Person person : changes) {
+            original.addPerson(person);
+            storage.saveAddressBook(original);
+            Person first = original.getPersonList().get(0);
+            original.setPerson(first, new PersonBuilder(first)
+                    .withPhone(String.valueOf(10000000 + original.getPersonList().size())).build());
+            storage.saveAddressBook(original);
+        }
+        original.removePerson(DANIEL);
+        storage.saveAddressBook(original);
+
+        assertTrue(listSegments().size() < 3);
+        assertEquals(listSegments(), readListedSegments());
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_mergedSegment_tombstonesDropped() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(1, 2);
+        storage.saveAddressBook(original);
+
+        original.removePerson(CARL);
+        storage.saveAddressBook(original);
+
+        List<String> segments = listSegments();
+        assertEquals(1, segments.size());
+        List<String> lines = Files.readAllLines(directoryPath.resolve(segments.get(0)));
+        assertEquals(original.getPersonList().size(), lines.size());
+        assertTrue(lines.stream().noneMatch(line -> line.contains(LsmAddressBookStorage.DELETED_FIELD)));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_reorderedPersons_readInNewOrder() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+
+        List<Person> reversed = new ArrayList<>(original.getPersonList());
+        Collections.reverse(reversed);
+        original.setPersons(reversed);
+        storage.saveAddressBook(original);
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_insertedPersons_readInPlace() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+
+        List<Person> persons = new ArrayList<>(original.getPersonList());
+        persons.addAll(1, List.of(HOON, IDA));
+        original.setPersons(persons);
+        storage.saveAddressBook(original);
+        assertEquals(3, Files.readAllLines(getLogFilePath()).size());
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void readAddressBook_incompleteLastLogEntry_discardedAndRewritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+        original.removePerson(CARL);
+        storage.saveAddressBook(original);
+        Path logFilePath = getLogFilePath();
+        Files.writeString(logFilePath, "{\"order\":5,\"per", StandardOpenOption.APPEND);
+
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertFalse(Files.exists(logFilePath));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void readAddressBook_batchCutOffAfterTombstone_wholeBatchDiscarded() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+
+        // a rename is a tombstone and an entry, which must not be applied without each other
+        AddressBook renamed = new AddressBook(original);
+        renamed.setPerson(BENSON, new PersonBuilder(BENSON).withName("Benson Renamed").build());
+        storage.saveAddressBook(renamed);
+        Path logFilePath = getLogFilePath();
+        String tombstoneLine = Files.readAllLines(logFilePath).get(0) + "\n";
+        truncateFile(logFilePath, tombstoneLine.length() + 10);
+
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_logNotEndingWithNewline_rewritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+        original.removePerson(CARL);
+        storage.saveAddressBook(original);
+        Path logFilePath = getLogFilePath();
+        truncateFile(logFilePath, Files.size(logFilePath) - 1);
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertFalse(Files.exists(logFilePath));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void readAddressBook_logLeftBehindByRewrite_ignored() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        LsmAddressBookStorage storage = createStorage(LsmAddressBookStorage.DEFAULT_MEMTABLE_LIMIT,
+                LsmAddressBookStorage.DEFAULT_MERGE_SEGMENT_COUNT);
+        storage.saveAddressBook(original);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        Path logFilePath = getLogFilePath();
+        byte[] log = Files.readAllBytes(logFilePath);
+
+        // an incomplete log makes the next save rewrite the address book, which removes HOON
+        Files.writeString(logFilePath, "{\"order\":5,\"per", StandardOpenOption.APPEND);
+        storage.readAddressBook();
+        original.removePerson(HOON);
+        storage.saveAddressBook(original);
+
+        // as if the app stopped before the old log was deleted
+        Files.write(logFilePath, log);
+        assertEquals(original, readFresh());
+        assertFalse(Files.exists(logFilePath));
+    }
+
+    @Test
+    public void readAddressBook_missingSegment_throwsDataLoadingException() throws Exception {
+        new LsmAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        Files.delete(directoryPath.resolve(listSegments().get(0)));
+        assertThrows(DataLoadingException.class, () -> new LsmAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_malformedManifest_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, "../addressbook.json\n");
+        assertThrows(DataLoadingException.class, () -> new LsmAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_unlistedSegments_deleted() throws Exception {
+        LsmAddressBookStorage storage = new LsmAddressBookStorage(filePath);
+        storage.saveAddressBook(getTypicalAddressBook());
+        List<String> segments = listSegments();
+        Files.writeString(directoryPath.resolve(LsmAddressBookStorage.SEGMENT_FILE_PREFIX + 99), "");
+
+        storage.readAddressBook();
+        assertEquals(segments, listSegments());
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_newAddressBookWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        Path otherFilePath = testFolder.resolve("other");
+        LsmAddressBookStorage storage = new LsmAddressBookStorage(filePath);
+        storage.saveAddressBook(original, otherFilePath);
+
+        assertFalse(Files.exists(filePath));
+        assertEquals(original, new AddressBook(storage.readAddressBook(otherFilePath).get()));
+    }
+
+}
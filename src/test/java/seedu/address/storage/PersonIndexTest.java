@@ -0,0 +1,126 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.util.FileUtil;
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.storage.PersonIndex.Key;
+import seedu.address.testutil.PersonBuilder;
+
+public class PersonIndexTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private PersonIndex saveAndOpen(Path filePath, AddressBook addressBook) throws Exception {
+        new BinaryAddressBookStorage(filePath, true).saveAddressBook(addressBook);
+        return PersonIndex.open(filePath).get();
+    }
+
+    @Test
+    public void find_byName_ignoresCaseAndSpaces() throws Exception {
+        PersonIndex index = saveAndOpen(testFolder.resolve("ab.bin"), getTypicalAddressBook());
+        assertEquals(List.of(ALICE), index.find(Key.NAME, "Alice Pauline"));
+        assertEquals(List.of(ALICE), index.find(Key.NAME, "  alice   PAULINE "));
+        assertTrue(index.find(Key.NAME, "Alice").isEmpty());
+    }
+
+    @Test
+    public void find_byPhone_ignoresNonDigits() throws Exception {
+        PersonIndex index = saveAndOpen(testFolder.resolve("ab.bin"), getTypicalAddressBook());
+        assertEquals(List.of(BENSON), index.find(Key.PHONE, "9876 5432"));
+        assertFalse(index.contains(Key.PHONE, "12345678"));
+    }
+
+    @Test
+    public void find_byEmail_allMatchesFound() throws Exception {
+        AddressBook addressBook = getTypicalAddressBook();
+        Person otherAlice = new PersonBuilder(ALICE).withName("Alice Other").build();
+        addressBook.addPerson(otherAlice);
+        PersonIndex index = saveAndOpen(testFolder.resolve("ab.bin"), addressBook);
+        assertEquals(List.of(ALICE, otherAlice), index.find(Key.EMAIL, "ALICE@example.com"));
+    }
+
+    @Test
+    public void close_memoryMapped_findFails() throws Exception {
+        Path filePath = testFolder.resolve("ab.bin");
+        new BinaryAddressBookStorage(filePath, true).saveAddressBook(getTypicalAddressBook());
+        PersonIndex index = PersonIndex.open(filePath, 0).get();
+        assertEquals(List.of(ALICE), index.find(Key.NAME, "Alice Pauline"));
+
+        index.close();
+        index.close();
+        assertThrows(IllegalStateException.class, PersonIndex.MESSAGE_CLOSED, () ->
+                index.find(Key.NAME, "Alice Pauline"));
+        new BinaryAddressBookStorage(filePath, true).saveAddressBook(new AddressBook());
+        assertTrue(PersonIndex.open(filePath).get().find(Key.NAME, "Alice Pauline").isEmpty());
+    }
+
+    @Test
+    public void find_emptyAddressBook_nothingFound() throws Exception {
+        PersonIndex index = saveAndOpen(testFolder.resolve("ab.bin"), new AddressBook());
+        assertEquals(Collections.emptyList(), index.find(Key.NAME, ALICE.getName().fullName));
+    }
+
+    @Test
+    public void open_noIndex_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("ab.bin");
+        new BinaryAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        assertFalse(Files.exists(PersonIndex.getIndexFilePath(filePath)));
+        assertFalse(PersonIndex.open(filePath).isPresent());
+        assertFalse(PersonIndex.open(testFolder.resolve("missing.bin")).isPresent());
+    }
+
+    @Test
+    public void open_dataFileChangedWithoutIndex_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("ab.bin");
+        AddressBook addressBook = getTypicalAddressBook();
+        saveAndOpen(filePath, addressBook);
+
+        addressBook.addPerson(HOON);
+        new BinaryAddressBookStorage(filePath).saveAddressBook(addressBook);
+        assertFalse(PersonIndex.open(filePath).isPresent());
+
+        // saving with the index brings it up to date again
+        assertEquals(List.of(HOON), saveAndOpen(filePath, addressBook).find(Key.NAME, HOON.getName().fullName));
+    }
+
+    @Test
+    public void open_personChangedInPlaceWithoutIndex_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("ab.bin");
+        AddressBook addressBook = getTypicalAddressBook();
+        saveAndOpen(filePath, addressBook);
+        long size = Files.size(filePath);
+
+        // a phone of the same length leaves every record where it was
+        addressBook.setPerson(ALICE, new PersonBuilder(ALICE).withPhone("12345678").build());
+        new BinaryAddressBookStorage(filePath).saveAddressBook(addressBook);
+        assertEquals(size, Files.size(filePath));
+        assertFalse(PersonIndex.open(filePath).isPresent());
+    }
+
+    @Test
+    public void open_indexWritten_noTemporaryFileLeft() throws Exception {
+        Path filePath = testFolder.resolve("ab.bin");
+        saveAndOpen(filePath, getTypicalAddressBook());
+        assertFalse(Files.exists(testFolder.resolve("ab.bin" + PersonIndex.INDEX_FILE_SUFFIX
+                + FileUtil.TEMP_FILE_SUFFIX)));
+    }
+
+}
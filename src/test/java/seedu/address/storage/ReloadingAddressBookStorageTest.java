@@ -0,0 +1,110 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+public class ReloadingAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private JsonAddressBookStorage externalStorage;
+    private ReloadingAddressBookStorage reloadingStorage;
+    private final List<List<Person>> reportedChanges = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("addressbook.json");
+        externalStorage = new JsonAddressBookStorage(filePath);
+        reloadingStorage = new ReloadingAddressBookStorage(new JsonAddressBookStorage(filePath));
+    }
+
+    private void recordChanges(List<Person> removedPersons, List<Person> addedPersons) {
+        reportedChanges.add(removedPersons);
+        reportedChanges.add(addedPersons);
+    }
+
+    @Test
+    public void checkForChanges_externalChange_changedPersonsReported() throws Exception {
+        AddressBook addressBook = getTypicalAddressBook();
+        externalStorage.saveAddressBook(addressBook);
+        reloadingStorage.readAddressBook();
+
+        Person editedBenson = new PersonBuilder(BENSON).withPhone("12345678").build();
+        addressBook.setPerson(BENSON, editedBenson);
+        addressBook.addPerson(HOON);
+        externalStorage.saveAddressBook(addressBook);
+        reloadingStorage.checkForChanges(this::recordChanges);
+
+        assertEquals(List.of(List.of(BENSON), List.of(editedBenson, HOON)), reportedChanges);
+    }
+
+    @Test
+    public void checkForChanges_ownSave_nothingReported() throws Exception {
+        AddressBook addressBook = getTypicalAddressBook();
+        reloadingStorage.saveAddressBook(addressBook);
+        reloadingStorage.checkForChanges(this::recordChanges);
+
+        // the file is read again after a change to it that leaves the same persons
+        externalStorage.saveAddressBook(addressBook);
+        reloadingStorage.checkForChanges(this::recordChanges);
+        assertEquals(Collections.emptyList(), reportedChanges);
+    }
+
+    @Test
+    public void checkForChanges_unloadableFile_leftToNextCheck() throws Exception {
+        AddressBook addressBook = getTypicalAddressBook();
+        reloadingStorage.saveAddressBook(addressBook);
+
+        Files.writeString(filePath, "{ \"persons\": [");
+        reloadingStorage.checkForChanges(this::recordChanges);
+        assertEquals(Collections.emptyList(), reportedChanges);
+
+        addressBook.removePerson(BENSON);
+        externalStorage.saveAddressBook(addressBook);
+        reloadingStorage.checkForChanges(this::recordChanges);
+        assertEquals(List.of(List.of(BENSON), List.of()), reportedChanges);
+    }
+
+    @Test
+    public void startWatching_externalChange_changeReported() throws Exception {
+        AddressBook addressBook = getTypicalAddressBook();
+        reloadingStorage.saveAddressBook(addressBook);
+
+        CountDownLatch changeReported = new CountDownLatch(1);
+        List<Person> addedPersons = Collections.synchronizedList(new ArrayList<>());
+        reloadingStorage.startWatching((removed, added) -> {
+            addedPersons.addAll(added);
+            changeReported.countDown();
+        });
+        try {
+            addressBook.addPerson(HOON);
+            externalStorage.saveAddressBook(addressBook);
+            assertTrue(changeReported.await(10, TimeUnit.SECONDS));
+            assertEquals(List.of(HOON), addedPersons);
+        } finally {
+            reloadingStorage.stopWatching();
+        }
+    }
+
+}
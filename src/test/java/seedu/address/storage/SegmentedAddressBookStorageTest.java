@@ -0,0 +1,252 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.BOB;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+public class SegmentedAddressBookStorageTest {
+
+    private static final int SEGMENT_COUNT = 4;
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private Path segmentDirectoryPath;
+    private CountingAddressBookStorage segmentStorage;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("TempAddressBook.json");
+        segmentDirectoryPath = SegmentedAddressBookStorage.getSegmentDirectoryPath(filePath);
+        segmentStorage = new CountingAddressBookStorage(filePath);
+    }
+
+    private SegmentedAddressBookStorage createStorage(int segmentCount) {
+        return new SegmentedAddressBookStorage(segmentStorage, segmentCount);
+    }
+
+    private Set<String> listSegmentFileNames() throws IOException {
+        try (Stream<Path> files = Files.list(segmentDirectoryPath)) {
+            return files.map(path -> path.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private List<String> readManifest() throws IOException {
+        return Files.readAllLines(segmentDirectoryPath.resolve(SegmentedAddressBookStorage.MANIFEST_FILE_NAME));
+    }
+
+    /**
+     * Returns the number of files in the segment directory for {@code segmentCount} segments: a segment file and an
+     * orders file for each segment, and the manifest.
+     */
+    private static int getFileCount(int segmentCount) {
+        return 2 * segmentCount + 1;
+    }
+
+    @Test
+    public void constructor_nonPositiveSegmentCount_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> createStorage(0));
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(createStorage(SEGMENT_COUNT).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void readAndSaveAddressBook_allInOrder_success() throws Exception {
+        SegmentedAddressBookStorage storage = createStorage(SEGMENT_COUNT);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+        assertEquals(getFileCount(SEGMENT_COUNT), listSegmentFileNames().size());
+        assertEquals(original, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+
+        // the persons keep their places in the list across segments
+        original.addPerson(HOON);
+        original.setPerson(BENSON, BOB);
+        original.removePerson(ALICE);
+        storage.saveAddressBook(original);
+        assertEquals(getFileCount(SEGMENT_COUNT), listSegmentFileNames().size());
+        assertEquals(original, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+    }
+
+    @Test
+    public void saveAddressBook_onePersonAdded_onlyItsSegmentWritten() throws Exception {
+        SegmentedAddressBookStorage storage = createStorage(SEGMENT_COUNT);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+
+        segmentStorage.saveCount = 0;
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+        assertEquals(1, segmentStorage.saveCount);
+
+        segmentStorage.saveCount = 0;
+        storage.saveAddressBook(new AddressBook(original));
+        assertEquals(0, segmentStorage.saveCount);
+    }
+
+    @Test
+    public void saveAddressBook_afterRead_onlyChangedSegmentWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        createStorage(SEGMENT_COUNT).saveAddressBook(original);
+
+        SegmentedAddressBookStorage reopenedStorage = createStorage(SEGMENT_COUNT);
+        AddressBook readBack = new AddressBook(reopenedStorage.readAddressBook().get());
+        segmentStorage.saveCount = 0;
+        readBack.removePerson(ALICE);
+        reopenedStorage.saveAddressBook(readBack);
+        assertEquals(1, segmentStorage.saveCount);
+    }
+
+    @Test
+    public void readAddressBook_noSegments_singleFileReadAndSplitOnSave() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new JsonAddressBookStorage(filePath).saveAddressBook(original);
+
+        SegmentedAddressBookStorage storage = createStorage(SEGMENT_COUNT);
+        assertEquals(original, new AddressBook(storage.readAddressBook().get()));
+        storage.saveAddressBook(original);
+        assertEquals(getFileCount(SEGMENT_COUNT), listSegmentFileNames().size());
+        assertEquals(original, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+    }
+
+    @Test
+    public void readAddressBook_segmentsWithoutManifest_readInIndexOrderAndRewrittenOnSave() throws Exception {
+        // segments as written before there was a manifest, named by their index alone; "segment-10" is listed before
+        // "segment-4" in alphabetical order
+        JsonAddressBookStorage unsegmentedStorage = new JsonAddressBookStorage(filePath);
+        AddressBook expected = getTypicalAddressBook();
+        List<Person> persons = expected.getPersonList();
+        for (int i = 0; i < persons.size(); i++) {
+            AddressBook segment = new AddressBook();
+            segment.addPerson(persons.get(i));
+            unsegmentedStorage.saveAddressBook(segment,
+                    segmentDirectoryPath.resolve(SegmentedAddressBookStorage.SEGMENT_FILE_PREFIX + (i + 4)));
+        }
+
+        SegmentedAddressBookStorage storage = createStorage(SEGMENT_COUNT);
+        ReadOnlyAddressBook readBack = storage.readAddressBook().get();
+        assertEquals(expected, new AddressBook(readBack));
+
+        storage.saveAddressBook(readBack);
+        assertEquals(getFileCount(SEGMENT_COUNT), listSegmentFileNames().size());
+        assertEquals(expected, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+    }
+
+    @Test
+    public void saveAddressBook_crashBeforeManifestReplaced_previousSegmentsRead() throws Exception {
+        SegmentedAddressBookStorage storage = createStorage(SEGMENT_COUNT);
+        AddressBook original = getTypicalAddressBook();
+        storage.saveAddressBook(original);
+
+        // a rename that moves a person to another segment, cut off after writing the first changed segment
+        AddressBook edited = new AddressBook(original);
+        Person renamed = new PersonBuilder(BENSON).withName(findNameInOtherSegment(BENSON)).build();
+        edited.setPerson(BENSON, renamed);
+        segmentStorage.remainingSaveCount = 1;
+        assertThrows(IOException.class, () -> storage.saveAddressBook(edited));
+        assertEquals(original, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+
+        // the files left behind by the failed save are deleted by the next one
+        segmentStorage.remainingSaveCount = Integer.MAX_VALUE;
+        storage.saveAddressBook(edited);
+        assertEquals(getFileCount(SEGMENT_COUNT), listSegmentFileNames().size());
+        assertEquals(edited, new AddressBook(createStorage(SEGMENT_COUNT).readAddressBook().get()));
+    }
+
+    @Test
+    public void readAddressBook_listedSegmentMissing_throwsDataLoadingException() throws Exception {
+        createStorage(SEGMENT_COUNT).saveAddressBook(getTypicalAddressBook());
+        Files.delete(segmentDirectoryPath.resolve(readManifest().get(0)));
+        assertThrows(DataLoadingException.class, () -> createStorage(SEGMENT_COUNT).readAddressBook());
+    }
+
+    /**
+     * Returns a valid name for {@code person} that puts it in a different segment.
+     */
+    private static String findNameInOtherSegment(Person person) {
+        int segmentIndex = SegmentedAddressBookStorage.getSegmentIndex(person, SEGMENT_COUNT);
+        for (int i = 0; ; i++) {
+            Person renamed = new PersonBuilder(person).withName(person.getName().fullName + " " + i).build();
+            if (SegmentedAddressBookStorage.getSegmentIndex(renamed, SEGMENT_COUNT) != segmentIndex) {
+                return renamed.getName().fullName;
+            }
+        }
+    }
+
+    @Test
+    public void readAddressBook_segmentCountChanged_segmentsRedistributed() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        createStorage(SEGMENT_COUNT).saveAddressBook(original);
+
+        SegmentedAddressBookStorage storage = createStorage(2);
+        ReadOnlyAddressBook readBack = storage.readAddressBook().get();
+        assertEquals(original, new AddressBook(readBack));
+
+        storage.saveAddressBook(readBack);
+        assertEquals(getFileCount(2), listSegmentFileNames().size());
+        assertEquals(2, readManifest().size());
+        assertTrue(readManifest().get(1).startsWith(SegmentedAddressBookStorage.SEGMENT_FILE_PREFIX + "1-"));
+        assertEquals(original, new AddressBook(createStorage(2).readAddressBook().get()));
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_singleFileSaved() throws Exception {
+        Path otherFilePath = testFolder.resolve("OtherAddressBook.json");
+        AddressBook original = getTypicalAddressBook();
+        createStorage(SEGMENT_COUNT).saveAddressBook(original, otherFilePath);
+
+        assertFalse(Files.exists(SegmentedAddressBookStorage.getSegmentDirectoryPath(otherFilePath)));
+        assertEquals(original, new AddressBook(new JsonAddressBookStorage(otherFilePath).readAddressBook().get()));
+    }
+
+    /**
+     * A {@code JsonAddressBookStorage} that counts how many files it saved, and fails once
+     * {@code remainingSaveCount} files have been saved.
+     */
+    private static class CountingAddressBookStorage extends JsonAddressBookStorage {
+        private int saveCount;
+        private int remainingSaveCount = Integer.MAX_VALUE;
+
+        CountingAddressBookStorage(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+            if (remainingSaveCount == 0) {
+                throw new IOException("dummy IO exception");
+            }
+            remainingSaveCount--;
+            saveCount++;
+            super.saveAddressBook(addressBook, filePath);
+        }
+    }
+
+}
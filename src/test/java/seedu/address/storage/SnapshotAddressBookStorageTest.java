@@ -0,0 +1,168 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.model.ReadOnlyAddressBook;
+import seedu.address.testutil.PersonBuilder;
+
+public class SnapshotAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private Path snapshotFilePath;
+    private JsonAddressBookStorage externalStorage;
+    private ReadCountingStorage dataStorage;
+    private SnapshotAddressBookStorage snapshotStorage;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("addressbook.json");
+        snapshotFilePath = SnapshotAddressBookStorage.getSnapshotFilePath(filePath);
+        externalStorage = new JsonAddressBookStorage(filePath);
+        dataStorage = new ReadCountingStorage(filePath);
+        snapshotStorage = new SnapshotAddressBookStorage(dataStorage);
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(snapshotStorage.readAddressBook().isPresent());
+        assertFalse(Files.exists(snapshotFilePath));
+    }
+
+    @Test
+    public void readAddressBook_legacyDataFile_snapshotWrittenAndPreferred() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        externalStorage.saveAddressBook(original);
+
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(1, dataStorage.readCount);
+        assertTrue(Files.exists(snapshotFilePath));
+        assertEquals(original, new AddressBook(new BinaryAddressBookStorage(snapshotFilePath).readAddressBook().get()));
+
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(1, dataStorage.readCount);
+    }
+
+    @Test
+    public void readAddressBook_dataFileChanged_dataFileRead() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        externalStorage.saveAddressBook(original);
+        snapshotStorage.readAddressBook();
+
+        // the same size, so that only the checksum tells the change apart
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withPhone("98765433").build());
+        externalStorage.saveAddressBook(original);
+        Files.setLastModifiedTime(filePath, FileTime.fromMillis(Files.getLastModifiedTime(filePath).toMillis() + 5000));
+
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(2, dataStorage.readCount);
+        // the snapshot is taken again
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(2, dataStorage.readCount);
+    }
+
+    @Test
+    public void readAddressBook_dataFileTouched_snapshotRead() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        externalStorage.saveAddressBook(original);
+        snapshotStorage.readAddressBook();
+
+        Files.setLastModifiedTime(filePath, FileTime.fromMillis(Files.getLastModifiedTime(filePath).toMillis() + 5000));
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(1, dataStorage.readCount);
+    }
+
+    @Test
+    public void readAddressBook_missingOrDamagedSnapshot_dataFileRead() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        externalStorage.saveAddressBook(original);
+        snapshotStorage.readAddressBook();
+
+        Files.delete(snapshotFilePath);
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(2, dataStorage.readCount);
+
+        Files.write(snapshotFilePath, new byte[] {1, 2, 3});
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(3, dataStorage.readCount);
+    }
+
+    @Test
+    public void saveAddressBook_snapshotOnlyTakenOnRefresh() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        externalStorage.saveAddressBook(original);
+        snapshotStorage.readAddressBook();
+
+        // saves leave the snapshot stale
+        original.addPerson(HOON);
+        snapshotStorage.saveAddressBook(original);
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withPhone("98765433").build());
+        snapshotStorage.saveAddressBook(original);
+        assertEquals(original, new AddressBook(new SnapshotAddressBookStorage(dataStorage).readAddressBook().get()));
+        assertEquals(2, dataStorage.readCount);
+
+        snapshotStorage.refreshSnapshot();
+        assertEquals(original, new AddressBook(new BinaryAddressBookStorage(snapshotFilePath).readAddressBook().get()));
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(2, dataStorage.readCount);
+        assertEquals(original, new AddressBook(externalStorage.readAddressBook().get()));
+    }
+
+    @Test
+    public void refreshSnapshot_dataFileChangedAfterSave_noSnapshotTaken() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        snapshotStorage.saveAddressBook(original);
+        original.addPerson(HOON);
+        externalStorage.saveAddressBook(original);
+
+        snapshotStorage.refreshSnapshot();
+        assertFalse(Files.exists(snapshotFilePath));
+        assertEquals(original, new AddressBook(snapshotStorage.readAddressBook().get()));
+        assertEquals(1, dataStorage.readCount);
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_noSnapshotWritten() throws Exception {
+        Path otherFilePath = testFolder.resolve("other.json");
+        snapshotStorage.saveAddressBook(getTypicalAddressBook(), otherFilePath);
+
+        assertFalse(Files.exists(snapshotFilePath));
+        assertFalse(Files.exists(SnapshotAddressBookStorage.getSnapshotFilePath(otherFilePath)));
+    }
+
+    /**
+     * A {@code JsonAddressBookStorage} that counts how many times it read a data file.
+     */
+    private static class ReadCountingStorage extends JsonAddressBookStorage {
+        private int readCount;
+
+        ReadCountingStorage(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public Optional<ReadOnlyAddressBook> readAddressBook(Path filePath) throws DataLoadingException {
+            readCount++;
+            return super.readAddressBook(filePath);
+        }
+    }
+
+}
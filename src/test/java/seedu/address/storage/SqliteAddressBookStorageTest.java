@@ -0,0 +1,231 @@
+package seedu.address.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.ALICE;
+import static seedu.address.testutil.TypicalPersons.BENSON;
+import static seedu.address.testutil.TypicalPersons.CARL;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.IDA;
+import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import seedu.address.commons.exceptions.DataLoadingException;
+import seedu.address.model.AddressBook;
+import seedu.address.model.person.Person;
+import seedu.address.testutil.PersonBuilder;
+
+public class SqliteAddressBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("addressbook.db");
+    }
+
+    private AddressBook readFresh() throws Exception {
+        return new AddressBook(new SqliteAddressBookStorage(filePath).readAddressBook().get());
+    }
+
+    /**
+     * Returns the values in the first column of the rows returned by {@code sql}.
+     */
+    private List<String> query(String sql) throws Exception {
+        List<String> values = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(SqliteAddressBookStorage.JDBC_URL_PREFIX + filePath);
+                Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                values.add(result.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(SqliteAddressBookStorage.JDBC_URL_PREFIX + filePath);
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Test
+    public void readAddressBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new SqliteAddressBookStorage(filePath).readAddressBook().isPresent());
+    }
+
+    @Test
+    public void saveAddressBook_newDatabase_normalizedRows() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new SqliteAddressBookStorage(filePath).saveAddressBook(original);
+
+        assertEquals(List.of("Alice Pauline", "Benson Meier", "Carl Kurz", "Daniel Meier", "Elle Meyer",
+                "Fiona Kunz", "George Best"), query("SELECT name FROM persons ORDER BY position"));
+        assertEquals(List.of("friends", "owesMoney"), query("SELECT name FROM tags ORDER BY name"));
+        assertEquals(List.of("Benson Meier"), query("SELECT persons.name FROM persons"
+                + " JOIN person_tags ON person_tags.person_id = persons.id"
+                + " JOIN tags ON tags.id = person_tags.tag_id WHERE tags.name = 'owesMoney'"));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_changes_onlyChangedRowsWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.saveAddressBook(original);
+        List<String> aliceRowId = query("SELECT id FROM persons WHERE name = 'Alice Pauline'");
+        // rows written outside the storage are left alone unless their persons change
+        execute("UPDATE persons SET address = 'unchanged' WHERE name = 'Alice Pauline'");
+
+        Person editedBenson = new PersonBuilder(BENSON).withPhone("12345678").withTags("colleagues").build();
+        original.setPerson(BENSON, editedBenson);
+        original.removePerson(CARL);
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        assertEquals(aliceRowId, query("SELECT id FROM persons WHERE name = 'Alice Pauline'"));
+        assertEquals(List.of("unchanged"), query("SELECT address FROM persons WHERE name = 'Alice Pauline'"));
+        assertEquals(List.of("12345678"), query("SELECT phone FROM persons WHERE name = 'Benson Meier'"));
+        // the tag that was only used by the edited person is deleted
+        assertEquals(List.of("colleagues", "friends"), query("SELECT name FROM tags ORDER BY name"));
+
+        execute("UPDATE persons SET address = '" + ALICE.getAddress().value + "' WHERE name = 'Alice Pauline'");
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_insertedAndReorderedPersons_readInOrder() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.saveAddressBook(original);
+
+        List<Person> persons = new ArrayList<>(original.getPersonList());
+        persons.addAll(1, List.of(HOON, IDA));
+        original.setPersons(persons);
+        storage.saveAddressBook(original);
+        assertEquals(original, readFresh());
+
+        persons.add(persons.remove(0));
+        original.setPersons(persons);
+        storage.saveAddressBook(original);
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_afterRead_onlyChangesWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new SqliteAddressBookStorage(filePath).saveAddressBook(original);
+
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.readAddressBook();
+        List<String> ids = query("SELECT id FROM persons ORDER BY position");
+        original.addPerson(HOON);
+        storage.saveAddressBook(original);
+
+        List<String> newIds = query("SELECT id FROM persons ORDER BY position");
+        assertEquals(ids, newIds.subList(0, ids.size()));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_withoutRead_onlyChangesWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        new SqliteAddressBookStorage(filePath).saveAddressBook(original);
+        List<String> ids = query("SELECT id FROM persons ORDER BY position");
+
+        original.addPerson(HOON);
+        new SqliteAddressBookStorage(filePath).saveAddressBook(original);
+        assertEquals(ids, query("SELECT id FROM persons ORDER BY position").subList(0, ids.size()));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_concurrentReader_saved() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.saveAddressBook(original);
+
+        // another program in the middle of a read transaction
+        try (Connection reader = DriverManager.getConnection(SqliteAddressBookStorage.JDBC_URL_PREFIX + filePath);
+                Statement statement = reader.createStatement()) {
+            statement.execute("BEGIN");
+            try (ResultSet result = statement.executeQuery("SELECT name FROM persons")) {
+                assertTrue(result.next());
+            }
+
+            original.addPerson(HOON);
+            storage.saveAddressBook(original);
+            statement.execute("COMMIT");
+        }
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void saveAddressBook_previousSaveFailed_onlyChangesWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.saveAddressBook(original);
+        List<String> ids = query("SELECT id FROM persons ORDER BY position");
+
+        execute("CREATE TRIGGER fail_insert BEFORE INSERT ON persons BEGIN SELECT RAISE(ABORT, 'dummy'); END");
+        original.addPerson(HOON);
+        assertThrows(IOException.class, () -> storage.saveAddressBook(original));
+        execute("DROP TRIGGER fail_insert");
+
+        // the failed save was rolled back, so the next save only writes the same changes again
+        storage.saveAddressBook(original);
+        assertEquals(ids, query("SELECT id FROM persons ORDER BY position").subList(0, ids.size()));
+        assertEquals(original, readFresh());
+    }
+
+    @Test
+    public void readAddressBook_invalidPerson_throwsDataLoadingException() throws Exception {
+        new SqliteAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        execute("UPDATE persons SET email = 'invalid' WHERE name = 'Alice Pauline'");
+        assertThrows(DataLoadingException.class, () -> new SqliteAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_notDatabase_throwsDataLoadingException() throws Exception {
+        Files.writeString(filePath, "this is not an SQLite database, but a text file that is long enough");
+        assertThrows(DataLoadingException.class, () -> new SqliteAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void readAddressBook_newerSchemaVersion_throwsDataLoadingException() throws Exception {
+        new SqliteAddressBookStorage(filePath).saveAddressBook(getTypicalAddressBook());
+        execute("PRAGMA user_version = " + (SqliteAddressBookStorage.SCHEMA_VERSION + 1));
+        assertThrows(DataLoadingException.class, () -> new SqliteAddressBookStorage(filePath).readAddressBook());
+    }
+
+    @Test
+    public void saveAddressBook_otherFilePath_databaseWritten() throws Exception {
+        AddressBook original = getTypicalAddressBook();
+        Path otherFilePath = testFolder.resolve("other.db");
+        SqliteAddressBookStorage storage = new SqliteAddressBookStorage(filePath);
+        storage.saveAddressBook(original, otherFilePath);
+
+        assertFalse(Files.exists(filePath));
+        assertEquals(original, new AddressBook(storage.readAddressBook(otherFilePath).get()));
+    }
+
+}
@@ -1,10 +1,19 @@
 package seedu.address.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static seedu.address.testutil.Assert.assertThrows;
+import static seedu.address.testutil.TypicalPersons.HOON;
+import static seedu.address.testutil.TypicalPersons.IDA;
 import static seedu.address.testutil.TypicalPersons.getTypicalAddressBook;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +23,7 @@ import seedu.address.commons.core.GuiSettings;
 import seedu.address.model.AddressBook;
 import seedu.address.model.ReadOnlyAddressBook;
 import seedu.address.model.UserPrefs;
+import seedu.address.testutil.ManualScheduledExecutor;
 
 public class StorageManagerTest {
 
@@ -65,4 +75,117 @@ public class StorageManagerTest {
         assertNotNull(storageManager.getAddressBookFilePath());
     }
 
+    @Test
+    public void saveAddressBook_writeBehind_burstMergedIntoOneWrite() throws Exception {
+        List<ReadOnlyAddressBook> writtenAddressBooks = Collections.synchronizedList(new ArrayList<>());
+        JsonAddressBookStorage addressBookStorage = new JsonAddressBookStorage(getTempFilePath("ab")) {
+            @Override
+            public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) {
+                writtenAddressBooks.add(addressBook);
+            }
+        };
+        StorageManager writeBehindStorageManager = new StorageManager(addressBookStorage,
+                new JsonUserPrefsStorage(getTempFilePath("prefs")), 60_000);
+
+        AddressBook addressBook = getTypicalAddressBook();
+        writeBehindStorageManager.saveAddressBook(addressBook);
+        addressBook.addPerson(HOON);
+        writeBehindStorageManager.saveAddressBook(addressBook);
+        AddressBook expected = new AddressBook(addressBook);
+        addressBook.addPerson(IDA);
+        assertTrue(writtenAddressBooks.isEmpty());
+
+        // the snapshot taken by the last save is written, not the current state of the address book
+        writeBehindStorageManager.close();
+        assertEquals(1, writtenAddressBooks.size());
+        assertEquals(expected, new AddressBook(writtenAddressBooks.get(0)));
+
+        // saves after closing are written synchronously
+        writeBehindStorageManager.saveAddressBook(addressBook);
+        assertEquals(2, writtenAddressBooks.size());
+    }
+
+    @Test
+    public void close_writeBehindFailure_throwsIoException() {
+        JsonAddressBookStorage addressBookStorage = new JsonAddressBookStorage(getTempFilePath("ab")) {
+            @Override
+            public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+                throw new IOException("dummy IO exception");
+            }
+        };
+        StorageManager writeBehindStorageManager = new StorageManager(addressBookStorage,
+                new JsonUserPrefsStorage(getTempFilePath("prefs")), 60_000);
+
+        assertThrows(IOException.class, () -> {
+            writeBehindStorageManager.saveAddressBook(getTypicalAddressBook());
+            writeBehindStorageManager.close();
+        });
+    }
+
+    @Test
+    public void saveAddressBook_previousWriteBehindFailed_throwsIoException() throws Exception {
+        List<ReadOnlyAddressBook> writtenAddressBooks = Collections.synchronizedList(new ArrayList<>());
+        JsonAddressBookStorage addressBookStorage = new JsonAddressBookStorage(getTempFilePath("ab")) {
+            @Override
+            public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+                if (writtenAddressBooks.isEmpty()) {
+                    writtenAddressBooks.add(null);
+                    throw new IOException("dummy IO exception");
+                }
+                writtenAddressBooks.add(addressBook);
+            }
+        };
+        ManualScheduledExecutor addressBookWriter = new ManualScheduledExecutor();
+        StorageManager writeBehindStorageManager = new StorageManager(addressBookStorage,
+                new JsonUserPrefsStorage(getTempFilePath("prefs")), 0, addressBookWriter);
+
+        AddressBook addressBook = getTypicalAddressBook();
+        writeBehindStorageManager.saveAddressBook(addressBook);
+        assertEquals(1, addressBookWriter.runScheduledTasks());
+
+        // the failure of the first write is reported by the next save
+        assertThrows(IOException.class, () -> writeBehindStorageManager.saveAddressBook(addressBook));
+
+        // the data is still written in the end
+        writeBehindStorageManager.close();
+        assertEquals(addressBook, new AddressBook(writtenAddressBooks.get(writtenAddressBooks.size() - 1)));
+    }
+
+    @Test
+    public void saveAddressBook_writeBehindFailure_retriedAndReportedToListener() throws Exception {
+        List<ReadOnlyAddressBook> writtenAddressBooks = Collections.synchronizedList(new ArrayList<>());
+        List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        JsonAddressBookStorage addressBookStorage = new JsonAddressBookStorage(getTempFilePath("ab")) {
+            @Override
+            public void saveAddressBook(ReadOnlyAddressBook addressBook, Path filePath) throws IOException {
+                if (failures.size() < 2) {
+                    throw new IOException("dummy IO exception");
+                }
+                writtenAddressBooks.add(addressBook);
+            }
+        };
+        ManualScheduledExecutor addressBookWriter = new ManualScheduledExecutor();
+        StorageManager writeBehindStorageManager = new StorageManager(addressBookStorage,
+                new JsonUserPrefsStorage(getTempFilePath("prefs")), 1000, addressBookWriter);
+        writeBehindStorageManager.setWriteFailureListener(failures::add);
+
+        // a single save is retried until it is written, without any further save
+        AddressBook addressBook = getTypicalAddressBook();
+        writeBehindStorageManager.saveAddressBook(addressBook);
+        addressBookWriter.runScheduledTasks();
+        assertEquals(1, failures.size());
+        assertFalse(writeBehindStorageManager.isAddressBookWritten());
+        addressBookWriter.runScheduledTasks();
+        assertEquals(2, failures.size());
+        assertFalse(writeBehindStorageManager.isAddressBookWritten());
+        addressBookWriter.runScheduledTasks();
+        assertTrue(writeBehindStorageManager.isAddressBookWritten());
+        assertEquals(2, failures.size());
+        // retries back off, starting from the minimum delay
+        assertEquals(List.of(1000L, StorageManager.MIN_RETRY_DELAY_MILLIS, 2 * StorageManager.MIN_RETRY_DELAY_MILLIS),
+                addressBookWriter.getScheduledDelaysMillis());
+        assertEquals(1, writtenAddressBooks.size());
+        assertEquals(addressBook, new AddressBook(writtenAddressBooks.get(0)));
+    }
+
 }
@@ -0,0 +1,66 @@
+package seedu.address.testutil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduled executor whose scheduled tasks only run when the test calls {@link #runScheduledTasks()}, on the thread
+ * of the test, so that tests do not have to wait for them. Tasks that are submitted still run right away on the thread
+ * of the executor.
+ */
+public class ManualScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private final List<Long> scheduledDelaysMillis = new ArrayList<>();
+
+    public ManualScheduledExecutor() {
+        super(1);
+    }
+
+    /**
+     * Keeps {@code command} until {@link #runScheduledTasks()} is called, instead of running it after the delay.
+     * Returns null, as the future of a kept task is never completed.
+     */
+    @Override
+    public synchronized ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        scheduledTasks.add(command);
+        scheduledDelaysMillis.add(unit.toMillis(delay));
+        return null;
+    }
+
+    /**
+     * Runs {@code task} on the thread of the executor right away, as {@link #schedule} no longer does.
+     */
+    @Override
+    public Future<?> submit(Runnable task) {
+        return super.schedule(task, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the delays of all tasks scheduled so far, in milliseconds.
+     */
+    public synchronized List<Long> getScheduledDelaysMillis() {
+        return new ArrayList<>(scheduledDelaysMillis);
+    }
+
+    /**
+     * Runs the tasks scheduled so far, in order, but not the tasks that they schedule in turn.
+     * Returns the number of tasks run.
+     */
+    public int runScheduledTasks() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(scheduledTasks);
+            scheduledTasks.clear();
+        }
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        return tasks.size();
+    }
+
+}
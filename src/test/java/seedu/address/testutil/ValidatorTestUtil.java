@@ -0,0 +1,72 @@
+package seedu.address.testutil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A utility class for testing field validators against the regexes that specify them.
+ */
+public class ValidatorTestUtil {
+
+    /** Characters of interest to the validation regexes, including whitespace, line terminators and non-ASCII. */
+    public static final String INTERESTING_CHARACTERS = "aZ09 +_.-@#\t\n\r\u000B\f\u0085\u2028\u00e9\u0661";
+
+    private static final int RANDOM_STRING_COUNT = 20000;
+    private static final int RANDOM_STRING_MAX_LENGTH = 24;
+
+    /**
+     * Asserts that {@code validator} accepts exactly the strings that fully match {@code regex}, for all strings of
+     * up to {@code maxLength} characters from {@code alphabet} and for random strings of
+     * {@link #INTERESTING_CHARACTERS}.
+     */
+    public static void assertEquivalentToRegex(Predicate<String> validator, String regex, String alphabet,
+            int maxLength) {
+        Pattern pattern = Pattern.compile(regex);
+        for (String test : generateAllStrings(alphabet, maxLength)) {
+            assertEquals(pattern.matcher(test).matches(), validator.test(test), "Mismatch for \"" + test + "\"");
+        }
+
+        Random random = new Random(regex.hashCode());
+        for (int i = 0; i < RANDOM_STRING_COUNT; i++) {
+            String test = generateRandomString(random, INTERESTING_CHARACTERS, RANDOM_STRING_MAX_LENGTH);
+            assertEquals(pattern.matcher(test).matches(), validator.test(test), "Mismatch for \"" + test + "\"");
+        }
+    }
+
+    /**
+     * Returns all strings of up to {@code maxLength} characters from {@code alphabet}, including the empty string.
+     */
+    public static List<String> generateAllStrings(String alphabet, int maxLength) {
+        List<String> strings = new ArrayList<>();
+        strings.add("");
+        int lengthStart = 0;
+        for (int length = 1; length <= maxLength; length++) {
+            int lengthEnd = strings.size();
+            for (int i = lengthStart; i < lengthEnd; i++) {
+                for (char c : alphabet.toCharArray()) {
+                    strings.add(strings.get(i) + c);
+                }
+            }
+            lengthStart = lengthEnd;
+        }
+        return strings;
+    }
+
+    /**
+     * Returns a string of up to {@code maxLength} random characters from {@code alphabet}.
+     */
+    public static String generateRandomString(Random random, String alphabet, int maxLength) {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+}